@@ -1,6 +1,7 @@
 plugins {
     id("com.android.application")
     id("com.google.gms.google-services")
+    id("androidx.baselineprofile")
 }
 
 android {
@@ -19,7 +20,8 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
@@ -30,8 +32,32 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests.isIncludeAndroidResources = true
+        // Log e SystemClock no TaskRepository viram no-ops nos testes de JVM
+        unitTests.isReturnDefaultValues = true
+        unitTests.all { test ->
+            // -Djmh=true (e -Djmh.sizes, -Djmh.forks, -Djmh.report) chegam ao DataLayerBenchmarkTest
+            System.getProperties().stringPropertyNames()
+                .filter { it == "jmh" || it.startsWith("jmh.") }
+                .forEach { test.systemProperty(it, System.getProperty(it)) }
+            // Com -Djmh.forks=0 os benchmarks de 100k tarefas rodam no próprio worker
+            if (System.getProperty("jmh") != null) {
+                test.maxHeapSize = "2g"
+            }
+        }
+    }
 
+}
 
+androidComponents {
+    // benchmarkRelease e nonMinifiedRelease são criados pelo plugin de baseline profile a partir do
+    // release; assinados com a chave de debug para o :benchmark conseguir instalá-los no aparelho
+    onVariants { variant ->
+        if (variant.buildType == "benchmarkRelease" || variant.buildType == "nonMinifiedRelease") {
+            variant.signingConfig?.setConfig(android.signingConfigs.getByName("debug"))
+        }
+    }
 }
 
 dependencies {
@@ -41,11 +67,21 @@ dependencies {
     implementation("com.google.firebase:firebase-auth")
     implementation("com.google.firebase:firebase-database")
     implementation("androidx.core:core-ktx:1.13.1")
+    implementation("androidx.core:core-splashscreen:1.0.1")
+    implementation("androidx.profileinstaller:profileinstaller:1.3.1")
     implementation("androidx.appcompat:appcompat:1.7.0")
     implementation("com.google.android.material:material:1.12.0")
     implementation("androidx.constraintlayout:constraintlayout:2.1.4")
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
+    implementation("androidx.lifecycle:lifecycle-viewmodel:2.8.3")
     implementation("com.google.firebase:firebase-inappmessaging:21.0.0")
+    baselineProfile(project(":benchmark"))
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.12.2")
+    testImplementation("androidx.test:core:1.6.1")
+    testImplementation("org.openjdk.jmh:jmh-core:1.37")
+    testAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
     androidTestImplementation("androidx.test.ext:junit:1.2.0")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.6.0")
 }
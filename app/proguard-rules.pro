@@ -5,17 +5,10 @@
 # For more details, see
 #   http://developer.android.com/guide/developing/tools/proguard.html
 
-# If your project uses WebView with JS, uncomment the following
-# and specify the fully qualified class name to the JavaScript interface
-# class:
-#-keepclassmembers class fqcn.of.javascript.interface.for.webview {
-#   public *;
-#}
+# Task não precisa de regras: o TaskCodec lê e grava os campos pelo nome, sem reflexão,
+# então o R8 pode renomear e otimizar a classe à vontade. Se algum getValue(Class) voltar
+# a ser usado, a classe mapeada precisa de -keep para o construtor e os getters/setters.
 
-# Uncomment this to preserve the line number information for
-# debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
-
-# If you keep the line number information, uncomment this to
-# hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+# Stack traces legíveis nos relatórios de erro do release
+-keepattributes SourceFile,LineNumberTable
+-renamesourcefileattribute SourceFile
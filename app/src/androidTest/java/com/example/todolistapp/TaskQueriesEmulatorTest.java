@@ -0,0 +1,118 @@
+package com.example.todolistapp;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+// Roda contra os emuladores locais com as regras e índices de database.rules.json:
+//   firebase emulators:start --only auth,database
+// 10.0.2.2 é o computador visto de dentro do emulador do Android.
+@RunWith(AndroidJUnit4.class)
+public class TaskQueriesEmulatorTest {
+
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private static DatabaseReference tasks;
+
+    private final TimeZone zone = TimeZone.getDefault();
+    private long now;
+
+    @BeforeClass
+    public static void connect() throws Exception {
+        FirebaseAuth auth = FirebaseAuth.getInstance();
+        auth.useEmulator(EMULATOR_HOST, 9099);
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        database.useEmulator(EMULATOR_HOST, 9000);
+        String uid = Tasks.await(auth.signInAnonymously()).getUser().getUid();
+        tasks = database.getReference("tasks").child(uid);
+    }
+
+    @AfterClass
+    public static void disconnect() throws Exception {
+        Tasks.await(tasks.removeValue());
+        FirebaseAuth.getInstance().signOut();
+    }
+
+    @Before
+    public void seed() throws Exception {
+        now = System.currentTimeMillis();
+        long[] today = TaskQueries.dayBounds(now, zone);
+        Map<String, Object> updates = new HashMap<>();
+        put(updates, task("hoje", false, today[1] - 1, Task.PRIORITY_NONE));
+        put(updates, task("hojeConcluida", true, today[1] - 1, Task.PRIORITY_NONE));
+        put(updates, task("atrasada", false, now - 48 * HOUR, Task.PRIORITY_LOW));
+        put(updates, task("atrasadaConcluida", true, now - 48 * HOUR, Task.PRIORITY_HIGH));
+        put(updates, task("futura", false, today[1] + 72 * HOUR, Task.PRIORITY_MEDIUM));
+        put(updates, task("urgente", false, null, Task.PRIORITY_HIGH));
+        put(updates, task("semPrazo", false, null, Task.PRIORITY_NONE));
+        Tasks.await(tasks.removeValue());
+        Tasks.await(tasks.updateChildren(updates));
+    }
+
+    @Test
+    public void dueTodayReturnsOnlyPendingTasksDueToday() throws Exception {
+        assertEquals(Arrays.asList("hoje"), ids(TaskQueries.dueToday(tasks, now, zone)));
+    }
+
+    @Test
+    public void overdueReturnsOnlyPendingTasksPastTheirDueDate() throws Exception {
+        List<String> overdue = ids(TaskQueries.overdue(tasks, now));
+
+        assertTrue(overdue.contains("atrasada"));
+        assertFalse(overdue.contains("atrasadaConcluida"));
+        assertFalse(overdue.contains("futura"));
+        assertFalse(overdue.contains("semPrazo"));
+    }
+
+    @Test
+    public void topPriorityReturnsPendingTasksWithAPriority() throws Exception {
+        // Ordem crescente do índice: a de maior prioridade vem por último
+        assertEquals(Arrays.asList("atrasada", "futura", "urgente"), ids(TaskQueries.topPriorityPending(tasks)));
+    }
+
+    @Test
+    public void serverTimestampsAreFilledIn() throws Exception {
+        Task task = TaskCodec.fromSnapshot(Tasks.await(tasks.child("hoje").get()));
+
+        assertNotNull(task.getCreatedAt());
+        assertEquals(task.getCreatedAt(), task.getUpdatedAt());
+        assertTrue(Math.abs(task.getCreatedAt() - now) < HOUR);
+    }
+
+    private static Task task(String id, boolean completed, Long dueAt, int priority) {
+        return new Task(id, id, "", completed, null, null, dueAt, priority, null);
+    }
+
+    private static void put(Map<String, Object> updates, Task task) {
+        TaskCodec.putPaths(task, updates);
+    }
+
+    private static List<String> ids(Query query) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (DataSnapshot child : Tasks.await(query.get()).getChildren()) {
+            ids.add(child.getKey());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todolistapp;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+// Um único PendingIntent para a fila inteira: armar de novo substitui o alarme anterior
+public class AlarmManagerAlarms implements ReminderScheduler.Alarms {
+
+    public static final String ACTION_REMINDERS_DUE = "com.example.todolistapp.action.REMINDERS_DUE";
+
+    private final Context context;
+    private final AlarmManager alarmManager;
+
+    public AlarmManagerAlarms(Context context) {
+        this.context = context;
+        this.alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    }
+
+    @Override
+    public void setNext(long fireAt) {
+        if (alarmManager == null) {
+            return;
+        }
+        PendingIntent pendingIntent = pendingIntent(PendingIntent.FLAG_UPDATE_CURRENT);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            // Sem permissão de alarme exato o sistema pode adiar um pouco o lembrete
+            alarmManager.set(AlarmManager.RTC_WAKEUP, fireAt, pendingIntent);
+        } else {
+            alarmManager.setExact(AlarmManager.RTC_WAKEUP, fireAt, pendingIntent);
+        }
+    }
+
+    @Override
+    public void cancelNext() {
+        PendingIntent pendingIntent = pendingIntent(PendingIntent.FLAG_NO_CREATE);
+        if (pendingIntent != null && alarmManager != null) {
+            alarmManager.cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+
+    private PendingIntent pendingIntent(int flags) {
+        Intent intent = new Intent(context, ReminderBroadcastReceiver.class);
+        intent.setAction(ACTION_REMINDERS_DUE);
+        return PendingIntent.getBroadcast(context, 0, intent, flags | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.todolistapp;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.google.firebase.analytics.FirebaseAnalytics;
+import com.google.firebase.inappmessaging.FirebaseInAppMessaging;
+
+// Componentes do Firebase que não desenham nada: coleta desligada no manifesto e
+// ligada só depois do primeiro frame, fora da thread principal.
+// Os registrars (inclusive o do In-App Messaging, que é eager) continuam sendo criados pelo
+// FirebaseInitProvider junto com os do Auth e do Database; sem coleta eles não leem disco,
+// não buscam campanhas e não enviam eventos, que é o custo que pesava no primeiro frame.
+public class DeferredStartup {
+
+    private static boolean started;
+
+    private DeferredStartup() {
+    }
+
+    public static void afterFirstFrame(Activity activity) {
+        if (started) {
+            return;
+        }
+        Context appContext = activity.getApplicationContext();
+        View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                // Não é permitido remover o listener durante o onDraw
+                decorView.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(this));
+                if (!started) {
+                    started = true;
+                    new Thread(() -> enableFirebaseCollection(appContext), "deferred-startup").start();
+                }
+            }
+        });
+    }
+
+    private static void enableFirebaseCollection(Context context) {
+        FirebaseAnalytics.getInstance(context).setAnalyticsCollectionEnabled(true);
+        FirebaseInAppMessaging.getInstance().setAutomaticDataCollectionEnabled(true);
+    }
+}
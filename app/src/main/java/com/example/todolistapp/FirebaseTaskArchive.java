@@ -0,0 +1,115 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+// tasks/<uid> e archive/<uid>/<aaaa-mm> a partir da raiz, para mover tarefas entre as partições
+// num único updateChildren atômico
+public class FirebaseTaskArchive implements TaskArchiver.ArchiveSource {
+
+    private final DatabaseReference root;
+    private final String userId;
+    private final Executor modelExecutor;
+
+    public FirebaseTaskArchive(DatabaseReference root, String userId, Executor modelExecutor) {
+        this.root = root;
+        this.userId = userId;
+        this.modelExecutor = modelExecutor;
+    }
+
+    // Leituras avulsas: o arquivo e a varredura não ficam assinados
+    @Override
+    public void scanHot(@Nullable Object afterValue, @Nullable String afterKey, long before, int limit,
+                        TaskArchiver.ScanCallback callback) {
+        Query query = root.child(TaskArchiver.HOT).child(userId).orderByChild(Task.FIELD_UPDATED_AT);
+        if (afterKey != null) {
+            // startAt inclui o próprio cursor, descartado abaixo se ainda existir
+            query = afterValue instanceof Number
+                    ? query.startAt(((Number) afterValue).doubleValue(), afterKey)
+                    : query.startAt((String) null, afterKey);
+        }
+        query.endBefore(before).limitToFirst(afterKey == null ? limit : limit + 1)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        modelExecutor.execute(() -> callback.onScanned(decodeChildren(snapshot, afterKey)));
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        modelExecutor.execute(() -> callback.onScanFailed(error.toException()));
+                    }
+                });
+    }
+
+    @Override
+    public void loadMonth(@Nullable String beforeMonth, TaskArchiver.MonthCallback callback) {
+        Query months = root.child(TaskArchiver.ARCHIVE).child(userId).orderByKey();
+        (beforeMonth == null ? months : months.endBefore(beforeMonth)).limitToLast(1)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        modelExecutor.execute(() -> {
+                            for (DataSnapshot month : snapshot.getChildren()) {
+                                callback.onMonthLoaded(month.getKey(), decodeTasks(month));
+                                return;
+                            }
+                            callback.onMonthLoaded(null, new ArrayList<>());
+                        });
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        modelExecutor.execute(() -> callback.onMonthFailed(error.toException()));
+                    }
+                });
+    }
+
+    // "tasks/<id>…" vira "tasks/<uid>/<id>…"; idem para "archive/…"
+    @Override
+    public void updatePartitions(Map<String, Object> updates, TaskRemote.Callback callback) {
+        Map<String, Object> rooted = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            String path = update.getKey();
+            int slash = path.indexOf('/');
+            rooted.put(path.substring(0, slash) + "/" + userId + path.substring(slash), update.getValue());
+        }
+        root.updateChildren(rooted, (error, reference) ->
+                callback.onComplete(error == null ? null : error.toException()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> decodeChildren(DataSnapshot snapshot, @Nullable String skipKey) {
+        Map<String, Map<String, Object>> children = new LinkedHashMap<>();
+        for (DataSnapshot child : snapshot.getChildren()) {
+            Object value = child.getValue();
+            if (value instanceof Map && !child.getKey().equals(skipKey)) {
+                children.put(child.getKey(), (Map<String, Object>) value);
+            }
+        }
+        return children;
+    }
+
+    private static List<Task> decodeTasks(DataSnapshot month) {
+        List<Task> tasks = new ArrayList<>();
+        for (DataSnapshot child : month.getChildren()) {
+            Task task = TaskCodec.fromSnapshot(child);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Páginas de tasks/<uid> por chave, lidas uma vez cada, para a exportação
+public class FirebaseTaskExportSource implements TaskTransfer.ExportSource {
+
+    static final long READ_TIMEOUT_MS = 60_000;
+
+    private final DatabaseReference databaseReference;
+
+    public FirebaseTaskExportSource(DatabaseReference databaseReference) {
+        this.databaseReference = databaseReference;
+    }
+
+    // A resposta chega na thread principal; só o snapshot passa para cá, e a decodificação roda
+    // na thread da exportação
+    @Override
+    public Map<String, Map<String, Object>> readPage(@Nullable String afterKey, int limit) throws IOException {
+        Query ordered = databaseReference.orderByKey();
+        Query query = (afterKey == null ? ordered : ordered.startAfter(afterKey)).limitToFirst(limit);
+        CountDownLatch done = new CountDownLatch(1);
+        DataSnapshot[] page = new DataSnapshot[1];
+        DatabaseError[] failure = new DatabaseError[1];
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                page[0] = snapshot;
+                done.countDown();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                failure[0] = error;
+                done.countDown();
+            }
+        });
+        try {
+            if (!done.await(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Página de tarefas não chegou em " + READ_TIMEOUT_MS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação interrompida");
+        }
+        if (failure[0] != null) {
+            throw new IOException("Leitura das tarefas recusada", failure[0].toException());
+        }
+        return decodeChildren(page[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> decodeChildren(DataSnapshot snapshot) {
+        Map<String, Map<String, Object>> children = new LinkedHashMap<>();
+        for (DataSnapshot child : snapshot.getChildren()) {
+            Object value = child.getValue();
+            children.put(child.getKey(), value instanceof Map ? (Map<String, Object>) value : null);
+        }
+        return children;
+    }
+}
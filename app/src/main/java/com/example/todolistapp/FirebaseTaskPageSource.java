@@ -0,0 +1,51 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+public class FirebaseTaskPageSource implements TaskPager.PageSource {
+
+    private final DatabaseReference databaseReference;
+
+    public FirebaseTaskPageSource(DatabaseReference databaseReference) {
+        this.databaseReference = databaseReference;
+    }
+
+    @Override
+    public ListenerRegistry.Subscription open(@Nullable String afterKey, int limit, TaskPager.Page page) {
+        Query ordered = databaseReference.orderByKey();
+        Query query = (afterKey == null ? ordered : ordered.startAfter(afterKey)).limitToFirst(limit);
+        ValueEventListener initialLoad = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                page.onLoaded();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                page.onLoadCancelled();
+            }
+        };
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                page.beginLoad();
+                query.addChildEventListener(page);
+                // Eventos de valor chegam depois dos eventos de filho do mesmo dado
+                query.addListenerForSingleValueEvent(initialLoad);
+            }
+
+            @Override
+            public void detach() {
+                query.removeEventListener(page);
+                query.removeEventListener(initialLoad);
+            }
+        };
+    }
+}
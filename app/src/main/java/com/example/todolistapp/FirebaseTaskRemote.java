@@ -0,0 +1,20 @@
+package com.example.todolistapp;
+
+import com.google.firebase.database.DatabaseReference;
+
+import java.util.Map;
+
+public class FirebaseTaskRemote implements TaskRemote {
+
+    private final DatabaseReference databaseReference;
+
+    public FirebaseTaskRemote(DatabaseReference databaseReference) {
+        this.databaseReference = databaseReference;
+    }
+
+    @Override
+    public void updateChildren(Map<String, Object> updates, Callback callback) {
+        databaseReference.updateChildren(updates, (error, reference) ->
+                callback.onComplete(error == null ? null : error.toException()));
+    }
+}
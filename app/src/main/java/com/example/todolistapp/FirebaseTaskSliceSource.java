@@ -0,0 +1,69 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+public class FirebaseTaskSliceSource implements TaskRepository.SliceSource {
+
+    private final DatabaseReference databaseReference;
+    private final Executor modelExecutor;
+
+    public FirebaseTaskSliceSource(DatabaseReference databaseReference, Executor modelExecutor) {
+        this.databaseReference = databaseReference;
+        this.modelExecutor = modelExecutor;
+    }
+
+    @Override
+    public ListenerRegistry.Subscription open(TaskQueries.Slice slice, long now, TaskRepository.SliceListener listener) {
+        Query query = TaskQueries.forSlice(databaseReference, slice, now, TimeZone.getDefault());
+        ValueEventListener valueListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                // O recorte é pequeno, mas a decodificação segue a regra do resto do modelo
+                modelExecutor.execute(() -> listener.onSliceLoaded(decode(slice, snapshot)));
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onSliceCancelled(error);
+            }
+        };
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                query.addValueEventListener(valueListener);
+            }
+
+            @Override
+            public void detach() {
+                query.removeEventListener(valueListener);
+            }
+        };
+    }
+
+    // Os filhos chegam na ordem do índice consultado
+    private static List<Task> decode(TaskQueries.Slice slice, DataSnapshot snapshot) {
+        List<Task> tasks = new ArrayList<>();
+        for (DataSnapshot child : snapshot.getChildren()) {
+            Task task = TaskCodec.fromSnapshot(child);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        if (slice == TaskQueries.Slice.TOP_PRIORITY) {
+            Collections.reverse(tasks);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.todolistapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Guarda os listeners do Firebase por chave; o TaskRepository remove todos no stop(). O TaskPager
+// inscreve páginas a partir da thread do TaskPipeline, por isso o acesso é sincronizado.
+public class ListenerRegistry {
+
+    public interface Subscription {
+        void attach();
+
+        void detach();
+    }
+
+    private final Map<String, Subscription> subscriptions = new LinkedHashMap<>();
+
+    // Chamadas repetidas com a mesma chave não adicionam outro listener
+    public synchronized boolean subscribe(String key, Subscription subscription) {
+        if (subscriptions.containsKey(key)) {
+            return false;
+        }
+        subscriptions.put(key, subscription);
+        subscription.attach();
+        return true;
+    }
+
+    public synchronized void unsubscribe(String key) {
+        Subscription subscription = subscriptions.remove(key);
+        if (subscription != null) {
+            subscription.detach();
+        }
+    }
+
+    public synchronized void unsubscribeAll() {
+        Iterator<Subscription> iterator = subscriptions.values().iterator();
+        while (iterator.hasNext()) {
+            Subscription subscription = iterator.next();
+            iterator.remove();
+            subscription.detach();
+        }
+    }
+
+    public synchronized int getActiveCount() {
+        return subscriptions.size();
+    }
+}
@@ -29,6 +29,7 @@ public class LoginActivity extends AppCompatActivity {
         Button buttonRegister = findViewById(R.id.buttonRegister);
 
         mAuth = FirebaseAuth.getInstance();
+        DeferredStartup.afterFirstFrame(this);
 
         buttonLogin.setOnClickListener(v -> {
             String email = editTextEmail.getText().toString().trim();
@@ -44,10 +45,14 @@ public class LoginActivity extends AppCompatActivity {
                 return;
             }
 
+            SessionBootstrap.get(this).onSessionRequested();
             mAuth.signInWithEmailAndPassword(email, password).addOnCompleteListener(task -> {
                 if (task.isSuccessful()) {
                     FirebaseUser user = mAuth.getCurrentUser();
                     if (user != null) {
+                        SessionCache.setSignedInUid(this, user.getUid());
+                        // Cache e assinatura começam enquanto a MainActivity abre
+                        SessionBootstrap.get(this).prefetch(user.getUid());
                         Intent intent = new Intent(LoginActivity.this, MainActivity.class);
                         startActivity(intent);
                         finish();
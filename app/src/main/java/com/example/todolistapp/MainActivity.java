@@ -1,44 +1,67 @@
 package com.example.todolistapp;
 
 import android.app.AlertDialog;
-import android.app.AlarmManager;
-import android.app.PendingIntent;
+import android.content.Context;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.DatePicker;
 import android.widget.EditText;
+import android.widget.Spinner;
+import android.widget.TextView;
 import android.widget.TimePicker;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
-import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
+
     private RecyclerView recyclerViewTasks;
+    private LinearLayoutManager layoutManager;
     private FloatingActionButton fabAddTask;
     private FloatingActionButton fabLogout;
     private FirebaseAuth mAuth;
     private DatabaseReference databaseReference;
-    private List<Task> taskList;
+    private TaskListViewModel viewModel;
+    // Sobrevive à recriação da activity dentro do ViewModel; a tela só se religa a ele
+    private TaskRepository taskRepository;
     private TaskAdapter taskAdapter;
+    private TextView textViewTransferProgress;
+    // Arquivo escolhido pelo usuário no seletor do sistema; a transferência roda no TaskTransferRunner
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TaskTransfer.MIME_TYPE), this::startExport);
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::startImport);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,16 +74,49 @@ public class MainActivity extends AppCompatActivity {
         fabAddTask = findViewById(R.id.fabAddTask);
         fabLogout = findViewById(R.id.fabLogout);
 
-        recyclerViewTasks.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        recyclerViewTasks.setLayoutManager(layoutManager);
+        recyclerViewTasks.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                checkPagingWindow();
+            }
+        });
 
-        taskList = new ArrayList<>();
-        taskAdapter = new TaskAdapter(this, taskList);
+        taskAdapter = new TaskAdapter(this);
         recyclerViewTasks.setAdapter(taskAdapter);
+        // Enquanto o cache ou o Firebase carregam, as linhas da primeira tela já são infladas
+        taskAdapter.warmUp(recyclerViewTasks, TaskAdapter.WARM_ROWS);
+
+        Context appContext = getApplicationContext();
+        SessionBootstrap bootstrap = SessionBootstrap.get(this);
+        viewModel = new ViewModelProvider(this, new ViewModelProvider.Factory() {
+            @NonNull
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+                // Só o contexto da aplicação: o ViewModel vive mais que esta activity.
+                // Vindo do login, registro ou splash, as tarefas já estão carregando
+                return (T) new TaskListViewModel(userId -> {
+                    TaskRepository prefetched = bootstrap.take(userId);
+                    return prefetched != null ? prefetched : TaskRepository.forUser(appContext, userId);
+                });
+            }
+        }).get(TaskListViewModel.class);
 
         fabAddTask.setOnClickListener(v -> showAddTaskDialog());
         fabLogout.setOnClickListener(v -> showLogoutDialog());
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            fabLogout.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, MetricsActivity.class));
+                return true;
+            });
+        }
 
         setupFilters();
+        setupSelection();
+        setupTransfer();
+        DeferredStartup.afterFirstFrame(this);
     }
 
     @Override
@@ -68,24 +124,72 @@ public class MainActivity extends AppCompatActivity {
         super.onStart();
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser == null) {
-            // Usuário não está autenticado, redirecionar para a LoginActivity
+            // Sessão em cache expirou: redirecionar para a LoginActivity
+            SessionCache.clear(this);
+            SessionBootstrap.get(this).cancel();
             Intent loginIntent = new Intent(MainActivity.this, LoginActivity.class);
             startActivity(loginIntent);
             finish();
         } else {
             String userId = currentUser.getUid();
+            SessionCache.setSignedInUid(this, userId);
             databaseReference = FirebaseDatabase.getInstance().getReference("tasks").child(userId);
-            taskAdapter.setDatabaseReference(databaseReference); // Passar a referência para o adaptador
-            loadTasks();
+            TaskRepository repository = viewModel.repositoryFor(userId);
+            if (repository != taskRepository) {
+                bindRepository(repository);
+            }
+            // Depois de uma rotação o repositório já está assinado e isto não faz nada
+            repository.start();
+            TaskTransferRunner.from(this).resumePendingImport(userId);
         }
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Numa rotação a assinatura continua; a nova activity se religa aos mesmos dados
+        if (taskRepository != null && !isChangingConfigurations()) {
+            taskRepository.stop();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (taskRepository != null) {
+            // O repositório não pode segurar esta activity através dos listeners
+            taskRepository.setListener(null);
+            taskRepository.setPageLoadListener(null);
+            taskRepository.setWriteFailureListener(null);
+            taskRepository.setSyncErrorListener(null);
+        }
+        TaskTransferRunner.from(this).setListener(null);
+    }
+
+    private void bindRepository(TaskRepository repository) {
+        taskRepository = repository;
+        taskAdapter.setTaskRepository(repository); // Passar o repositório para o adaptador
+        SessionBootstrap bootstrap = SessionBootstrap.get(this);
+        repository.setListener((snapshot, viewSwitched) -> {
+            taskAdapter.onTasksChanged(snapshot, viewSwitched);
+            if (!snapshot.isEmpty()) {
+                bootstrap.onFirstRows();
+            }
+        });
+        repository.setPageLoadListener(() -> recyclerViewTasks.post(this::checkPagingWindow));
+        repository.setWriteFailureListener((taskId, error) ->
+                Toast.makeText(MainActivity.this, getString(R.string.task_update_error), Toast.LENGTH_SHORT).show());
+        repository.setSyncErrorListener(error ->
+                Toast.makeText(MainActivity.this, getString(R.string.error_loading_tasks), Toast.LENGTH_SHORT).show());
+    }
+
     private void showLogoutDialog() {
         new AlertDialog.Builder(this)
                 .setTitle(getString(R.string.logout))
                 .setMessage(getString(R.string.logout_confirmation))
                 .setPositiveButton(getString(R.string.yes), (dialog, which) -> {
                     mAuth.signOut();
+                    SessionCache.clear(this);
                     Intent loginIntent = new Intent(MainActivity.this, LoginActivity.class);
                     startActivity(loginIntent);
                     finish();
@@ -94,26 +198,20 @@ public class MainActivity extends AppCompatActivity {
                 .show();
     }
 
-    private void loadTasks() {
-        databaseReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                taskList.clear();
-                for (DataSnapshot taskSnapshot : snapshot.getChildren()) {
-                    Task task = taskSnapshot.getValue(Task.class);
-                    if (task != null) {
-                        task.setId(taskSnapshot.getKey());
-                        taskList.add(task);
-                    }
-                }
-                taskAdapter.notifyDataSetChanged();
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(MainActivity.this, getString(R.string.error_loading_tasks), Toast.LENGTH_SHORT).show();
-            }
-        });
+    private void checkPagingWindow() {
+        // Páginas do nó quente ou meses do arquivo: os dois continuam ao chegar no fim da lista
+        if (taskRepository == null || (!taskRepository.isPaged() && !taskRepository.isArchiveShown())) {
+            return;
+        }
+        List<Task> visible = taskAdapter.getCurrentList();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION || last >= visible.size() - 1) {
+            // Fim da lista, ou o filtro não tem linhas suficientes para rolar
+            taskRepository.loadNextPage();
+        } else {
+            taskRepository.onVisibleRange(visible.get(first).getId(), visible.get(last).getId());
+        }
     }
 
     private void showAddTaskDialog() {
@@ -124,6 +222,10 @@ public class MainActivity extends AppCompatActivity {
         final EditText inputTitle = viewInflated.findViewById(R.id.editTextTaskTitle);
         final EditText inputDescription = viewInflated.findViewById(R.id.editTextTaskDescription);
         final TimePicker timePickerReminder = viewInflated.findViewById(R.id.timePickerReminder);
+        final Spinner spinnerPriority = viewInflated.findViewById(R.id.spinnerPriority);
+        final CheckBox checkBoxDueDate = viewInflated.findViewById(R.id.checkBoxDueDate);
+        final DatePicker datePickerDue = viewInflated.findViewById(R.id.datePickerDue);
+        bindDueDate(checkBoxDueDate, datePickerDue, null);
 
         builder.setView(viewInflated);
 
@@ -137,7 +239,8 @@ public class MainActivity extends AppCompatActivity {
                 calendar.set(Calendar.MINUTE, timePickerReminder.getCurrentMinute());
                 calendar.set(Calendar.SECOND, 0);
                 calendar.set(Calendar.MILLISECOND, 0);
-                addTask(title, description, calendar.getTimeInMillis());
+                addTask(title, description, spinnerPriority.getSelectedItemPosition(),
+                        readDueAt(checkBoxDueDate, datePickerDue), calendar.getTimeInMillis());
             } else {
                 Toast.makeText(MainActivity.this, getString(R.string.error_empty_title), Toast.LENGTH_SHORT).show();
             }
@@ -147,69 +250,212 @@ public class MainActivity extends AppCompatActivity {
         builder.show();
     }
 
-    private void addTask(String title, String description, long reminderTime) {
+    private void addTask(String title, String description, int priority, Long dueAt, long reminderTime) {
         String taskId = databaseReference.push().getKey();
         if (taskId != null) {
-            Task task = new Task(taskId, title, description, false);
-            databaseReference.child(taskId).setValue(task).addOnCompleteListener(task1 -> {
-                if (task1.isSuccessful()) {
-                    Toast.makeText(MainActivity.this, getString(R.string.task_added_success), Toast.LENGTH_SHORT).show();
-                    setTaskReminder(task, reminderTime);
-                } else {
+            Task task = new Task(taskId, title, description, false, null, null, dueAt, priority, reminderTime);
+            // A tarefa entra na lista na hora; se o Firebase recusar, ela sai e o lembrete também
+            taskRepository.create(task, error -> {
+                if (error != null) {
                     Toast.makeText(MainActivity.this, getString(R.string.task_add_error), Toast.LENGTH_SHORT).show();
+                    cancelTaskReminders(Collections.singletonList(taskId));
                 }
             });
+            setTaskReminder(task, reminderTime);
+            Toast.makeText(MainActivity.this, getString(R.string.task_added_success), Toast.LENGTH_SHORT).show();
         } else {
             Toast.makeText(MainActivity.this, getString(R.string.error_generating_task_id), Toast.LENGTH_SHORT).show();
         }
     }
 
+    private static void bindDueDate(CheckBox checkBoxDueDate, DatePicker datePickerDue, Long dueAt) {
+        if (dueAt != null) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(dueAt);
+            datePickerDue.updateDate(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
+                    calendar.get(Calendar.DAY_OF_MONTH));
+        }
+        checkBoxDueDate.setChecked(dueAt != null);
+        datePickerDue.setVisibility(dueAt != null ? View.VISIBLE : View.GONE);
+        checkBoxDueDate.setOnCheckedChangeListener((buttonView, isChecked) ->
+                datePickerDue.setVisibility(isChecked ? View.VISIBLE : View.GONE));
+    }
+
+    // Último milissegundo do dia escolhido: a tarefa só conta como atrasada depois da meia-noite
+    private static Long readDueAt(CheckBox checkBoxDueDate, DatePicker datePickerDue) {
+        if (!checkBoxDueDate.isChecked()) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(datePickerDue.getYear(), datePickerDue.getMonth(), datePickerDue.getDayOfMonth());
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis() - 1;
+    }
+
+    // Os callbacks de escrita podem chegar depois de uma rotação, com esta activity já destruída;
+    // o disco dos lembretes fica num executor do processo, não da tela
     private void setTaskReminder(Task task, long reminderTime) {
-        Intent intent = new Intent(this, ReminderBroadcastReceiver.class);
-        intent.putExtra("taskId", task.getId());
-        intent.putExtra("taskTitle", task.getTitle());
-
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(this, task.getId().hashCode(), intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-        AlarmManager alarmManager = (AlarmManager) getSystemService(ALARM_SERVICE);
-        if (alarmManager != null) {
-            alarmManager.setExact(AlarmManager.RTC_WAKEUP, reminderTime, pendingIntent);
+        ReminderScheduler.scheduleInBackground(this, task.getId(), task.getTitle(), reminderTime);
+    }
+
+    private void cancelTaskReminders(Collection<String> taskIds) {
+        ReminderScheduler.cancelInBackground(this, taskIds);
+    }
+
+    // Exportar ou importar a lista inteira em NDJSON, para outro aparelho ou conta
+    private void setupTransfer() {
+        textViewTransferProgress = findViewById(R.id.textViewTransferProgress);
+        TaskTransferRunner runner = TaskTransferRunner.from(this);
+        runner.setListener(new TaskTransferRunner.Listener() {
+            @Override
+            public void onTransferProgress(boolean importing, long tasks, long bytes, long totalBytes) {
+                textViewTransferProgress.setVisibility(View.VISIBLE);
+                if (!importing) {
+                    textViewTransferProgress.setText(getString(R.string.export_progress, tasks));
+                } else if (totalBytes > 0) {
+                    textViewTransferProgress.setText(getString(R.string.import_progress_percent, tasks,
+                            (int) (bytes * 100 / totalBytes)));
+                } else {
+                    textViewTransferProgress.setText(getString(R.string.import_progress, tasks));
+                }
+            }
+
+            @Override
+            public void onTransferFinished(boolean importing, @Nullable TaskTransfer.Result result,
+                                           @Nullable Exception error) {
+                textViewTransferProgress.setVisibility(View.GONE);
+                String message;
+                if (error != null) {
+                    message = getString(importing ? R.string.import_error : R.string.export_error);
+                } else if (!importing) {
+                    message = getString(R.string.export_done, result.tasks);
+                } else if (result.rejectedLines > 0) {
+                    message = getString(R.string.import_done_rejected, result.tasks, result.rejectedLines);
+                } else {
+                    message = getString(R.string.import_done, result.tasks);
+                }
+                Toast.makeText(MainActivity.this, message, Toast.LENGTH_LONG).show();
+            }
+        });
+
+        findViewById(R.id.btnTransfer).setOnClickListener(v -> {
+            if (runner.isRunning()) {
+                Toast.makeText(this, getString(R.string.transfer_busy), Toast.LENGTH_SHORT).show();
+                return;
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle(getString(R.string.transfer_tasks))
+                    .setItems(new CharSequence[]{getString(R.string.export_tasks), getString(R.string.import_tasks)},
+                            (dialog, which) -> {
+                                if (which == 0) {
+                                    exportLauncher.launch(getString(R.string.export_file_name));
+                                } else {
+                                    // Provedores nem sempre reconhecem o tipo do NDJSON
+                                    importLauncher.launch(new String[]{"*/*"});
+                                }
+                            })
+                    .show();
+        });
+    }
+
+    private void startExport(@Nullable Uri uri) {
+        if (uri != null && taskRepository != null) {
+            TaskTransferRunner.from(this).export(taskRepository.getUserId(), uri);
+        }
+    }
+
+    private void startImport(@Nullable Uri uri) {
+        if (uri == null || taskRepository == null) {
+            return;
+        }
+        try {
+            // Para retomar a importação depois que o processo for encerrado
+            getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException e) {
+            Log.w(TAG, "Permissão persistente indisponível para " + uri, e);
         }
+        TaskTransferRunner.from(this).importFrom(taskRepository.getUserId(), uri);
     }
 
     private void setupFilters() {
         Button btnViewAll = findViewById(R.id.btnViewAll);
         Button btnViewPending = findViewById(R.id.btnViewPending);
         Button btnViewCompleted = findViewById(R.id.btnViewCompleted);
+        Button btnClearCompleted = findViewById(R.id.btnClearCompleted);
+        EditText editTextSearch = findViewById(R.id.editTextSearch);
 
-        btnViewAll.setOnClickListener(v -> loadTasks());
+        // Filtro e busca rodam sobre o modelo já sincronizado, sem consulta ao servidor
+        btnViewAll.setOnClickListener(v -> taskRepository.setFilter(TaskIndex.Filter.ALL));
 
-        btnViewPending.setOnClickListener(v -> loadFilteredTasks(false));
+        btnViewPending.setOnClickListener(v -> taskRepository.setFilter(TaskIndex.Filter.PENDING));
 
-        btnViewCompleted.setOnClickListener(v -> loadFilteredTasks(true));
-    }
+        btnViewCompleted.setOnClickListener(v -> taskRepository.setFilter(TaskIndex.Filter.COMPLETED));
+
+        btnClearCompleted.setOnClickListener(v ->
+                taskRepository.clearCompleted(this::onBulkWriteComplete, this::cancelTaskReminders));
+
+        // Recortes consultados no servidor pelos índices, sem depender do que já está em memória
+        findViewById(R.id.btnViewDueToday).setOnClickListener(v -> taskRepository.showSlice(TaskQueries.Slice.DUE_TODAY));
+
+        findViewById(R.id.btnViewOverdue).setOnClickListener(v -> taskRepository.showSlice(TaskQueries.Slice.OVERDUE));
+
+        findViewById(R.id.btnViewTopPriority).setOnClickListener(v ->
+                taskRepository.showSlice(TaskQueries.Slice.TOP_PRIORITY));
 
-    private void loadFilteredTasks(boolean isCompleted) {
-        databaseReference.orderByChild("completed").equalTo(isCompleted).addListenerForSingleValueEvent(new ValueEventListener() {
+        editTextSearch.addTextChangedListener(new TextWatcher() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                taskList.clear();
-                for (DataSnapshot taskSnapshot : snapshot.getChildren()) {
-                    Task task = taskSnapshot.getValue(Task.class);
-                    if (task != null) {
-                        task.setId(taskSnapshot.getKey());
-                        taskList.add(task);
-                    }
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                // Também chamado quando o texto é restaurado depois de uma rotação
+                if (taskRepository != null) {
+                    taskRepository.setSearch(s.toString());
                 }
-                taskAdapter.notifyDataSetChanged();
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(MainActivity.this, getString(R.string.error_loading_tasks), Toast.LENGTH_SHORT).show();
+            public void afterTextChanged(Editable s) {
             }
         });
     }
 
+    // Ações em lote: um único updateChildren multi-caminho por lote de tarefas selecionadas
+    private void setupSelection() {
+        View layoutSelection = findViewById(R.id.layoutSelection);
+        TextView textViewSelectedCount = findViewById(R.id.textViewSelectedCount);
+        Button btnCompleteSelected = findViewById(R.id.btnCompleteSelected);
+        Button btnDeleteSelected = findViewById(R.id.btnDeleteSelected);
+        Button btnCancelSelection = findViewById(R.id.btnCancelSelection);
+
+        taskAdapter.setSelectionListener(selectedCount -> {
+            layoutSelection.setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE);
+            textViewSelectedCount.setText(getString(R.string.selected_count, selectedCount));
+        });
+
+        btnCompleteSelected.setOnClickListener(v -> {
+            taskRepository.completeAll(taskAdapter.getSelectedIds(), true, this::onBulkWriteComplete);
+            taskAdapter.clearSelection();
+        });
+
+        btnDeleteSelected.setOnClickListener(v -> {
+            Set<String> ids = taskAdapter.getSelectedIds();
+            taskRepository.deleteAll(ids, this::onBulkWriteComplete);
+            taskAdapter.clearSelection();
+            cancelTaskReminders(ids);
+        });
+
+        btnCancelSelection.setOnClickListener(v -> taskAdapter.clearSelection());
+    }
+
+    private void onBulkWriteComplete(Exception error) {
+        if (error != null) {
+            Toast.makeText(this, getString(R.string.bulk_update_error), Toast.LENGTH_SHORT).show();
+        }
+    }
+
     void showEditOrDeleteTaskDialog(Task task) {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle(getString(R.string.edit_or_delete_task));
@@ -217,9 +463,15 @@ public class MainActivity extends AppCompatActivity {
         View viewInflated = LayoutInflater.from(this).inflate(R.layout.dialog_add_task, null, false);
         final EditText inputTitle = viewInflated.findViewById(R.id.editTextTaskTitle);
         final EditText inputDescription = viewInflated.findViewById(R.id.editTextTaskDescription);
+        final Spinner spinnerPriority = viewInflated.findViewById(R.id.spinnerPriority);
+        final CheckBox checkBoxDueDate = viewInflated.findViewById(R.id.checkBoxDueDate);
+        final DatePicker datePickerDue = viewInflated.findViewById(R.id.datePickerDue);
 
         inputTitle.setText(task.getTitle());
         inputDescription.setText(task.getDescription());
+        // Os itens do spinner seguem a ordem das constantes PRIORITY_* de Task
+        spinnerPriority.setSelection(task.getPriority());
+        bindDueDate(checkBoxDueDate, datePickerDue, task.getDueAt());
 
         builder.setView(viewInflated);
 
@@ -228,18 +480,43 @@ public class MainActivity extends AppCompatActivity {
             String title = inputTitle.getText().toString();
             String description = inputDescription.getText().toString();
             if (!title.isEmpty()) {
-                task.setTitle(title);
-                task.setDescription(description);
-                databaseReference.child(task.getId()).setValue(task);
+                Task updated = task.copy();
+                if (!title.equals(task.getTitle())) {
+                    updated.setTitle(title);
+                }
+                if (!description.equals(task.getDescription())) {
+                    updated.setDescription(description);
+                }
+                int priority = spinnerPriority.getSelectedItemPosition();
+                if (priority != task.getPriority()) {
+                    updated.setPriority(priority);
+                }
+                Long dueAt = readDueAt(checkBoxDueDate, datePickerDue);
+                if (dueAt == null ? task.getDueAt() != null : !dueAt.equals(task.getDueAt())) {
+                    updated.setDueAt(dueAt);
+                }
+                // Como criar e apagar: a lista muda na hora e volta ao estado do servidor se a escrita falhar
+                taskRepository.write(updated, error -> {
+                    if (error != null) {
+                        Toast.makeText(this, getString(R.string.task_update_error), Toast.LENGTH_SHORT).show();
+                    }
+                });
                 Toast.makeText(this, getString(R.string.task_update_success), Toast.LENGTH_SHORT).show();
             } else {
                 Toast.makeText(this, getString(R.string.error_empty_title), Toast.LENGTH_SHORT).show();
             }
         });
         builder.setNegativeButton(getString(R.string.delete), (dialog, which) -> {
-            databaseReference.child(task.getId()).removeValue();
-            taskList.remove(task);
-            taskAdapter.notifyDataSetChanged();
+            taskRepository.delete(task.getId(), error -> {
+                // A tarefa volta para a lista sozinha; o lembrete cancelado é refeito
+                if (error != null) {
+                    Toast.makeText(this, getString(R.string.task_delete_error), Toast.LENGTH_SHORT).show();
+                    if (task.getReminderAt() != null) {
+                        setTaskReminder(task, task.getReminderAt());
+                    }
+                }
+            });
+            cancelTaskReminders(Collections.singletonList(task.getId()));
             Toast.makeText(this, getString(R.string.task_delete_success), Toast.LENGTH_SHORT).show();
             dialog.dismiss();
         });
@@ -250,6 +527,9 @@ public class MainActivity extends AppCompatActivity {
             calendar.setTimeInMillis(System.currentTimeMillis());
             calendar.add(Calendar.MINUTE, 1); // Define o lembrete para 1 minuto no futuro
             setTaskReminder(task, calendar.getTimeInMillis());
+            Task updated = task.copy();
+            updated.setReminderAt(calendar.getTimeInMillis());
+            taskRepository.enqueue(updated);
             Toast.makeText(this, getString(R.string.reminder_set_success), Toast.LENGTH_SHORT).show();
         });
 
@@ -0,0 +1,180 @@
+package com.example.todolistapp;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contadores, histogramas de latência e medidores do processo, para separar rede, decodificação
+// e desenho quando a lista fica lenta. Os componentes guardam o histograma ou contador na
+// construção; o caminho quente é só um System.nanoTime e um incremento atômico.
+public class Metrics {
+
+    public interface Gauge {
+        long read();
+    }
+
+    // Eventos de filho do Firebase (adicionado, alterado, removido, movido)
+    public static final String SYNC_EVENTS = "sync.events";
+    // Decodificação de um filho em Task, em ns
+    public static final String SYNC_PARSE_NS = "sync.parse_ns";
+    // Do attach do listener ao fim da carga inicial, em ns
+    public static final String SYNC_LOAD_NS = "sync.load_ns";
+    // Filhos recebidos na carga inicial
+    public static final String SYNC_SNAPSHOT_CHILDREN = "sync.snapshot_children";
+    // Filtro ou busca recalculados na TaskView, em ns
+    public static final String VIEW_QUERY_NS = "view.query_ns";
+    // Do submitList até a lista nova estar no adapter (diff em segundo plano incluído), em ns
+    public static final String ADAPTER_DIFF_NS = "adapter.diff_ns";
+    public static final String ADAPTER_BIND_NS = "adapter.bind_ns";
+    // Do updateChildren até a confirmação do servidor (ou da fila local), em ns
+    public static final String WRITE_ACK_NS = "write.ack_ns";
+    public static final String WRITE_FAILURES = "write.failures";
+    public static final String LISTENERS_ACTIVE = "listeners.active";
+    // Do toque em entrar (ou da abertura pelo splash) até a primeira lista com tarefas, em ns
+    public static final String SESSION_FIRST_ROW_NS = "session.first_row_ns";
+    // MainActivity que recebeu o repositório já carregando do SessionBootstrap
+    public static final String SESSION_PREFETCH_HITS = "session.prefetch_hits";
+
+    private static Metrics shared;
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    public static synchronized Metrics get() {
+        if (shared == null) {
+            shared = new Metrics();
+        }
+        return shared;
+    }
+
+    // Para os testes: componentes criados depois disso registram numa instância nova
+    static synchronized void reset() {
+        shared = null;
+    }
+
+    public AtomicLong counter(String name) {
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            counters.putIfAbsent(name, new AtomicLong());
+            counter = counters.get(name);
+        }
+        return counter;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histograms.putIfAbsent(name, new LatencyHistogram());
+            histogram = histograms.get(name);
+        }
+        return histogram;
+    }
+
+    // Lido só na hora de exibir ou exportar; um registro novo com o mesmo nome substitui o anterior
+    public void registerGauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public void clear() {
+        for (AtomicLong counter : counters.values()) {
+            counter.set(0);
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    // Texto para a tela de depuração, uma métrica por linha, em ordem alfabética
+    public String describe() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> counter : readCounters().entrySet()) {
+            out.append(counter.getKey()).append(" = ").append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.append(entry.getKey()).append(String.format(Locale.US,
+                    "  n=%d p50=%s p90=%s p99=%s max=%s%n", histogram.getCount(),
+                    format(entry.getKey(), histogram.getValueAtPercentile(50)),
+                    format(entry.getKey(), histogram.getValueAtPercentile(90)),
+                    format(entry.getKey(), histogram.getValueAtPercentile(99)),
+                    format(entry.getKey(), histogram.getMax())));
+        }
+        return out.toString();
+    }
+
+    // {"counters":{...},"histograms":{"nome":{"count":..,"min":..,"p50":..,...}}}, valores crus
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> counter : readCounters().entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendString(out, counter.getKey());
+            out.append(':').append(counter.getValue());
+        }
+        out.append("},\"histograms\":{");
+        first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            LatencyHistogram histogram = entry.getValue();
+            appendString(out, entry.getKey());
+            out.append(":{\"count\":").append(histogram.getCount())
+                    .append(",\"min\":").append(histogram.getMin())
+                    .append(",\"mean\":").append(String.format(Locale.US, "%.1f", histogram.getMean()))
+                    .append(",\"p50\":").append(histogram.getValueAtPercentile(50))
+                    .append(",\"p90\":").append(histogram.getValueAtPercentile(90))
+                    .append(",\"p99\":").append(histogram.getValueAtPercentile(99))
+                    .append(",\"p999\":").append(histogram.getValueAtPercentile(99.9))
+                    .append(",\"max\":").append(histogram.getMax())
+                    .append('}');
+        }
+        return out.append("}}").toString();
+    }
+
+    // Contadores e medidores juntos: para quem lê, ambos são um número
+    private Map<String, Long> readCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet()) {
+            values.put(counter.getKey(), counter.getValue().get());
+        }
+        for (Map.Entry<String, Gauge> gauge : gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().read());
+        }
+        return values;
+    }
+
+    private static String format(String name, long value) {
+        if (!name.endsWith("_ns")) {
+            return Long.toString(value);
+        }
+        if (value >= 1_000_000) {
+            return String.format(Locale.US, "%.1fms", value / 1e6);
+        }
+        return String.format(Locale.US, "%.1fus", value / 1e3);
+    }
+
+    // Os nomes são constantes desta classe, mas o escape mantém o JSON válido para qualquer um
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
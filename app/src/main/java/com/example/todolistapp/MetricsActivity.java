@@ -0,0 +1,52 @@
+package com.example.todolistapp;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+// Tela de depuração com as métricas do processo; aberta só em builds depuráveis
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView textViewMetrics;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+
+        textViewMetrics = findViewById(R.id.textViewMetrics);
+        Button buttonRefresh = findViewById(R.id.buttonMetricsRefresh);
+        Button buttonReset = findViewById(R.id.buttonMetricsReset);
+        Button buttonExport = findViewById(R.id.buttonMetricsExport);
+
+        buttonRefresh.setOnClickListener(v -> showMetrics());
+        buttonReset.setOnClickListener(v -> {
+            Metrics.get().clear();
+            showMetrics();
+        });
+        buttonExport.setOnClickListener(v -> exportMetrics());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showMetrics();
+    }
+
+    private void showMetrics() {
+        String text = Metrics.get().describe();
+        textViewMetrics.setText(text.isEmpty() ? getString(R.string.metrics_empty) : text);
+    }
+
+    // JSON para comparar execuções fora do aparelho (planilha, script, anexo de bug)
+    private void exportMetrics() {
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("application/json");
+        send.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.metrics_title));
+        send.putExtra(Intent.EXTRA_TEXT, Metrics.get().toJson());
+        startActivity(Intent.createChooser(send, getString(R.string.metrics_export)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todolistapp;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Registra cada escrita na TaskOutbox antes de enviá-la e remove ao receber a resposta
+public class OutboxTaskRemote implements TaskRemote {
+
+    private static final String TAG = "OutboxTaskRemote";
+
+    private final TaskRemote delegate;
+    private final TaskOutbox outbox;
+    // Enviadas pela thread do TaskPipeline, confirmadas pelo Firebase na thread principal
+    private final Set<Long> inFlight = Collections.synchronizedSet(new HashSet<>());
+
+    public OutboxTaskRemote(TaskRemote delegate, TaskOutbox outbox) {
+        this.delegate = delegate;
+        this.outbox = outbox;
+    }
+
+    @Override
+    public void updateChildren(Map<String, Object> updates, Callback callback) {
+        long sequence;
+        try {
+            sequence = outbox.append(updates);
+        } catch (IOException e) {
+            Log.w(TAG, "Falha ao registrar escrita pendente", e);
+            sequence = -1;
+        }
+        send(sequence, updates, callback);
+    }
+
+    // Reenvia o que ficou pendente de uma sessão anterior; o Firebase segura até reconectar
+    public int replayPending() {
+        Map<Long, Map<String, Object>> pending = outbox.getPending();
+        int replayed = 0;
+        for (Map.Entry<Long, Map<String, Object>> entry : pending.entrySet()) {
+            if (!inFlight.contains(entry.getKey())) {
+                send(entry.getKey(), entry.getValue(), null);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private void send(long sequence, Map<String, Object> updates, Callback callback) {
+        inFlight.add(sequence);
+        delegate.updateChildren(updates, error -> {
+            inFlight.remove(sequence);
+            // Uma resposta, mesmo de erro, encerra a escrita: o servidor a rejeitou de vez
+            if (sequence >= 0) {
+                try {
+                    outbox.acknowledge(sequence);
+                } catch (IOException e) {
+                    Log.w(TAG, "Falha ao confirmar escrita", e);
+                }
+            }
+            if (callback != null) {
+                callback.onComplete(error);
+            }
+        });
+    }
+}
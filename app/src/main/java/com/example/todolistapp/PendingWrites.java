@@ -0,0 +1,153 @@
+package com.example.todolistapp;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Escritas locais aparecem no TaskStore na hora, marcadas como aguardando confirmação. Guarda
+// para cada tarefa alterada o último estado confirmado pelo servidor; quando a última escrita
+// em voo responde, a marca sai (sucesso) ou a tarefa volta a esse estado (falha).
+// Usado só na thread do TaskPipeline, como o TaskStore.
+public class PendingWrites {
+
+    private static final class Entry {
+        // null: a tarefa não existe no servidor (criação ainda não confirmada, ou já apagada)
+        Task confirmed;
+        // Chegou algum evento do Firebase depois da escrita local: confirmed é o valor do servidor
+        boolean remoteSeen;
+        int inFlight;
+        boolean failed;
+    }
+
+    private final TaskStore taskStore;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long rollbacks;
+
+    public PendingWrites(TaskStore taskStore) {
+        this.taskStore = taskStore;
+    }
+
+    // Mostra a versão local; o estado confirmado é o de antes da primeira escrita ainda aberta
+    public void applyLocal(Task task) {
+        begin(task.getId());
+        Task shown = task.copy();
+        shown.markClean();
+        shown.setAwaitingAck(true);
+        taskStore.upsert(shown);
+    }
+
+    public void removeLocal(String id) {
+        begin(id);
+        taskStore.remove(id);
+    }
+
+    // Uma notificação só para o lote, como TaskStore.removeAll
+    public void removeAllLocal(Collection<String> ids) {
+        for (String id : ids) {
+            begin(id);
+        }
+        taskStore.removeAll(ids);
+    }
+
+    // Estado do servidor para calcular o que enviar; a versão no TaskStore pode ser a local
+    public Task confirmed(String id) {
+        Entry entry = entries.get(id);
+        return entry == null ? taskStore.get(id) : entry.confirmed;
+    }
+
+    public boolean isPending(String id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getRollbackCount() {
+        return rollbacks;
+    }
+
+    // Eventos da sincronização: sem escrita aberta vão direto ao TaskStore; com, só atualizam
+    // o estado confirmado, e a versão local continua na tela até a resposta
+    public void upsertRemote(Task task) {
+        Entry entry = entries.get(task.getId());
+        if (entry == null) {
+            taskStore.upsert(task);
+            return;
+        }
+        entry.confirmed = task;
+        entry.remoteSeen = true;
+    }
+
+    public void removeRemote(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            taskStore.remove(id);
+            return;
+        }
+        entry.confirmed = null;
+        entry.remoteSeen = true;
+    }
+
+    public void sent(String id) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            entry.inFlight++;
+        }
+    }
+
+    // queued: ainda há alteração desta tarefa esperando a janela do TaskWriter
+    public void acknowledged(String id, Exception error, boolean queued) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        entry.inFlight--;
+        if (error != null) {
+            entry.failed = true;
+        }
+        if (entry.inFlight <= 0 && !queued) {
+            settle(id, entry);
+        }
+    }
+
+    // A alteração na fila acabou não indo ao servidor (ex.: voltou ao valor sincronizado)
+    public void dropped(String id) {
+        Entry entry = entries.get(id);
+        if (entry != null && entry.inFlight <= 0) {
+            settle(id, entry);
+        }
+    }
+
+    private void begin(String id) {
+        if (!entries.containsKey(id)) {
+            Entry entry = new Entry();
+            entry.confirmed = taskStore.get(id);
+            entries.put(id, entry);
+        }
+    }
+
+    private void settle(String id, Entry entry) {
+        entries.remove(id);
+        if (entry.failed) {
+            rollbacks++;
+        }
+        // O Firebase aplica a escrita no cache local antes de enviá-la e a desfaz se o servidor
+        // recusar: o último evento recebido já é o resultado final, com ou sem falha
+        if (entry.failed || entry.remoteSeen) {
+            if (entry.confirmed == null) {
+                taskStore.remove(id);
+            } else {
+                taskStore.upsert(entry.confirmed);
+            }
+            return;
+        }
+        // Confirmada sem eco (ex.: listener parado): a versão local é a do servidor
+        Task shown = taskStore.get(id);
+        if (shown != null && shown.isAwaitingAck()) {
+            Task confirmed = shown.copy();
+            confirmed.setAwaitingAck(false);
+            taskStore.upsert(confirmed);
+        }
+    }
+}
@@ -42,8 +42,11 @@ public class RegisterActivity extends AppCompatActivity {
                 return;
             }
 
+            SessionBootstrap.get(this).onSessionRequested();
             mAuth.createUserWithEmailAndPassword(email, password).addOnCompleteListener(task -> {
-                if (task.isSuccessful()) {
+                if (task.isSuccessful() && mAuth.getCurrentUser() != null) {
+                    SessionCache.setSignedInUid(this, mAuth.getCurrentUser().getUid());
+                    SessionBootstrap.get(this).prefetchNewAccount(mAuth.getCurrentUser().getUid());
                     Toast.makeText(RegisterActivity.this, "Registro bem-sucedido", Toast.LENGTH_SHORT).show();
                     Intent intent = new Intent(RegisterActivity.this, MainActivity.class);
                     startActivity(intent);
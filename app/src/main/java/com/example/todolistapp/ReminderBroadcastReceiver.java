@@ -1,62 +1,76 @@
 package com.example.todolistapp;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.media.MediaPlayer;
-import android.net.Uri;
-import android.os.Build;
+import android.os.SystemClock;
 import android.util.Log;
 
-import androidx.core.app.NotificationCompat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class ReminderBroadcastReceiver extends BroadcastReceiver {
 
-    private static final String CHANNEL_ID = "TASK_REMINDER_CHANNEL";
-    private static final String CHANNEL_NAME = "Task Reminder";
-    private static final String CHANNEL_DESC = "Reminders for tasks";
     private static final String TAG = "ReminderBroadcastReceiver";
 
+    // Disco, notificações e som fora da thread principal; uma thread para o processo todo
+    static Executor executor = Executors.newSingleThreadExecutor();
+    // O primeiro som do processo carrega de forma assíncrona; o broadcast só termina depois dele
+    // (ou deste prazo), senão o processo pode ser encerrado antes do toque
+    static long soundTimeoutMillis = 5_000;
+
     @Override
     public void onReceive(Context context, Intent intent) {
-        String taskId = intent.getStringExtra("taskId");
-        String taskTitle = intent.getStringExtra("taskTitle");
-
-        Intent activityIntent = new Intent(context, MainActivity.class);
-        PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, activityIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        executor.execute(() -> {
+            try {
+                if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
+                    rearmReminders(appContext);
+                } else {
+                    deliverReminders(appContext, intent);
+                }
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, CHANNEL_NAME, NotificationManager.IMPORTANCE_HIGH);
-            channel.setDescription(CHANNEL_DESC);
-            notificationManager.createNotificationChannel(channel);
+    private void deliverReminders(Context context, Intent intent) {
+        List<ReminderIndex.Reminder> due = new ArrayList<>();
+        String legacyTaskId = intent.getStringExtra("taskId");
+        if (legacyTaskId != null) {
+            // Alarme individual armado por uma versão anterior do app
+            due.add(new ReminderIndex.Reminder(legacyTaskId, intent.getStringExtra("taskTitle"), System.currentTimeMillis()));
         }
+        try {
+            due.addAll(ReminderScheduler.from(context).deliverDue());
+        } catch (IOException e) {
+            Log.w(TAG, "Falha ao ler o índice de lembretes", e);
+        }
+        CountDownLatch soundDone = new CountDownLatch(1);
+        ReminderNotifier.get(context).show(due, soundDone::countDown);
+        try {
+            soundDone.await(soundTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        Uri soundUri = Uri.parse("android.resource://" + context.getPackageName() + "/" + R.raw.notificationsound);
-
-        Log.d(TAG, "Sound URI: " + soundUri.toString());
-
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-                .setSmallIcon(R.drawable.ic_notification)
-                .setContentTitle("Lembrete de Tarefa")
-                .setContentText(taskTitle)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setSound(soundUri)
-                .setContentIntent(pendingIntent)
-                .setAutoCancel(true);
-
-        notificationManager.notify(taskId.hashCode(), builder.build());
-
+    // Os alarmes não sobrevivem ao reboot; o índice local tem tudo para rearmar a fila
+    private void rearmReminders(Context context) {
+        long start = SystemClock.elapsedRealtime();
         try {
-            MediaPlayer mediaPlayer = MediaPlayer.create(context, soundUri);
-            mediaPlayer.setOnCompletionListener(mp -> mp.release());
-            mediaPlayer.start();
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to play sound", e);
+            ReminderScheduler reminderScheduler = ReminderScheduler.from(context);
+            reminderScheduler.rearmAll();
+            Log.d(TAG, reminderScheduler.size() + " lembretes rearmados em " + (SystemClock.elapsedRealtime() - start) + " ms");
+        } catch (IOException e) {
+            Log.e(TAG, "Falha ao ler o índice de lembretes", e);
         }
     }
 }
@@ -0,0 +1,202 @@
+package com.example.todolistapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Lembretes do aparelho ordenados por horário, para rearmar os alarmes sem consultar o Firebase.
+// Cada alteração é acrescentada ao log; de tempos em tempos o arquivo é reescrito já ordenado.
+public class ReminderIndex {
+
+    public static final class Reminder {
+        private final String taskId;
+        private final String title;
+        private final long fireAt;
+
+        public Reminder(String taskId, String title, long fireAt) {
+            this.taskId = taskId;
+            this.title = title;
+            this.fireAt = fireAt;
+        }
+
+        public String getTaskId() {
+            return taskId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getFireAt() {
+            return fireAt;
+        }
+    }
+
+    static final Comparator<Reminder> BY_FIRE_TIME = (a, b) -> {
+        int result = Long.compare(a.fireAt, b.fireAt);
+        return result != 0 ? result : a.taskId.compareTo(b.taskId);
+    };
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    // Registros obsoletos tolerados no log antes de compactar
+    private static final int COMPACT_SLACK = 256;
+
+    private final File file;
+    private final TreeSet<Reminder> byFireTime = new TreeSet<>(BY_FIRE_TIME);
+    private final Map<String, Reminder> byTaskId = new HashMap<>();
+    private int recordCount;
+
+    public ReminderIndex(File file) throws IOException {
+        this.file = file;
+        load();
+    }
+
+    public synchronized void put(String taskId, String title, long fireAt) throws IOException {
+        Reminder reminder = new Reminder(taskId, title, fireAt);
+        Reminder previous = byTaskId.put(taskId, reminder);
+        if (previous != null) {
+            byFireTime.remove(previous);
+        }
+        byFireTime.add(reminder);
+        try (DataOutputStream out = openForAppend()) {
+            writePut(out, reminder);
+        }
+        recordCount++;
+        compactIfNeeded();
+    }
+
+    public synchronized Reminder remove(String taskId) throws IOException {
+        Reminder removed = byTaskId.remove(taskId);
+        if (removed == null) {
+            return null;
+        }
+        byFireTime.remove(removed);
+        try (DataOutputStream out = openForAppend()) {
+            out.writeByte(RECORD_REMOVE);
+            TaskDiskCache.writeString(out, taskId);
+        }
+        recordCount++;
+        compactIfNeeded();
+        return removed;
+    }
+
+    // O próximo a disparar, ou null
+    public synchronized Reminder peek() {
+        return byFireTime.isEmpty() ? null : byFireTime.first();
+    }
+
+    // Retira de uma vez todos os lembretes até o horário dado, em ordem de disparo
+    public synchronized List<Reminder> pollDue(long upTo) throws IOException {
+        List<Reminder> due = new ArrayList<>();
+        while (!byFireTime.isEmpty() && byFireTime.first().fireAt <= upTo) {
+            Reminder reminder = byFireTime.pollFirst();
+            byTaskId.remove(reminder.taskId);
+            due.add(reminder);
+        }
+        if (due.isEmpty()) {
+            return due;
+        }
+        try (DataOutputStream out = openForAppend()) {
+            for (Reminder reminder : due) {
+                out.writeByte(RECORD_REMOVE);
+                TaskDiskCache.writeString(out, reminder.taskId);
+            }
+        }
+        recordCount += due.size();
+        compactIfNeeded();
+        return due;
+    }
+
+    public synchronized Reminder get(String taskId) {
+        return byTaskId.get(taskId);
+    }
+
+    // Em ordem de disparo
+    public synchronized List<Reminder> getAll() {
+        return new ArrayList<>(byFireTime);
+    }
+
+    public synchronized int size() {
+        return byTaskId.size();
+    }
+
+    // Reescreve só os lembretes vivos, já na ordem de disparo, e troca o arquivo de uma vez
+    public synchronized void compact() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            for (Reminder reminder : byFireTime) {
+                writePut(out, reminder);
+            }
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Não foi possível substituir " + file);
+        }
+        recordCount = byFireTime.size();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (recordCount > 2 * byTaskId.size() + COMPACT_SLACK) {
+            compact();
+        }
+    }
+
+    private DataOutputStream openForAppend() throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+
+    private static void writePut(DataOutputStream out, Reminder reminder) throws IOException {
+        out.writeByte(RECORD_PUT);
+        TaskDiskCache.writeString(out, reminder.taskId);
+        TaskDiskCache.writeNullableString(out, reminder.title);
+        out.writeLong(reminder.fireAt);
+    }
+
+    private void load() throws IOException {
+        boolean truncated = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int type;
+            while ((type = in.read()) != -1) {
+                String taskId = TaskDiskCache.readString(in);
+                if (type == RECORD_PUT) {
+                    Reminder reminder = new Reminder(taskId, TaskDiskCache.readNullableString(in), in.readLong());
+                    Reminder previous = byTaskId.put(taskId, reminder);
+                    if (previous != null) {
+                        byFireTime.remove(previous);
+                    }
+                    byFireTime.add(reminder);
+                } else if (type == RECORD_REMOVE) {
+                    Reminder previous = byTaskId.remove(taskId);
+                    if (previous != null) {
+                        byFireTime.remove(previous);
+                    }
+                } else {
+                    throw new EOFException("Registro inválido nos lembretes");
+                }
+                recordCount++;
+            }
+        } catch (FileNotFoundException e) {
+            // Nenhum lembrete definido neste aparelho
+        } catch (EOFException e) {
+            // Registro cortado no meio (processo morto durante a escrita)
+            truncated = true;
+        }
+        if (truncated) {
+            // Sem isso, os próximos registros seriam acrescentados depois do pedaço inválido
+            compact();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.todolistapp;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+
+import java.util.List;
+
+// Canal, intent de abertura e som preparados uma vez por processo; lembretes que vencem
+// juntos ficam agrupados sob um resumo e tocam um único som
+public class ReminderNotifier {
+
+    private static final String CHANNEL_ID = "TASK_REMINDERS";
+    private static final String LEGACY_CHANNEL_ID = "TASK_REMINDER_CHANNEL";
+    private static final String CHANNEL_NAME = "Task Reminder";
+    private static final String CHANNEL_DESC = "Reminders for tasks";
+    private static final String GROUP_KEY = "com.example.todolistapp.REMINDERS";
+    private static final int NOTIFICATION_ID = 1;
+    private static final String SUMMARY_TAG = "reminders-summary";
+    // Acima disso o sistema só mostraria um pacote; basta o resumo
+    static final int MAX_CHILDREN = 8;
+    private static final int MAX_SUMMARY_LINES = 5;
+
+    private static ReminderNotifier shared;
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+    private final PendingIntent contentIntent;
+
+    private ReminderNotifier(Context context) {
+        this.context = context;
+        notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            // O som sai do ReminderSound; o canal é silencioso para não tocar duas vezes
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, CHANNEL_NAME, NotificationManager.IMPORTANCE_HIGH);
+            channel.setDescription(CHANNEL_DESC);
+            channel.setSound(null, null);
+            notificationManager.createNotificationChannel(channel);
+            notificationManager.deleteNotificationChannel(LEGACY_CHANNEL_ID);
+        }
+        Intent activityIntent = new Intent(context, MainActivity.class);
+        contentIntent = PendingIntent.getActivity(context, 0, activityIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    public static synchronized ReminderNotifier get(Context context) {
+        if (shared == null) {
+            shared = new ReminderNotifier(context.getApplicationContext());
+        }
+        return shared;
+    }
+
+    static synchronized void reset() {
+        shared = null;
+    }
+
+    public void show(List<ReminderIndex.Reminder> due) {
+        show(due, null);
+    }
+
+    // onSoundDone: ver ReminderSound.play
+    public void show(List<ReminderIndex.Reminder> due, @Nullable Runnable onSoundDone) {
+        if (due.isEmpty()) {
+            if (onSoundDone != null) {
+                onSoundDone.run();
+            }
+            return;
+        }
+        boolean withChildren = due.size() <= MAX_CHILDREN;
+        if (withChildren) {
+            for (ReminderIndex.Reminder reminder : due) {
+                NotificationCompat.Builder builder = baseBuilder()
+                        .setGroup(GROUP_KEY)
+                        .setContentTitle("Lembrete de Tarefa")
+                        .setContentText(reminder.getTitle())
+                        .setWhen(reminder.getFireAt());
+                // Tag com o id da tarefa: sem colisões de hashCode entre lembretes
+                notificationManager.notify(reminder.getTaskId(), NOTIFICATION_ID, builder.build());
+            }
+        }
+        if (due.size() > 1) {
+            notificationManager.notify(SUMMARY_TAG, NOTIFICATION_ID, buildSummary(due, withChildren));
+        }
+        ReminderSound.get(context).play(onSoundDone);
+    }
+
+    // Sem filhos, o resumo vai como notificação comum: a partir do N o sistema pode esconder
+    // um resumo de grupo que não tem nenhum filho
+    private Notification buildSummary(List<ReminderIndex.Reminder> due, boolean withChildren) {
+        String title = context.getString(R.string.reminders_due_title, due.size());
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setBigContentTitle(title);
+        for (int i = 0; i < due.size() && i < MAX_SUMMARY_LINES; i++) {
+            style.addLine(due.get(i).getTitle());
+        }
+        if (due.size() > MAX_SUMMARY_LINES) {
+            style.setSummaryText(context.getString(R.string.reminders_more, due.size() - MAX_SUMMARY_LINES));
+        }
+        NotificationCompat.Builder builder = baseBuilder()
+                .setContentTitle(title)
+                .setContentText(due.get(0).getTitle())
+                .setStyle(style)
+                .setNumber(due.size());
+        if (withChildren) {
+            builder.setGroup(GROUP_KEY).setGroupSummary(true);
+        }
+        return builder.build();
+    }
+
+    private NotificationCompat.Builder baseBuilder() {
+        return new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setContentIntent(contentIntent)
+                .setSilent(true)
+                .setAutoCancel(true);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Fila de lembretes com um único alarme do sistema, sempre no próximo a disparar.
+// Quando ele toca, tudo o que vence dentro da janela de agrupamento sai junto.
+public class ReminderScheduler {
+
+    public interface Alarms {
+        void setNext(long fireAt);
+
+        void cancelNext();
+    }
+
+    public interface Clock {
+        long now();
+    }
+
+    // Lembretes até 30s depois do alarme saem no mesmo despertar
+    static final long COALESCE_WINDOW_MS = 30_000;
+
+    private static final String TAG = "ReminderScheduler";
+    // Do processo, e não de uma activity: nunca é encerrado
+    private static final Executor IO_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "reminder-io"));
+
+    private static ReminderScheduler shared;
+
+    private final ReminderIndex reminderIndex;
+    private final Alarms alarms;
+    private final Clock clock;
+    private long armedAt = Long.MIN_VALUE;
+
+    public ReminderScheduler(ReminderIndex reminderIndex, Alarms alarms, Clock clock) {
+        this.reminderIndex = reminderIndex;
+        this.alarms = alarms;
+        this.clock = clock;
+    }
+
+    // Activity e receiver compartilham a mesma fila no processo; lê o disco na primeira chamada
+    public static synchronized ReminderScheduler from(Context context) throws IOException {
+        if (shared == null) {
+            Context appContext = context.getApplicationContext();
+            shared = new ReminderScheduler(new ReminderIndex(new File(appContext.getFilesDir(), "reminders.log")),
+                    new AlarmManagerAlarms(appContext), System::currentTimeMillis);
+        }
+        return shared;
+    }
+
+    // Gravado no índice local antes do alarme, para sobreviver a um reboot
+    public static void scheduleInBackground(Context context, String taskId, String title, long fireAt) {
+        Context appContext = context.getApplicationContext();
+        IO_EXECUTOR.execute(() -> {
+            try {
+                from(appContext).schedule(taskId, title, fireAt);
+            } catch (IOException e) {
+                Log.w(TAG, "Falha ao salvar lembrete", e);
+            }
+        });
+    }
+
+    public static void cancelInBackground(Context context, Collection<String> taskIds) {
+        Context appContext = context.getApplicationContext();
+        List<String> ids = new ArrayList<>(taskIds);
+        IO_EXECUTOR.execute(() -> {
+            try {
+                ReminderScheduler reminderScheduler = from(appContext);
+                for (String taskId : ids) {
+                    reminderScheduler.cancel(taskId);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Falha ao cancelar lembretes", e);
+            }
+        });
+    }
+
+    // Para os testes: a próxima chamada a from() relê o índice do disco
+    static synchronized void reset() {
+        shared = null;
+    }
+
+    public void schedule(String taskId, String title, long fireAt) throws IOException {
+        reminderIndex.put(taskId, title, fireAt);
+        armNext(false);
+    }
+
+    public void cancel(String taskId) throws IOException {
+        if (reminderIndex.remove(taskId) != null) {
+            armNext(false);
+        }
+    }
+
+    // Chamado quando o alarme toca: devolve os lembretes a exibir e arma o seguinte
+    public List<ReminderIndex.Reminder> deliverDue() throws IOException {
+        List<ReminderIndex.Reminder> due = reminderIndex.pollDue(clock.now() + COALESCE_WINDOW_MS);
+        armNext(true);
+        return due;
+    }
+
+    // Após o boot os alarmes somem; basta rearmar o primeiro. Se ele venceu com o aparelho
+    // desligado, o alarme toca na hora e entrega todos os atrasados de uma vez.
+    public void rearmAll() throws IOException {
+        armNext(true);
+        reminderIndex.compact();
+    }
+
+    public int size() {
+        return reminderIndex.size();
+    }
+
+    // Só troca o alarme quando o primeiro da fila mudou
+    private synchronized void armNext(boolean force) {
+        ReminderIndex.Reminder next = reminderIndex.peek();
+        if (next == null) {
+            if (armedAt != Long.MIN_VALUE || force) {
+                alarms.cancelNext();
+            }
+            armedAt = Long.MIN_VALUE;
+        } else if (force || next.getFireAt() != armedAt) {
+            alarms.setNext(next.getFireAt());
+            armedAt = next.getFireAt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Um único SoundPool no processo, carregado uma vez. Toques pedidos dentro da janela viram um só.
+public class ReminderSound {
+
+    static final long DEDUP_WINDOW_MS = 2_000;
+
+    private static ReminderSound shared;
+    // Quantas instâncias de player o processo criou (para os testes)
+    static int instanceCount;
+
+    private final SoundPool soundPool;
+    private final int soundId;
+    private boolean loaded;
+    private boolean loadFinished;
+    private boolean playWhenLoaded;
+    private final List<Runnable> waitingForLoad = new ArrayList<>();
+    private long lastPlayedAt = Long.MIN_VALUE;
+
+    private ReminderSound(Context context) {
+        instanceCount++;
+        soundPool = new SoundPool.Builder()
+                .setMaxStreams(1)
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_NOTIFICATION_EVENT)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> onLoaded(status == 0));
+        soundId = soundPool.load(context, R.raw.notificationsound, 1);
+    }
+
+    public static synchronized ReminderSound get(Context context) {
+        if (shared == null) {
+            shared = new ReminderSound(context.getApplicationContext());
+        }
+        return shared;
+    }
+
+    static synchronized void reset() {
+        shared = null;
+        instanceCount = 0;
+    }
+
+    public boolean play() {
+        return play(null);
+    }
+
+    // Devolve false quando o toque foi absorvido por outro recente. onDone roda quando o toque
+    // saiu, foi absorvido ou não há som para tocar; no primeiro lembrete do processo isso só
+    // acontece depois do carregamento, e o receiver espera por ele antes de encerrar o broadcast.
+    public synchronized boolean play(@Nullable Runnable onDone) {
+        long now = SystemClock.elapsedRealtime();
+        if (lastPlayedAt != Long.MIN_VALUE && now - lastPlayedAt < DEDUP_WINDOW_MS) {
+            runIfSet(onDone);
+            return false;
+        }
+        lastPlayedAt = now;
+        if (loaded) {
+            soundPool.play(soundId, 1f, 1f, 1, 0, 1f);
+        } else if (!loadFinished) {
+            // Primeiro lembrete do processo: toca assim que o arquivo terminar de carregar
+            playWhenLoaded = true;
+            if (onDone != null) {
+                waitingForLoad.add(onDone);
+            }
+            return true;
+        }
+        runIfSet(onDone);
+        return true;
+    }
+
+    private synchronized void onLoaded(boolean success) {
+        loaded = success;
+        loadFinished = true;
+        if (success && playWhenLoaded) {
+            soundPool.play(soundId, 1f, 1f, 1, 0, 1f);
+        }
+        playWhenLoaded = false;
+        for (Runnable onDone : waitingForLoad) {
+            onDone.run();
+        }
+        waitingForLoad.clear();
+    }
+
+    private static void runIfSet(@Nullable Runnable runnable) {
+        if (runnable != null) {
+            runnable.run();
+        }
+    }
+}
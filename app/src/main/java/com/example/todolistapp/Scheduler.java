@@ -0,0 +1,8 @@
+package com.example.todolistapp;
+
+// Em produção, o modelo (TaskView, TaskWriter, TaskArchiver) usa o TaskPipeline.scheduler(), que
+// roda na thread do pipeline; só o SessionBootstrap usa Handler::postDelayed da thread principal.
+// Nos testes, execução controlada
+public interface Scheduler {
+    void schedule(Runnable runnable, long delayMillis);
+}
@@ -0,0 +1,112 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Começa a carregar as tarefas assim que o uid é conhecido (login, registro ou sessão em cache),
+// em paralelo com a abertura e o layout da MainActivity, que recebe o repositório já em andamento
+// em vez de só então ler o cache e assinar o Firebase. Usado só na thread principal.
+public class SessionBootstrap {
+
+    // Uma MainActivity que não chega a abrir (sessão expirada, app fechado) não segura a assinatura
+    static final long ABANDON_AFTER_MS = 30_000;
+
+    private static SessionBootstrap shared;
+
+    private final TaskListViewModel.RepositoryFactory repositoryFactory;
+    private final Scheduler mainScheduler;
+    private final boolean enabled;
+    private final LatencyHistogram firstRowTimes = Metrics.get().histogram(Metrics.SESSION_FIRST_ROW_NS);
+    private final AtomicLong prefetchHits = Metrics.get().counter(Metrics.SESSION_PREFETCH_HITS);
+    private TaskRepository pending;
+    private long startedAt;
+
+    SessionBootstrap(TaskListViewModel.RepositoryFactory repositoryFactory, Scheduler mainScheduler, boolean enabled) {
+        this.repositoryFactory = repositoryFactory;
+        this.mainScheduler = mainScheduler;
+        this.enabled = enabled;
+    }
+
+    // task_sync/session_prefetch = false volta ao fluxo em série, para comparar session.first_row_ns
+    public static synchronized SessionBootstrap get(Context context) {
+        if (shared == null) {
+            Context appContext = context.getApplicationContext();
+            Handler handler = new Handler(Looper.getMainLooper());
+            shared = new SessionBootstrap(userId -> TaskRepository.forUser(appContext, userId), handler::postDelayed,
+                    appContext.getSharedPreferences("task_sync", Context.MODE_PRIVATE)
+                            .getBoolean("session_prefetch", true));
+        }
+        return shared;
+    }
+
+    static synchronized void reset() {
+        shared = null;
+    }
+
+    // Toque em entrar ou registrar, ou a abertura pelo splash: início da medição até a primeira linha
+    public void onSessionRequested() {
+        startedAt = System.nanoTime();
+    }
+
+    // Cache em disco e assinatura começam agora; a MainActivity os pega com take()
+    public void prefetch(String userId) {
+        prefetch(userId, false);
+    }
+
+    // Conta recém-criada: não há cache a ler nem nada a arquivar, a lista vazia já é a resposta
+    public void prefetchNewAccount(String userId) {
+        prefetch(userId, true);
+    }
+
+    private void prefetch(String userId, boolean newAccount) {
+        if (!enabled || (pending != null && pending.getUserId().equals(userId))) {
+            return;
+        }
+        cancel();
+        TaskRepository repository = repositoryFactory.create(userId);
+        if (newAccount) {
+            repository.markNewAccount();
+        }
+        repository.start();
+        pending = repository;
+        mainScheduler.schedule(() -> {
+            if (pending == repository) {
+                cancel();
+            }
+        }, ABANDON_AFTER_MS);
+    }
+
+    // O repositório já em andamento para este usuário, ou null; o chamador passa a ser o dono
+    @Nullable
+    public TaskRepository take(String userId) {
+        TaskRepository repository = pending;
+        if (repository == null || !repository.getUserId().equals(userId)) {
+            cancel();
+            return null;
+        }
+        pending = null;
+        prefetchHits.incrementAndGet();
+        return repository;
+    }
+
+    // Sessão em cache recusada pelo FirebaseAuth, ou logout
+    public void cancel() {
+        if (pending != null) {
+            pending.close();
+            pending = null;
+        }
+    }
+
+    // Primeira lista com tarefas entregue à tela depois de onSessionRequested
+    public void onFirstRows() {
+        if (startedAt != 0) {
+            firstRowTimes.record(System.nanoTime() - startedAt);
+            startedAt = 0;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+// Último usuário autenticado, lido no cold start sem inicializar o FirebaseAuth.
+// O MainActivity confirma a sessão de verdade e volta ao login se ela expirou.
+public class SessionCache {
+
+    private static final String PREFS = "session";
+    private static final String KEY_UID = "uid";
+
+    private SessionCache() {
+    }
+
+    public static String getSignedInUid(Context context) {
+        return prefs(context).getString(KEY_UID, null);
+    }
+
+    public static void setSignedInUid(Context context, String uid) {
+        prefs(context).edit().putString(KEY_UID, uid).apply();
+    }
+
+    public static void clear(Context context) {
+        prefs(context).edit().remove(KEY_UID).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+}
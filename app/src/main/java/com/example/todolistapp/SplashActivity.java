@@ -4,23 +4,35 @@ import android.content.Intent;
 import android.os.Bundle;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.splashscreen.SplashScreen;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
+// Launcher: decide o destino pela sessão em cache, sem layout próprio; o FirebaseAuth só é
+// consultado quando ainda não há cache.
+// Com uma sessão em cache, o cache em disco e a assinatura das tarefas já começam daqui.
 public class SplashActivity extends AppCompatActivity {
 
-    private FirebaseAuth mAuth;
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        SplashScreen.installSplashScreen(this);
         super.onCreate(savedInstanceState);
 
-        mAuth = FirebaseAuth.getInstance();
-        FirebaseUser currentUser = mAuth.getCurrentUser();
-
-        if (currentUser != null) {
+        String cachedUid = SessionCache.getSignedInUid(this);
+        if (cachedUid == null) {
+            // Sessões de antes do cache (ou cache apagado) ainda vivem no FirebaseAuth
+            FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+            if (currentUser != null) {
+                cachedUid = currentUser.getUid();
+                SessionCache.setSignedInUid(this, cachedUid);
+            }
+        }
+        if (cachedUid != null) {
             // Usuário está autenticado, redirecionar para a MainActivity
+            SessionBootstrap bootstrap = SessionBootstrap.get(this);
+            bootstrap.onSessionRequested();
+            bootstrap.prefetch(cachedUid);
             Intent mainIntent = new Intent(SplashActivity.this, MainActivity.class);
             startActivity(mainIntent);
         } else {
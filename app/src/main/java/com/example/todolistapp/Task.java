@@ -1,20 +1,85 @@
 package com.example.todolistapp;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Lida e gravada no Firebase pelo TaskCodec, sempre pelos nomes de campo abaixo
 public class Task {
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_COMPLETED = "completed";
+    // Preenchidos pelo servidor (ServerValue.TIMESTAMP); null até a primeira confirmação
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_DUE_AT = "dueAt";
+    public static final String FIELD_PRIORITY = "priority";
+    public static final String FIELD_REMINDER_AT = "reminderAt";
+    // Marca de exclusão: o nó fica com deleted e updatedAt para a sincronização incremental
+    // saber da remoção (ver TaskCodec.tombstone)
+    public static final String FIELD_DELETED = "deleted";
+    // Derivados, só para as consultas indexadas (ver TaskQueries); nunca lidos de volta
+    public static final String FIELD_PENDING_DUE_AT = "pendingDueAt";
+    public static final String FIELD_PENDING_PRIORITY = "pendingPriority";
+
+    public static final int PRIORITY_NONE = 0;
+    public static final int PRIORITY_LOW = 1;
+    public static final int PRIORITY_MEDIUM = 2;
+    public static final int PRIORITY_HIGH = 3;
+
     private String id;
     private String title;
     private String description;
     private boolean isCompleted;
+    private Long createdAt;
+    private Long updatedAt;
+    private Long dueAt;
+    private int priority;
+    private Long reminderAt;
+    // Só local: mostra a versão deste aparelho enquanto o Firebase não confirma (ver PendingWrites)
+    private boolean awaitingAck;
+    // Campos alterados pelos setters desde o último markClean, para enviar só o que mudou
+    private final Set<String> dirtyFields = new LinkedHashSet<>();
 
-    public Task() {
-        // Construtor vazio necessário para chamadas DataSnapshot
+    public Task(String id, String title, String description, boolean isCompleted) {
+        this(id, title, description, isCompleted, null, null, null, PRIORITY_NONE, null);
     }
 
-    public Task(String id, String title, String description, boolean isCompleted) {
+    public Task(String id, String title, String description, boolean isCompleted, Long createdAt, Long updatedAt,
+                Long dueAt, int priority, Long reminderAt) {
         this.id = id;
         this.title = title;
         this.description = description;
         this.isCompleted = isCompleted;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.dueAt = dueAt;
+        this.priority = priority;
+        this.reminderAt = reminderAt;
+    }
+
+    public Task copy() {
+        Task copy = new Task(id, title, description, isCompleted, createdAt, updatedAt, dueAt, priority, reminderAt);
+        copy.awaitingAck = awaitingAck;
+        return copy;
+    }
+
+    // Mesmo conteúdo sincronizado e mesmo estado de envio; usado para não notificar a lista quando nada mudou
+    public boolean sameContent(Task other) {
+        return other != null
+                && isCompleted == other.isCompleted
+                && awaitingAck == other.awaitingAck
+                && priority == other.priority
+                && equal(id, other.id)
+                && equal(title, other.title)
+                && equal(description, other.description)
+                && equal(createdAt, other.createdAt)
+                && equal(updatedAt, other.updatedAt)
+                && equal(dueAt, other.dueAt)
+                && equal(reminderAt, other.reminderAt);
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
     }
 
     public String getId() {
@@ -31,6 +96,7 @@ public class Task {
 
     public void setTitle(String title) {
         this.title = title;
+        dirtyFields.add(FIELD_TITLE);
     }
 
     public String getDescription() {
@@ -39,6 +105,7 @@ public class Task {
 
     public void setDescription(String description) {
         this.description = description;
+        dirtyFields.add(FIELD_DESCRIPTION);
     }
 
     public boolean isCompleted() {
@@ -47,5 +114,103 @@ public class Task {
 
     public void setCompleted(boolean completed) {
         isCompleted = completed;
+        dirtyFields.add(FIELD_COMPLETED);
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(Long dueAt) {
+        this.dueAt = dueAt;
+        dirtyFields.add(FIELD_DUE_AT);
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+        dirtyFields.add(FIELD_PRIORITY);
+    }
+
+    public Long getReminderAt() {
+        return reminderAt;
+    }
+
+    public void setReminderAt(Long reminderAt) {
+        this.reminderAt = reminderAt;
+        dirtyFields.add(FIELD_REMINDER_AT);
+    }
+
+    public boolean isAwaitingAck() {
+        return awaitingAck;
+    }
+
+    // Não é um campo sincronizado: não marca nada para envio
+    public void setAwaitingAck(boolean awaitingAck) {
+        this.awaitingAck = awaitingAck;
+    }
+
+    public Set<String> getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public void markClean() {
+        dirtyFields.clear();
+    }
+
+    public Object getFieldValue(String field) {
+        switch (field) {
+            case FIELD_TITLE:
+                return title;
+            case FIELD_DESCRIPTION:
+                return description;
+            case FIELD_COMPLETED:
+                return isCompleted;
+            case FIELD_DUE_AT:
+                return dueAt;
+            case FIELD_PRIORITY:
+                return priority;
+            case FIELD_REMINDER_AT:
+                return reminderAt;
+            default:
+                throw new IllegalArgumentException("Campo desconhecido: " + field);
+        }
+    }
+
+    // Aplica um valor lido de getFieldValue, por exemplo numa cópia para calcular os campos derivados
+    public void setFieldValue(String field, Object value) {
+        switch (field) {
+            case FIELD_TITLE:
+                setTitle((String) value);
+                break;
+            case FIELD_DESCRIPTION:
+                setDescription((String) value);
+                break;
+            case FIELD_COMPLETED:
+                setCompleted((Boolean) value);
+                break;
+            case FIELD_DUE_AT:
+                setDueAt((Long) value);
+                break;
+            case FIELD_PRIORITY:
+                setPriority((Integer) value);
+                break;
+            case FIELD_REMINDER_AT:
+                setReminderAt((Long) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Campo desconhecido: " + field);
+        }
     }
 }
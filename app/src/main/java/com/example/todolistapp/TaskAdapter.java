@@ -8,67 +8,263 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.DatabaseReference;
-
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Recebe cópias imutáveis da TaskView na thread principal; o diff roda em segundo plano no AsyncListDiffer
+public class TaskAdapter extends ListAdapter<Task, TaskAdapter.TaskViewHolder> implements TaskView.Listener {
+
+    public interface SelectionListener {
+        void onSelectionChanged(int selectedCount);
+    }
+
+    static final Object PAYLOAD_COMPLETED = new Object();
+    static final Object PAYLOAD_SELECTION = new Object();
+
+    // Linha com escrita ainda não confirmada pelo Firebase
+    static final float AWAITING_ACK_ALPHA = 0.5f;
+
+    // Linhas infladas em segundo plano antes da primeira lista: uma tela e pouco
+    static final int WARM_ROWS = 12;
+
+    // Acima disso, trocar de filtro com diff custa mais que recarregar a lista
+    static final int VIEW_SWITCH_DIFF_LIMIT = 5_000;
+
+    // Ids estáveis de tarefas fora da lista são descartados quando passam disto além do dobro dela
+    static final int STABLE_ID_SLACK = 64;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
+    static final DiffUtil.ItemCallback<Task> DIFF_CALLBACK = new DiffUtil.ItemCallback<Task>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+            return oldItem.sameContent(newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Task oldItem, @NonNull Task newItem) {
+            Task completedOnly = oldItem.copy();
+            completedOnly.setCompleted(newItem.isCompleted());
+            completedOnly.setAwaitingAck(newItem.isAwaitingAck());
+            // Só a conclusão ou o estado de envio mudou: religar apenas o CheckBox e a opacidade
+            return completedOnly.sameContent(newItem) ? PAYLOAD_COMPLETED : null;
+        }
+    };
 
     private Context context;
-    private List<Task> taskList;
-    private DatabaseReference databaseReference;
+    private TaskRepository taskRepository;
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId;
+    private SelectionListener selectionListener;
+    private final TaskTextCache textCache = new TaskTextCache();
+    // Views de item_task já infladas pelo warmUp, consumidas pelo onCreateViewHolder
+    private final ArrayDeque<View> preinflatedRows = new ArrayDeque<>();
+    private final LatencyHistogram diffTimes = Metrics.get().histogram(Metrics.ADAPTER_DIFF_NS);
+    private final LatencyHistogram bindTimes = Metrics.get().histogram(Metrics.ADAPTER_BIND_NS);
 
-    public TaskAdapter(Context context, List<Task> taskList) {
+    public TaskAdapter(Context context) {
+        this(context, new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+    }
+
+    TaskAdapter(Context context, AsyncDifferConfig<Task> config) {
+        super(config);
         this.context = context;
-        this.taskList = taskList;
+        setHasStableIds(true);
     }
 
-    public void setDatabaseReference(DatabaseReference databaseReference) {
-        this.databaseReference = databaseReference;
+    public void setTaskRepository(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    // Infla linhas fora da thread principal e deixa os holders prontos no pool do RecyclerView.
+    // Pelo createViewHolder o holder recebe o tipo de view, que o pool usa para devolvê-lo.
+    public void warmUp(RecyclerView recyclerView, int rows) {
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        pool.setMaxRecycledViews(0, rows);
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(context);
+        for (int i = 0; i < rows; i++) {
+            inflater.inflate(R.layout.item_task, recyclerView, (view, resid, parent) -> {
+                preinflatedRows.add(view);
+                pool.putRecycledView(createViewHolder(recyclerView, 0));
+            });
+        }
+    }
+
+    public void setSelectionListener(SelectionListener selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+
+    public Set<String> getSelectedIds() {
+        return new LinkedHashSet<>(selectedIds);
+    }
+
+    public void clearSelection() {
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(0);
+        }
     }
 
-    @NonNull
     @Override
-    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.item_task, parent, false);
-        return new TaskViewHolder(view);
+    public void onTasksChanged(List<Task> snapshot, boolean viewSwitched) {
+        if (viewSwitched && Math.max(getCurrentList().size(), snapshot.size()) > VIEW_SWITCH_DIFF_LIMIT) {
+            submitList(null);
+        }
+        long submittedAt = System.nanoTime();
+        // Chamado só quando esta lista é aplicada; uma substituída antes do fim do diff não conta
+        submitList(snapshot, () -> {
+            diffTimes.record(System.nanoTime() - submittedAt);
+            prune(snapshot);
+        });
     }
 
+    // Tarefas que saíram da lista (apagadas ou fora do filtro) deixam a seleção, para não irem
+    // numa ação em lote, e deixam de ocupar um id estável. Os ids são limpos só de vez em quando:
+    // uma tarefa que volta ganha um id novo, o que basta ao RecyclerView.
+    private void prune(List<Task> snapshot) {
+        boolean pruneStableIds = stableIds.size() > 2 * snapshot.size() + STABLE_ID_SLACK;
+        if (!pruneStableIds && selectedIds.isEmpty()) {
+            return;
+        }
+        Set<String> present = new HashSet<>();
+        for (Task task : snapshot) {
+            present.add(task.getId());
+        }
+        if (pruneStableIds) {
+            stableIds.keySet().retainAll(present);
+        }
+        if (selectedIds.retainAll(present) && selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    int getStableIdCount() {
+        return stableIds.size();
+    }
+
+    // Ids numéricos atribuídos na primeira aparição: sem colisões como em String.hashCode, nem
+    // reaproveitados depois de uma limpeza
     @Override
-    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task task = taskList.get(position);
-        holder.textViewTitle.setText(task.getTitle());
-        holder.textViewDescription.setText(task.getDescription());
+    public long getItemId(int position) {
+        String id = getItem(position).getId();
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(id, stableId);
+        }
+        return stableId;
+    }
 
-        // Remover o listener antes de configurar o estado do CheckBox
-        holder.checkBoxCompleted.setOnCheckedChangeListener(null);
-        holder.checkBoxCompleted.setChecked(task.isCompleted());
+    private void toggleSelection(int position) {
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        String id = getItem(position).getId();
+        if (!selectedIds.remove(id)) {
+            selectedIds.add(id);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
 
-        holder.checkBoxCompleted.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            task.setCompleted(isChecked);
-            if (databaseReference != null) {
-                databaseReference.child(task.getId()).setValue(task);
-            }
+    @NonNull
+    @Override
+    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = preinflatedRows.poll();
+        if (view == null) {
+            view = LayoutInflater.from(context).inflate(R.layout.item_task, parent, false);
+        }
+        TaskViewHolder holder = new TaskViewHolder(view);
+        // Listeners uma vez por holder; a tarefa é a da posição atual, não a do bind
+        holder.itemView.setOnClickListener(v -> onRowClicked(holder));
+        holder.itemView.setOnLongClickListener(v -> {
+            toggleSelection(holder.getAdapterPosition());
+            return true;
         });
+        // Clique e não OnCheckedChange: o setChecked do bind não dispara escrita
+        holder.checkBoxCompleted.setOnClickListener(v -> onCompletedClicked(holder));
+        return holder;
+    }
+
+    private void onRowClicked(TaskViewHolder holder) {
+        int position = holder.getAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        // Com alguma tarefa selecionada, o toque alterna a seleção em vez de abrir o diálogo
+        if (!selectedIds.isEmpty()) {
+            toggleSelection(position);
+        } else if (context instanceof MainActivity) {
+            ((MainActivity) context).showEditOrDeleteTaskDialog(getItem(position));
+        }
+    }
 
-        holder.itemView.setOnClickListener(v -> {
-            if (context instanceof MainActivity) {
-                ((MainActivity) context).showEditOrDeleteTaskDialog(task);
+    private void onCompletedClicked(TaskViewHolder holder) {
+        int position = holder.getAdapterPosition();
+        if (position == RecyclerView.NO_POSITION || taskRepository == null) {
+            return;
+        }
+        // Nova instância: o TaskWriter põe a versão local no modelo e a desfaz se o Firebase recusar
+        Task updated = getItem(position).copy();
+        updated.setCompleted(holder.checkBoxCompleted.isChecked());
+        taskRepository.enqueue(updated);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        Task task = getItem(position);
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_COMPLETED) {
+                bindCompleted(holder, task);
+            } else if (payload == PAYLOAD_SELECTION) {
+                holder.itemView.setActivated(selectedIds.contains(task.getId()));
             }
-        });
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return taskList.size();
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        long startedAt = System.nanoTime();
+        Task task = getItem(position);
+        holder.textViewTitle.setText(task.getTitle());
+        textCache.bind(holder.textViewDescription, task.getDescription());
+        bindCompleted(holder, task);
+        holder.itemView.setActivated(selectedIds.contains(task.getId()));
+        bindTimes.record(System.nanoTime() - startedAt);
+    }
+
+    private void bindCompleted(TaskViewHolder holder, Task task) {
+        holder.checkBoxCompleted.setChecked(task.isCompleted());
+        holder.itemView.setAlpha(task.isAwaitingAck() ? AWAITING_ACK_ALPHA : 1f);
     }
 
     static class TaskViewHolder extends RecyclerView.ViewHolder {
 
         TextView textViewTitle;
-        TextView textViewDescription;
+        AppCompatTextView textViewDescription;
         CheckBox checkBoxCompleted;
 
         public TaskViewHolder(@NonNull View itemView) {
@@ -0,0 +1,404 @@
+package com.example.todolistapp;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+// Partição fria: tarefas concluídas e paradas há mais de archiveAfterMillis saem de tasks/<uid>
+// para archive/<uid>/<aaaa-mm>, que ninguém assina. A sincronização e o modelo em memória ficam
+// do tamanho do que está em uso, por mais antiga que seja a conta. O arquivo só é lido quando a
+// tela pede (filtro de concluídas ou busca), um mês por vez, no archiveStore.
+// Usado só na thread do TaskPipeline, como o TaskWriter.
+public class TaskArchiver {
+
+    public interface ArchiveSource {
+        // Filhos do nó quente com updatedAt < before, na ordem do índice (sem updatedAt primeiro),
+        // depois do cursor (afterValue, afterKey); afterKey null começa do início
+        void scanHot(@Nullable Object afterValue, @Nullable String afterKey, long before, int limit,
+                     ScanCallback callback);
+
+        // O mês mais recente antes de beforeMonth (null: o mais recente de todos)
+        void loadMonth(@Nullable String beforeMonth, MonthCallback callback);
+
+        // Escrita atômica nas duas partições, com caminhos "tasks/<id>…" e "archive/<mês>/<id>…"
+        // relativos ao usuário
+        void updatePartitions(Map<String, Object> updates, TaskRemote.Callback callback);
+    }
+
+    public interface ScanCallback {
+        // Chamado na thread do pipeline, na ordem do índice
+        void onScanned(Map<String, Map<String, Object>> children);
+
+        void onScanFailed(Exception error);
+    }
+
+    public interface MonthCallback {
+        // Chamado na thread do pipeline; month null quando não há meses mais antigos
+        void onMonthLoaded(@Nullable String month, List<Task> tasks);
+
+        void onMonthFailed(Exception error);
+    }
+
+    // Onde a varredura pode recomeçar na próxima passada, guardado entre processos
+    public interface CursorStore {
+        @Nullable
+        ScanCursor load();
+
+        void save(ScanCursor cursor);
+    }
+
+    // Posição no índice de updatedAt: tudo até ela já foi resolvido. Qualquer escrita numa tarefa
+    // dali renova o updatedAt e a leva para depois do cursor, então nada volta para trás dele.
+    public static final class ScanCursor {
+        @Nullable
+        public final Long updatedAt;
+        public final String key;
+
+        public ScanCursor(@Nullable Long updatedAt, String key) {
+            this.updatedAt = updatedAt;
+            this.key = key;
+        }
+    }
+
+    static final String HOT = "tasks";
+    static final String ARCHIVE = "archive";
+    static final long DEFAULT_ARCHIVE_AFTER_MS = 30L * 24 * 60 * 60 * 1000;
+    // Dois caminhos por tarefa movida (um por marca de exclusão apagada): um lote lido vira uma
+    // escrita do tamanho dos lotes do TaskWriter
+    static final int SCAN_LIMIT = TaskWriter.MAX_PATHS_PER_WRITE / 2;
+
+    // Ordem do archiveStore: cada mês lido entra no fim da lista
+    public static final Comparator<Task> NEWEST_FIRST = (a, b) -> {
+        long updatedA = a.getUpdatedAt() == null ? 0 : a.getUpdatedAt();
+        long updatedB = b.getUpdatedAt() == null ? 0 : b.getUpdatedAt();
+        int result = Long.compare(updatedB, updatedA);
+        return result != 0 ? result : a.getId().compareTo(b.getId());
+    };
+
+    private final ArchiveSource source;
+    private final TaskStore archiveStore;
+    private final PendingWrites pendingWrites;
+    private final Scheduler scheduler;
+    private final long archiveAfterMillis;
+    private boolean archiving;
+    private long archivedCount;
+    private long purgedCount;
+    private CursorStore cursorStore;
+    private ScanCursor settled;
+    private boolean settledLoaded;
+    private String oldestMonth;
+    private boolean monthsExhausted;
+    private boolean loadingMonth;
+    private Runnable monthLoadListener;
+
+    public TaskArchiver(ArchiveSource source, TaskStore archiveStore, PendingWrites pendingWrites,
+                        Scheduler scheduler, long archiveAfterMillis) {
+        this.source = source;
+        this.archiveStore = archiveStore;
+        this.pendingWrites = pendingWrites;
+        this.scheduler = scheduler;
+        this.archiveAfterMillis = archiveAfterMillis;
+    }
+
+    public void setMonthLoadListener(Runnable monthLoadListener) {
+        this.monthLoadListener = monthLoadListener;
+    }
+
+    public void setCursorStore(CursorStore cursorStore) {
+        this.cursorStore = cursorStore;
+    }
+
+    public long getArchivedCount() {
+        return archivedCount;
+    }
+
+    public long getPurgedCount() {
+        return purgedCount;
+    }
+
+    public boolean isArchiving() {
+        return archiving;
+    }
+
+    // Percorre o nó quente pelo índice de updatedAt até o corte, movendo as concluídas e apagando
+    // de vez as marcas de exclusão vencidas, em lotes. Também migra contas antigas: tarefas sem
+    // updatedAt vêm primeiro no índice. Cada passada começa do cursor da anterior, então as
+    // pendentes antigas não são relidas a cada abertura. Uma falha interrompe a passada; o que
+    // não foi resolvido continua no nó quente para a próxima sessão.
+    public void archiveOld(long now) {
+        if (archiving || archiveAfterMillis <= 0) {
+            return;
+        }
+        archiving = true;
+        if (!settledLoaded) {
+            settledLoaded = true;
+            settled = cursorStore == null ? null : cursorStore.load();
+        }
+        Pass pass = new Pass(now);
+        if (settled == null) {
+            scan(null, null, pass);
+        } else {
+            scan(settled.updatedAt, settled.key, pass);
+        }
+    }
+
+    private final class Pass {
+        final long now;
+        final long before;
+        // Falso depois do primeiro filho que ainda pode mudar sem renovar o updatedAt (uma marca de
+        // exclusão recente, uma concluída com escrita em voo): o cursor salvo para antes dele
+        boolean settling = true;
+
+        Pass(long now) {
+            this.now = now;
+            this.before = now - archiveAfterMillis;
+        }
+    }
+
+    private void scan(@Nullable Object afterValue, @Nullable String afterKey, Pass pass) {
+        source.scanHot(afterValue, afterKey, pass.before, SCAN_LIMIT, new ScanCallback() {
+            @Override
+            public void onScanned(Map<String, Map<String, Object>> children) {
+                if (children.isEmpty()) {
+                    archiving = false;
+                    return;
+                }
+                Map<String, Object> updates = new LinkedHashMap<>();
+                Map<String, Map<String, Object>> moved = new LinkedHashMap<>();
+                int purged = 0;
+                String lastKey = null;
+                Object lastValue = null;
+                ScanCursor settledInBatch = null;
+                for (Map.Entry<String, Map<String, Object>> child : children.entrySet()) {
+                    String id = child.getKey();
+                    Map<String, Object> fields = child.getValue();
+                    lastKey = id;
+                    lastValue = fields.get(Task.FIELD_UPDATED_AT);
+                    boolean resolved;
+                    if (TaskCodec.isTombstone(fields)) {
+                        resolved = isExpired(fields, pass.now) && !pendingWrites.isPending(id);
+                        if (resolved) {
+                            updates.put(HOT + "/" + id, null);
+                            purged++;
+                        }
+                    } else if (!Boolean.TRUE.equals(fields.get(Task.FIELD_COMPLETED))) {
+                        resolved = true;
+                    } else {
+                        resolved = isArchivable(id, fields);
+                        if (resolved) {
+                            putMove(id, fields, updates);
+                            moved.put(id, fields);
+                        }
+                    }
+                    pass.settling &= resolved;
+                    if (pass.settling) {
+                        settledInBatch = new ScanCursor(lastValue instanceof Number
+                                ? ((Number) lastValue).longValue() : null, id);
+                    }
+                }
+                String cursorKey = lastKey;
+                Object cursorValue = lastValue;
+                ScanCursor batchCursor = settledInBatch;
+                if (updates.isEmpty()) {
+                    // Só pendentes ou marcas de exclusão ainda recentes neste trecho
+                    settle(batchCursor);
+                    scan(cursorValue, cursorKey, pass);
+                    return;
+                }
+                int purgedInBatch = purged;
+                source.updatePartitions(updates, error -> scheduler.schedule(() -> {
+                    if (error != null) {
+                        archiving = false;
+                        return;
+                    }
+                    archivedCount += moved.size();
+                    purgedCount += purgedInBatch;
+                    settle(batchCursor);
+                    showMoved(moved);
+                    scan(cursorValue, cursorKey, pass);
+                }, 0));
+            }
+
+            @Override
+            public void onScanFailed(Exception error) {
+                archiving = false;
+            }
+        });
+    }
+
+    private void settle(@Nullable ScanCursor cursor) {
+        if (cursor == null) {
+            return;
+        }
+        settled = cursor;
+        if (cursorStore != null) {
+            cursorStore.save(cursor);
+        }
+    }
+
+    // Como na sincronização completa (TaskSyncListener.TOMBSTONE_TTL_MS): nenhum aparelho
+    // sincroniza incrementalmente a partir de antes dela
+    private static boolean isExpired(Map<String, Object> tombstone, long now) {
+        return now - TaskCodec.updatedAtOf(tombstone) > TaskSyncListener.TOMBSTONE_TTL_MS;
+    }
+
+    // Com o arquivo aberto na tela, as que acabaram de sair do nó quente aparecem nele
+    private void showMoved(Map<String, Map<String, Object>> moved) {
+        if (oldestMonth == null) {
+            return;
+        }
+        for (Map.Entry<String, Map<String, Object>> child : moved.entrySet()) {
+            Map<String, Object> fields = child.getValue();
+            if (monthOf(TaskCodec.updatedAtOf(fields)).compareTo(oldestMonth) >= 0) {
+                archiveStore.upsert(TaskCodec.fromMap(child.getKey(), fields));
+            }
+        }
+    }
+
+    // Uma escrita local ainda sem resposta pode ter reaberto a tarefa
+    private boolean isArchivable(String id, Map<String, Object> fields) {
+        return Boolean.TRUE.equals(fields.get(Task.FIELD_COMPLETED)) && !TaskCodec.isTombstone(fields)
+                && !pendingWrites.isPending(id);
+    }
+
+    // O nó quente vira marca de exclusão, para os outros aparelhos a removerem no incremental
+    static void putMove(String id, Map<String, Object> fields, Map<String, Object> updates) {
+        updates.put(ARCHIVE + "/" + monthOf(TaskCodec.updatedAtOf(fields)) + "/" + id, fields);
+        updates.put(HOT + "/" + id, TaskCodec.tombstone());
+    }
+
+    // O mês vem do updatedAt da tarefa quando foi arquivada, que o arquivo preserva
+    static String monthOf(long updatedAt) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(updatedAt);
+        return String.format(Locale.US, "%04d-%02d", calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1);
+    }
+
+    // Próximo mês do arquivo, do mais recente para o mais antigo
+    public void loadOlderMonth() {
+        if (loadingMonth || monthsExhausted) {
+            return;
+        }
+        loadingMonth = true;
+        source.loadMonth(oldestMonth, new MonthCallback() {
+            @Override
+            public void onMonthLoaded(@Nullable String month, List<Task> tasks) {
+                loadingMonth = false;
+                if (month == null) {
+                    monthsExhausted = true;
+                } else {
+                    oldestMonth = month;
+                    List<Task> loaded = new ArrayList<>(archiveStore.getTasks());
+                    loaded.addAll(tasks);
+                    // Uma única publicação para o mês inteiro
+                    archiveStore.replaceAll(loaded);
+                }
+                if (monthLoadListener != null) {
+                    monthLoadListener.run();
+                }
+            }
+
+            @Override
+            public void onMonthFailed(Exception error) {
+                loadingMonth = false;
+            }
+        });
+    }
+
+    public boolean hasMoreMonths() {
+        return !monthsExhausted;
+    }
+
+    public boolean isArchived(String id) {
+        return archiveStore.get(id) != null;
+    }
+
+    // Editar ou reabrir uma tarefa arquivada a traz de volta ao nó quente, já com a alteração
+    // e um updatedAt novo, que a mantém lá por mais archiveAfterMillis
+    public void restore(Task task, @Nullable TaskRemote.Callback callback) {
+        Task archived = archiveStore.get(task.getId());
+        if (archived == null) {
+            return;
+        }
+        Map<String, Object> updates = new LinkedHashMap<>();
+        putRestore(archived, task, updates);
+        removeAll(Collections.singletonList(archived), updates, callback);
+    }
+
+    public void restoreAll(Collection<String> ids, @Nullable TaskRemote.Callback callback) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        List<Task> removed = new ArrayList<>();
+        for (String id : ids) {
+            Task archived = archiveStore.get(id);
+            if (archived != null) {
+                Task reopened = archived.copy();
+                reopened.setCompleted(false);
+                putRestore(archived, reopened, updates);
+                removed.add(archived);
+            }
+        }
+        removeAll(removed, updates, callback);
+    }
+
+    // Fora da sincronização, a exclusão no arquivo dispensa a marca de exclusão
+    public void delete(String id, @Nullable TaskRemote.Callback callback) {
+        deleteAll(Collections.singletonList(id), callback);
+    }
+
+    public void deleteAll(Collection<String> ids, @Nullable TaskRemote.Callback callback) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        List<Task> removed = new ArrayList<>();
+        for (String id : ids) {
+            Task archived = archiveStore.get(id);
+            if (archived != null) {
+                updates.put(pathOf(archived), null);
+                removed.add(archived);
+            }
+        }
+        removeAll(removed, updates, callback);
+    }
+
+    private void removeAll(List<Task> removed, Map<String, Object> updates, @Nullable TaskRemote.Callback callback) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        for (Task task : removed) {
+            ids.add(task.getId());
+        }
+        // Sai da lista na hora e volta se o servidor recusar
+        archiveStore.removeAll(ids);
+        // Seleções do arquivo são de um ou poucos meses; cabem num único updateChildren
+        source.updatePartitions(updates, error -> scheduler.schedule(() -> {
+            if (error != null) {
+                for (Task task : removed) {
+                    archiveStore.upsert(task);
+                }
+            }
+            if (callback != null) {
+                callback.onComplete(error);
+            }
+        }, 0));
+    }
+
+    private static void putRestore(Task archived, Task restored, Map<String, Object> updates) {
+        Map<String, Object> fields = TaskCodec.toMap(restored);
+        fields.put(Task.FIELD_UPDATED_AT, TaskCodec.SERVER_TIMESTAMP);
+        updates.put(pathOf(archived), null);
+        updates.put(HOT + "/" + restored.getId(), fields);
+    }
+
+    private static String pathOf(Task archived) {
+        long updatedAt = archived.getUpdatedAt() == null ? 0 : archived.getUpdatedAt();
+        return ARCHIVE + "/" + monthOf(updatedAt) + "/" + archived.getId();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.todolistapp;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.ServerValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Leitura e escrita de Task no formato do Realtime Database, campo a campo pelas constantes
+// de Task. Substitui o getValue(Task.class), que mapeia por reflexão a cada filho recebido.
+public final class TaskCodec {
+
+    // Substituído pelo horário do servidor quando a escrita chega lá
+    static final Object SERVER_TIMESTAMP = ServerValue.TIMESTAMP;
+
+    private TaskCodec() {
+    }
+
+    // Null quando o nó não é uma tarefa: marca de exclusão ou valor solto gravado no lugar dela
+    public static Task fromSnapshot(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        return value instanceof Map && !isTombstone((Map<?, ?>) value)
+                ? fromMap(snapshot.getKey(), (Map<?, ?>) value) : null;
+    }
+
+    // Substitui o nó inteiro da tarefa excluída; o updatedAt a coloca na próxima consulta incremental
+    public static Map<String, Object> tombstone() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put(Task.FIELD_DELETED, true);
+        fields.put(Task.FIELD_UPDATED_AT, SERVER_TIMESTAMP);
+        return fields;
+    }
+
+    public static boolean isTombstone(Map<?, ?> fields) {
+        return Boolean.TRUE.equals(fields.get(Task.FIELD_DELETED));
+    }
+
+    // 0 quando ausente (tarefa gravada antes do campo existir)
+    public static long updatedAtOf(Map<?, ?> fields) {
+        Long updatedAt = readLong(fields.get(Task.FIELD_UPDATED_AT));
+        return updatedAt == null ? 0 : updatedAt;
+    }
+
+    // A tarefa sai limpa: nenhum setter é chamado, então não há campos alterados a enviar
+    public static Task fromMap(String id, Map<?, ?> fields) {
+        return new Task(id,
+                readString(fields.get(Task.FIELD_TITLE)),
+                readString(fields.get(Task.FIELD_DESCRIPTION)),
+                readBoolean(fields.get(Task.FIELD_COMPLETED)),
+                readLong(fields.get(Task.FIELD_CREATED_AT)),
+                readLong(fields.get(Task.FIELD_UPDATED_AT)),
+                readLong(fields.get(Task.FIELD_DUE_AT)),
+                readInt(fields.get(Task.FIELD_PRIORITY)),
+                readLong(fields.get(Task.FIELD_REMINDER_AT)));
+    }
+
+    // O id é a chave do nó e não vai no corpo
+    public static Map<String, Object> toMap(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put(Task.FIELD_TITLE, task.getTitle());
+        fields.put(Task.FIELD_DESCRIPTION, task.getDescription());
+        fields.put(Task.FIELD_COMPLETED, task.isCompleted());
+        fields.put(Task.FIELD_CREATED_AT, task.getCreatedAt());
+        fields.put(Task.FIELD_UPDATED_AT, task.getUpdatedAt());
+        fields.put(Task.FIELD_DUE_AT, task.getDueAt());
+        fields.put(Task.FIELD_PRIORITY, task.getPriority());
+        fields.put(Task.FIELD_REMINDER_AT, task.getReminderAt());
+        fields.put(Task.FIELD_PENDING_DUE_AT, pendingDueAt(task));
+        fields.put(Task.FIELD_PENDING_PRIORITY, pendingPriority(task));
+        return fields;
+    }
+
+    // Criação como caminhos "id/campo", para entrar num updateChildren multi-caminho.
+    // As datas de criação e alteração vêm do relógio do servidor, não do aparelho.
+    public static void putPaths(Task task, Map<String, Object> updates) {
+        String prefix = task.getId() + "/";
+        updates.put(prefix + Task.FIELD_TITLE, task.getTitle());
+        updates.put(prefix + Task.FIELD_DESCRIPTION, task.getDescription());
+        updates.put(prefix + Task.FIELD_COMPLETED, task.isCompleted());
+        updates.put(prefix + Task.FIELD_DUE_AT, task.getDueAt());
+        updates.put(prefix + Task.FIELD_PRIORITY, task.getPriority());
+        updates.put(prefix + Task.FIELD_REMINDER_AT, task.getReminderAt());
+        updates.put(prefix + Task.FIELD_PENDING_DUE_AT, pendingDueAt(task));
+        updates.put(prefix + Task.FIELD_PENDING_PRIORITY, pendingPriority(task));
+        updates.put(prefix + Task.FIELD_CREATED_AT, SERVER_TIMESTAMP);
+        updates.put(prefix + Task.FIELD_UPDATED_AT, SERVER_TIMESTAMP);
+    }
+
+    // Alteração de campos já existentes: além deles, os derivados que mudaram e o novo updatedAt.
+    // Sem a tarefa em memória (modo paginado) os derivados só são conhecidos ao concluir.
+    public static void putChangePaths(String id, Task current, Map<String, Object> fields, Map<String, Object> updates) {
+        String prefix = id + "/";
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            updates.put(prefix + field.getKey(), field.getValue());
+        }
+        if (current != null) {
+            Task changed = current.copy();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                changed.setFieldValue(field.getKey(), field.getValue());
+            }
+            Long dueAt = pendingDueAt(changed);
+            if (!equal(dueAt, pendingDueAt(current))) {
+                updates.put(prefix + Task.FIELD_PENDING_DUE_AT, dueAt);
+            }
+            Integer priority = pendingPriority(changed);
+            if (!equal(priority, pendingPriority(current))) {
+                updates.put(prefix + Task.FIELD_PENDING_PRIORITY, priority);
+            }
+        } else if (Boolean.TRUE.equals(fields.get(Task.FIELD_COMPLETED))) {
+            updates.put(prefix + Task.FIELD_PENDING_DUE_AT, null);
+            updates.put(prefix + Task.FIELD_PENDING_PRIORITY, null);
+        }
+        updates.put(prefix + Task.FIELD_UPDATED_AT, SERVER_TIMESTAMP);
+    }
+
+    // Tarefas concluídas ficam sem o campo (null), que o orderByChild põe antes de qualquer
+    // número e os limites de intervalo das consultas excluem
+    static Long pendingDueAt(Task task) {
+        return task.isCompleted() ? null : task.getDueAt();
+    }
+
+    static Integer pendingPriority(Task task) {
+        return task.isCompleted() || task.getPriority() == Task.PRIORITY_NONE ? null : task.getPriority();
+    }
+
+    private static String readString(Object value) {
+        return value == null || value instanceof String ? (String) value : String.valueOf(value);
+    }
+
+    private static boolean readBoolean(Object value) {
+        return value instanceof Boolean && (Boolean) value;
+    }
+
+    // O Firebase devolve números inteiros como Long, e Double se alguém gravou com casas decimais
+    private static Long readLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static int readInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.todolistapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cópia local do nó tasks/<uid> para desenhar a lista antes da resposta do Firebase
+public class TaskDiskCache {
+
+    private static final int VERSION = 3;
+
+    private final File file;
+
+    public TaskDiskCache(File file) {
+        this.file = file;
+    }
+
+    public List<Task> read() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                return tasks;
+            }
+            in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in));
+            }
+        } catch (FileNotFoundException e) {
+            // Primeiro acesso deste usuário: ainda não há cache
+        }
+        return tasks;
+    }
+
+    // Maior updatedAt já contido no cache, gravado no cabeçalho; 0 sem cache ou de outra versão
+    public long readWatermark() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return in.readInt() == VERSION ? in.readLong() : 0;
+        } catch (FileNotFoundException e) {
+            return 0;
+        }
+    }
+
+    // Grava num arquivo temporário e renomeia, para nunca deixar um cache pela metade
+    public void write(List<Task> tasks, long watermark) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(VERSION);
+            out.writeLong(watermark);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Não foi possível substituir " + file);
+        }
+    }
+
+    public void delete() {
+        file.delete();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        writeString(out, task.getId());
+        writeNullableString(out, task.getTitle());
+        writeNullableString(out, task.getDescription());
+        out.writeBoolean(task.isCompleted());
+        writeNullableLong(out, task.getCreatedAt());
+        writeNullableLong(out, task.getUpdatedAt());
+        writeNullableLong(out, task.getDueAt());
+        out.writeInt(task.getPriority());
+        writeNullableLong(out, task.getReminderAt());
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String title = readNullableString(in);
+        String description = readNullableString(in);
+        boolean completed = in.readBoolean();
+        Long createdAt = readNullableLong(in);
+        Long updatedAt = readNullableLong(in);
+        Long dueAt = readNullableLong(in);
+        int priority = in.readInt();
+        Long reminderAt = readNullableLong(in);
+        return new Task(id, title, description, completed, createdAt, updatedAt, dueAt, priority, reminderAt);
+    }
+
+    static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    // writeUTF limita a 64KB; descrições podem ser maiores
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.todolistapp;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+// Índices mantidos a cada alteração do TaskStore: por status e por prefixo de palavra
+public class TaskIndex implements TaskStore.Observer {
+
+    public enum Filter {
+        ALL,
+        PENDING,
+        COMPLETED
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final TaskStore taskStore;
+    private final TreeSet<Task> pending;
+    private final TreeSet<Task> completed;
+    private final TreeMap<String, Set<Task>> tasksByToken = new TreeMap<>();
+
+    public TaskIndex(TaskStore taskStore) {
+        this.taskStore = taskStore;
+        pending = new TreeSet<>(taskStore::compare);
+        completed = new TreeSet<>(taskStore::compare);
+        rebuild();
+        taskStore.addObserver(this);
+    }
+
+    // Resultado na mesma ordem do TaskStore
+    public List<Task> query(Filter filter, List<String> searchTokens) {
+        if (searchTokens.isEmpty()) {
+            switch (filter) {
+                case PENDING:
+                    return new ArrayList<>(pending);
+                case COMPLETED:
+                    return new ArrayList<>(completed);
+                default:
+                    return new ArrayList<>(taskStore.getTasks());
+            }
+        }
+
+        // O token com menos tarefas gera os candidatos; os demais só são consultados
+        List<Collection<Set<Task>>> tokenSets = new ArrayList<>();
+        Collection<Set<Task>> driver = null;
+        int driverSize = Integer.MAX_VALUE;
+        for (String token : searchTokens) {
+            Collection<Set<Task>> sets = tasksByToken.subMap(token, true, token + Character.MAX_VALUE, false).values();
+            int size = 0;
+            for (Set<Task> set : sets) {
+                size += set.size();
+            }
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            if (size < driverSize) {
+                if (driver != null) {
+                    tokenSets.add(driver);
+                }
+                driver = sets;
+                driverSize = size;
+            } else {
+                tokenSets.add(sets);
+            }
+        }
+
+        Set<Task> candidates = new HashSet<>();
+        for (Set<Task> set : driver) {
+            for (Task task : set) {
+                if (matchesFilter(task, filter) && containedInAll(task, tokenSets)) {
+                    candidates.add(task);
+                }
+            }
+        }
+
+        List<Task> result;
+        if (candidates.size() > taskStore.size() / 8) {
+            // Muitos candidatos: percorrer o modelo já ordenado sai mais barato que ordenar
+            result = new ArrayList<>(candidates.size());
+            for (Task task : taskStore.getTasks()) {
+                if (candidates.contains(task)) {
+                    result.add(task);
+                }
+            }
+        } else {
+            result = new ArrayList<>(candidates);
+            Collections.sort(result, taskStore::compare);
+        }
+        return result;
+    }
+
+    public int count(Filter filter) {
+        switch (filter) {
+            case PENDING:
+                return pending.size();
+            case COMPLETED:
+                return completed.size();
+            default:
+                return taskStore.size();
+        }
+    }
+
+    public static boolean matches(Task task, Filter filter, List<String> searchTokens) {
+        if (!matchesFilter(task, filter)) {
+            return false;
+        }
+        if (searchTokens.isEmpty()) {
+            return true;
+        }
+        List<String> taskTokens = tokenize(task.getTitle());
+        taskTokens.addAll(tokenize(task.getDescription()));
+        for (String searchToken : searchTokens) {
+            boolean found = false;
+            for (String taskToken : taskTokens) {
+                if (taskToken.startsWith(searchToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Minúsculas e sem acentos, para que "tarefa" encontre "Tarefá"
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public void onTaskInserted(int position, Task task) {
+        add(task);
+    }
+
+    @Override
+    public void onTaskChanged(int position, Task previous, Task task) {
+        remove(previous);
+        add(task);
+    }
+
+    @Override
+    public void onTaskRemoved(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task) {
+        remove(previous);
+        add(task);
+    }
+
+    @Override
+    public void onTasksReplaced() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        pending.clear();
+        completed.clear();
+        tasksByToken.clear();
+        for (Task task : taskStore.getTasks()) {
+            add(task);
+        }
+    }
+
+    private static boolean matchesFilter(Task task, Filter filter) {
+        switch (filter) {
+            case PENDING:
+                return !task.isCompleted();
+            case COMPLETED:
+                return task.isCompleted();
+            default:
+                return true;
+        }
+    }
+
+    private static boolean containedInAll(Task task, List<Collection<Set<Task>>> tokenSets) {
+        for (Collection<Set<Task>> sets : tokenSets) {
+            boolean found = false;
+            for (Set<Task> set : sets) {
+                if (set.contains(task)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Task task) {
+        (task.isCompleted() ? completed : pending).add(task);
+        for (String token : tokensOf(task)) {
+            Set<Task> set = tasksByToken.get(token);
+            if (set == null) {
+                set = new HashSet<>();
+                tasksByToken.put(token, set);
+            }
+            set.add(task);
+        }
+    }
+
+    private void remove(Task task) {
+        pending.remove(task);
+        completed.remove(task);
+        for (String token : tokensOf(task)) {
+            Set<Task> set = tasksByToken.get(token);
+            if (set != null && set.remove(task) && set.isEmpty()) {
+                tasksByToken.remove(token);
+            }
+        }
+    }
+
+    private static Set<String> tokensOf(Task task) {
+        Set<String> tokens = new HashSet<>(tokenize(task.getTitle()));
+        tokens.addAll(tokenize(task.getDescription()));
+        return tokens;
+    }
+}
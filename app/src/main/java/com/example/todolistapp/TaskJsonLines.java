@@ -0,0 +1,307 @@
+package com.example.todolistapp;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Uma tarefa por linha de JSON (NDJSON), com os nomes de campo do Realtime Database. Só objetos
+// planos: cada linha é lida e escrita sozinha, sem montar a lista inteira em memória.
+// Campos nulos ficam de fora; campos desconhecidos são ignorados na leitura.
+public final class TaskJsonLines {
+
+    static final String FIELD_ID = "id";
+
+    private TaskJsonLines() {
+    }
+
+    // A linha inclui o '\n' final
+    public static void write(Appendable out, Task task) throws IOException {
+        out.append('{');
+        appendString(out, FIELD_ID);
+        out.append(':');
+        appendString(out, task.getId());
+        appendField(out, Task.FIELD_TITLE, task.getTitle());
+        appendField(out, Task.FIELD_DESCRIPTION, task.getDescription());
+        out.append(",\"").append(Task.FIELD_COMPLETED).append("\":").append(task.isCompleted() ? "true" : "false");
+        appendField(out, Task.FIELD_CREATED_AT, task.getCreatedAt());
+        appendField(out, Task.FIELD_UPDATED_AT, task.getUpdatedAt());
+        appendField(out, Task.FIELD_DUE_AT, task.getDueAt());
+        out.append(",\"").append(Task.FIELD_PRIORITY).append("\":").append(Integer.toString(task.getPriority()));
+        appendField(out, Task.FIELD_REMINDER_AT, task.getReminderAt());
+        out.append("}\n");
+    }
+
+    // Null quando a linha não é um objeto de tarefa válido (sem id, tipo errado, JSON quebrado)
+    @Nullable
+    public static Task read(String line) {
+        try {
+            return new Parser(line).readTask();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void appendField(Appendable out, String name, @Nullable String value) throws IOException {
+        if (value != null) {
+            out.append(",\"").append(name).append("\":");
+            appendString(out, value);
+        }
+    }
+
+    private static void appendField(Appendable out, String name, @Nullable Long value) throws IOException {
+        if (value != null) {
+            out.append(",\"").append(name).append("\":").append(Long.toString(value));
+        }
+    }
+
+    // Quebras de linha sempre escapadas (inclusive U+2028/U+2029): uma descrição de várias linhas
+    // não parte o registro
+    private static void appendString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.append(String.format(Locale.US, "\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Task readTask() {
+            String id = null;
+            String title = null;
+            String description = null;
+            boolean completed = false;
+            Long createdAt = null;
+            Long updatedAt = null;
+            Long dueAt = null;
+            int priority = Task.PRIORITY_NONE;
+            Long reminderAt = null;
+
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String name = readString();
+                    expect(':');
+                    Object value = readValue();
+                    switch (name) {
+                        case FIELD_ID:
+                            id = asString(value);
+                            break;
+                        case Task.FIELD_TITLE:
+                            title = asString(value);
+                            break;
+                        case Task.FIELD_DESCRIPTION:
+                            description = asString(value);
+                            break;
+                        case Task.FIELD_COMPLETED:
+                            completed = Boolean.TRUE.equals(asBoolean(value));
+                            break;
+                        case Task.FIELD_CREATED_AT:
+                            createdAt = asLong(value);
+                            break;
+                        case Task.FIELD_UPDATED_AT:
+                            updatedAt = asLong(value);
+                            break;
+                        case Task.FIELD_DUE_AT:
+                            dueAt = asLong(value);
+                            break;
+                        case Task.FIELD_PRIORITY:
+                            Long level = asLong(value);
+                            priority = level == null ? Task.PRIORITY_NONE : level.intValue();
+                            break;
+                        case Task.FIELD_REMINDER_AT:
+                            reminderAt = asLong(value);
+                            break;
+                        default:
+                            break;
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            skipWhitespace();
+            if (position != text.length() || id == null || id.isEmpty()) {
+                throw new IllegalArgumentException();
+            }
+            return new Task(id, title, description, completed, createdAt, updatedAt, dueAt, priority, reminderAt);
+        }
+
+        private Object readValue() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw new IllegalArgumentException();
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                return readString();
+            }
+            if (text.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return readNumber();
+            }
+            // Objetos e listas aninhados não fazem parte do formato
+            throw new IllegalArgumentException();
+        }
+
+        private Object readNumber() {
+            int start = position;
+            boolean integral = true;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    integral = false;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                position++;
+            }
+            String number = text.substring(start, position);
+            try {
+                return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        out.append(escaped);
+                        break;
+                    case 'b':
+                        out.append('\b');
+                        break;
+                    case 'f':
+                        out.append('\f');
+                        break;
+                    case 'n':
+                        out.append('\n');
+                        break;
+                    case 'r':
+                        out.append('\r');
+                        break;
+                    case 't':
+                        out.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException();
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException(e);
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException();
+                }
+            }
+            throw new IllegalArgumentException();
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private static String asString(Object value) {
+            if (value == null || value instanceof String) {
+                return (String) value;
+            }
+            throw new IllegalArgumentException();
+        }
+
+        private static Boolean asBoolean(Object value) {
+            if (value == null || value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            throw new IllegalArgumentException();
+        }
+
+        private static Long asLong(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            throw new IllegalArgumentException();
+        }
+    }
+}
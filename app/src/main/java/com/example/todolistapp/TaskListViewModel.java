@@ -0,0 +1,38 @@
+package com.example.todolistapp;
+
+import androidx.lifecycle.ViewModel;
+
+// Mantém o TaskRepository vivo entre recriações da MainActivity (rotação, tema escuro)
+public class TaskListViewModel extends ViewModel {
+
+    public interface RepositoryFactory {
+        TaskRepository create(String userId);
+    }
+
+    private final RepositoryFactory repositoryFactory;
+    private TaskRepository repository;
+
+    public TaskListViewModel(RepositoryFactory repositoryFactory) {
+        this.repositoryFactory = repositoryFactory;
+    }
+
+    // Outro usuário na mesma tela (logout seguido de login) não herda as tarefas do anterior
+    public TaskRepository repositoryFor(String userId) {
+        if (repository != null && !repository.getUserId().equals(userId)) {
+            repository.close();
+            repository = null;
+        }
+        if (repository == null) {
+            repository = repositoryFactory.create(userId);
+        }
+        return repository;
+    }
+
+    @Override
+    protected void onCleared() {
+        if (repository != null) {
+            repository.close();
+            repository = null;
+        }
+    }
+}
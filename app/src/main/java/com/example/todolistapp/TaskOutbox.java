@@ -0,0 +1,233 @@
+package com.example.todolistapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Fila durável de escritas ainda não confirmadas pelo servidor, em um log só de acréscimos
+public class TaskOutbox {
+
+    private static final byte RECORD_WRITE = 1;
+    private static final byte RECORD_ACK = 2;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_STRING = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_MAP = 5;
+
+    private final File file;
+    private final Map<Long, Map<String, Object>> pending = new LinkedHashMap<>();
+    private long nextSequence = 1;
+
+    public TaskOutbox(File file) throws IOException {
+        this.file = file;
+        load();
+    }
+
+    public synchronized long append(Map<String, Object> updates) throws IOException {
+        long sequence = nextSequence++;
+        try (DataOutputStream out = openForAppend()) {
+            out.writeByte(RECORD_WRITE);
+            out.writeLong(sequence);
+            writeMap(out, updates);
+        }
+        pending.put(sequence, new LinkedHashMap<>(updates));
+        return sequence;
+    }
+
+    public synchronized void acknowledge(long sequence) throws IOException {
+        if (pending.remove(sequence) == null) {
+            return;
+        }
+        if (pending.isEmpty()) {
+            // Nada pendente: o log pode recomeçar vazio
+            new FileOutputStream(file).close();
+            return;
+        }
+        try (DataOutputStream out = openForAppend()) {
+            out.writeByte(RECORD_ACK);
+            out.writeLong(sequence);
+        }
+    }
+
+    public synchronized Map<Long, Map<String, Object>> getPending() {
+        return new LinkedHashMap<>(pending);
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+        file.delete();
+    }
+
+    private DataOutputStream openForAppend() throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+
+    private void load() throws IOException {
+        long complete = 0;
+        boolean truncated = false;
+        try (PositionInputStream position = new PositionInputStream(
+                new BufferedInputStream(new FileInputStream(file)), file.length());
+             DataInputStream in = new DataInputStream(position)) {
+            int type;
+            while ((type = in.read()) != -1) {
+                long sequence = in.readLong();
+                if (type == RECORD_WRITE) {
+                    pending.put(sequence, readMap(in, position));
+                } else if (type == RECORD_ACK) {
+                    pending.remove(sequence);
+                } else {
+                    throw new EOFException("Registro inválido na fila");
+                }
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                complete = position.position;
+            }
+        } catch (FileNotFoundException e) {
+            // Sem escritas pendentes
+        } catch (IOException | RuntimeException e) {
+            // Registro cortado no meio (processo morto durante a escrita) ou ilegível: vale o que
+            // veio antes dele
+            truncated = true;
+        }
+        if (truncated) {
+            // Sem isso, as próximas escritas seriam acrescentadas depois do pedaço inválido e lidas
+            // como parte dele na próxima abertura
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(complete);
+            }
+        }
+    }
+
+    private static void writeMap(DataOutputStream out, Map<?, ?> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            TaskDiskCache.writeString(out, String.valueOf(entry.getKey()));
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    // Tamanhos são conferidos contra o que resta do arquivo antes de alocar: um registro cortado
+    // pode trazer qualquer número
+    private static Map<String, Object> readMap(DataInputStream in, PositionInputStream position) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > position.remaining()) {
+            throw new EOFException("Tamanho inválido na fila");
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = readString(in, position);
+            map.put(key, readValue(in, position));
+        }
+        return map;
+    }
+
+    private static String readString(DataInputStream in, PositionInputStream position) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > position.remaining()) {
+            throw new EOFException("Tamanho inválido na fila");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            TaskDiskCache.writeString(out, (String) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            // Ex.: ServerValue.TIMESTAMP
+            out.writeByte(VALUE_MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else {
+            throw new IOException("Tipo não suportado na fila: " + value.getClass());
+        }
+    }
+
+    private static Object readValue(DataInputStream in, PositionInputStream position) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_STRING:
+                return readString(in, position);
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_MAP:
+                return readMap(in, position);
+            default:
+                throw new EOFException("Registro inválido na fila");
+        }
+    }
+
+    // Conta os bytes lidos, para saber onde termina o último registro completo
+    private static final class PositionInputStream extends FilterInputStream {
+
+        private final long length;
+        long position;
+
+        PositionInputStream(InputStream in, long length) {
+            super(in);
+            this.length = length;
+        }
+
+        long remaining() {
+            return length - position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                position++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
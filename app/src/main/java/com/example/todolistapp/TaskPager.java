@@ -0,0 +1,348 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+
+// Carrega tasks/<uid> em páginas por chave e mantém no TaskStore só uma janela delas.
+// Cada página é uma consulta "primeiras n chaves depois do cursor" com listener próprio.
+// Todos os métodos rodam no modelExecutor; os eventos do Firebase chegam por ele.
+public class TaskPager {
+
+    // Abre a consulta da página e entrega os eventos a ela
+    public interface PageSource {
+        ListenerRegistry.Subscription open(@Nullable String afterKey, int limit, Page page);
+    }
+
+    static final int PAGE_SIZE = 100;
+    static final int MAX_PAGES = 5;
+    // Linhas até a borda da janela que disparam a próxima página
+    static final int PREFETCH_DISTANCE = 30;
+
+    private final TaskStore taskStore;
+    private final Executor modelExecutor;
+    private final ListenerRegistry listenerRegistry;
+    private final PageSource pageSource;
+    private final TaskSyncListener.ErrorCallback errorCallback;
+    private final String keyPrefix;
+    private final int pageSize;
+    private final int maxPages;
+    private final int prefetchDistance;
+    // cursors.get(i): chave depois da qual a página i começa (null na primeira)
+    private final List<String> cursors = new ArrayList<>();
+    private final Map<Integer, Page> pages = new HashMap<>();
+    private final Map<String, Integer> holdersById = new HashMap<>();
+    private int firstPage;
+    private int lastPage = -1;
+    private Page loadingPage;
+    private Runnable pageLoadListener;
+    private PendingWrites pendingWrites;
+
+    public TaskPager(TaskStore taskStore, ListenerRegistry listenerRegistry, PageSource pageSource,
+                     String keyPrefix, TaskSyncListener.ErrorCallback errorCallback) {
+        this(taskStore, Runnable::run, listenerRegistry, pageSource, keyPrefix, errorCallback, PAGE_SIZE, MAX_PAGES);
+    }
+
+    public TaskPager(TaskStore taskStore, Executor modelExecutor, ListenerRegistry listenerRegistry,
+                     PageSource pageSource, String keyPrefix, TaskSyncListener.ErrorCallback errorCallback) {
+        this(taskStore, modelExecutor, listenerRegistry, pageSource, keyPrefix, errorCallback, PAGE_SIZE, MAX_PAGES);
+    }
+
+    TaskPager(TaskStore taskStore, ListenerRegistry listenerRegistry, PageSource pageSource,
+              String keyPrefix, TaskSyncListener.ErrorCallback errorCallback, int pageSize, int maxPages) {
+        this(taskStore, Runnable::run, listenerRegistry, pageSource, keyPrefix, errorCallback, pageSize, maxPages);
+    }
+
+    private TaskPager(TaskStore taskStore, Executor modelExecutor, ListenerRegistry listenerRegistry,
+                      PageSource pageSource, String keyPrefix, TaskSyncListener.ErrorCallback errorCallback,
+                      int pageSize, int maxPages) {
+        this.taskStore = taskStore;
+        this.modelExecutor = modelExecutor;
+        this.listenerRegistry = listenerRegistry;
+        this.pageSource = pageSource;
+        this.keyPrefix = keyPrefix;
+        this.errorCallback = errorCallback;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.prefetchDistance = Math.min(PREFETCH_DISTANCE, pageSize / 2);
+    }
+
+    // Como no TaskSyncListener: o evento de uma tarefa com escrita em voo não sobrescreve a versão local
+    public void setPendingWrites(PendingWrites pendingWrites) {
+        this.pendingWrites = pendingWrites;
+    }
+
+    public void setPageLoadListener(Runnable pageLoadListener) {
+        this.pageLoadListener = pageLoadListener;
+    }
+
+    // Reanexa as páginas da janela atual (o TaskRepository.stop() remove todas do ListenerRegistry)
+    public void start() {
+        if (lastPage < 0) {
+            cursors.add(null);
+            firstPage = 0;
+            lastPage = 0;
+        }
+        for (int index = firstPage; index <= lastPage; index++) {
+            Page page = pages.get(index);
+            if (page == null) {
+                page = new Page(index);
+                pages.put(index, page);
+            }
+            subscribe(page);
+        }
+    }
+
+    // Chamado no scroll com as tarefas nas bordas da área visível
+    public void onVisibleRange(String firstVisibleId, String lastVisibleId) {
+        int first = taskStore.indexOf(firstVisibleId);
+        int last = taskStore.indexOf(lastVisibleId);
+        if (last >= 0 && last >= taskStore.size() - prefetchDistance) {
+            loadNext();
+        } else if (first >= 0 && first < prefetchDistance) {
+            loadPrevious();
+        }
+    }
+
+    public boolean loadNext() {
+        if (loadingPage != null || lastPage < 0) {
+            return false;
+        }
+        int next = lastPage + 1;
+        if (next >= cursors.size()) {
+            Page tail = pages.get(lastPage);
+            // Página incompleta: é o fim do nó, e ela mesma recebe as tarefas novas. As marcas de
+            // exclusão também ocupam o limitToFirst, então contam aqui e podem ser o cursor.
+            if (tail.keys.size() < pageSize) {
+                return false;
+            }
+            cursors.add(tail.keys.last());
+        }
+        lastPage = next;
+        openPage(next);
+        if (lastPage - firstPage + 1 > maxPages) {
+            evict(firstPage++);
+        }
+        return true;
+    }
+
+    public boolean loadPrevious() {
+        if (loadingPage != null || firstPage == 0) {
+            return false;
+        }
+        firstPage--;
+        openPage(firstPage);
+        if (lastPage - firstPage + 1 > maxPages) {
+            evict(lastPage--);
+        }
+        return true;
+    }
+
+    public boolean isLoading() {
+        return loadingPage != null;
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public int getLastPage() {
+        return lastPage;
+    }
+
+    private void openPage(int index) {
+        Page page = new Page(index);
+        pages.put(index, page);
+        subscribe(page);
+    }
+
+    private void subscribe(Page page) {
+        if (!page.loaded) {
+            loadingPage = page;
+        }
+        listenerRegistry.subscribe(key(page.index), pageSource.open(cursors.get(page.index), pageSize, page));
+    }
+
+    private void evict(int index) {
+        listenerRegistry.unsubscribe(key(index));
+        Page page = pages.remove(index);
+        if (page == null) {
+            return;
+        }
+        if (loadingPage == page) {
+            loadingPage = null;
+        }
+        List<String> released = new ArrayList<>();
+        for (String id : page.ids) {
+            if (release(id)) {
+                released.add(id);
+            }
+        }
+        taskStore.removeAll(released);
+    }
+
+    private String key(int index) {
+        return keyPrefix + "/page/" + index;
+    }
+
+    private void retain(String id) {
+        Integer holders = holdersById.get(id);
+        holdersById.put(id, holders == null ? 1 : holders + 1);
+    }
+
+    // Páginas vizinhas podem se sobrepor quando uma tarefa é apagada; só sai do modelo sem dono
+    private boolean release(String id) {
+        Integer holders = holdersById.get(id);
+        if (holders == null) {
+            return false;
+        }
+        if (holders > 1) {
+            holdersById.put(id, holders - 1);
+            return false;
+        }
+        holdersById.remove(id);
+        return true;
+    }
+
+    public final class Page implements ChildEventListener {
+
+        final int index;
+        final TreeSet<String> ids = new TreeSet<>();
+        // Todos os filhos que a consulta trouxe, inclusive marcas de exclusão
+        final TreeSet<String> keys = new TreeSet<>();
+        private final Set<String> unconfirmedIds = new HashSet<>();
+        private boolean loaded;
+
+        Page(int index) {
+            this.index = index;
+        }
+
+        // Mesma reconciliação do TaskSyncListener, restrita às tarefas desta página
+        void beginLoad() {
+            unconfirmedIds.clear();
+            unconfirmedIds.addAll(keys);
+        }
+
+        void endLoad() {
+            for (String id : new ArrayList<>(unconfirmedIds)) {
+                applyRemoval(id);
+            }
+            loaded = true;
+            if (loadingPage == this) {
+                loadingPage = null;
+            }
+            if (pageLoadListener != null) {
+                pageLoadListener.run();
+            }
+        }
+
+        // Fim da carga inicial, vindo do Firebase na thread principal
+        public void onLoaded() {
+            modelExecutor.execute(this::endLoad);
+        }
+
+        public void onLoadCancelled() {
+            modelExecutor.execute(this::cancelLoad);
+        }
+
+        void cancelLoad() {
+            unconfirmedIds.clear();
+            if (loadingPage == this) {
+                loadingPage = null;
+            }
+        }
+
+        void applyTask(Task task) {
+            if (pages.get(index) != this) {
+                return;
+            }
+            unconfirmedIds.remove(task.getId());
+            keys.add(task.getId());
+            if (ids.add(task.getId())) {
+                retain(task.getId());
+            }
+            if (pendingWrites != null) {
+                pendingWrites.upsertRemote(task);
+            } else {
+                taskStore.upsert(task);
+            }
+        }
+
+        // Marca de exclusão: some do modelo, mas continua ocupando um lugar na página
+        void applyTombstone(String id) {
+            if (pages.get(index) != this) {
+                return;
+            }
+            keys.add(id);
+            removeTask(id);
+        }
+
+        // O filho saiu da janela da consulta
+        void applyRemoval(String id) {
+            if (pages.get(index) != this) {
+                return;
+            }
+            keys.remove(id);
+            removeTask(id);
+        }
+
+        private void removeTask(String id) {
+            unconfirmedIds.remove(id);
+            if (ids.remove(id) && release(id)) {
+                if (pendingWrites != null) {
+                    pendingWrites.removeRemote(id);
+                } else {
+                    taskStore.remove(id);
+                }
+            }
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            modelExecutor.execute(() -> applySnapshot(snapshot));
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            modelExecutor.execute(() -> applySnapshot(snapshot));
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            String id = snapshot.getKey();
+            modelExecutor.execute(() -> applyRemoval(id));
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            modelExecutor.execute(() -> applySnapshot(snapshot));
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            modelExecutor.execute(this::cancelLoad);
+            errorCallback.onSyncError(error);
+        }
+
+        private void applySnapshot(DataSnapshot snapshot) {
+            Task task = TaskCodec.fromSnapshot(snapshot);
+            if (task != null) {
+                applyTask(task);
+            } else {
+                applyTombstone(snapshot.getKey());
+            }
+        }
+    }
+}
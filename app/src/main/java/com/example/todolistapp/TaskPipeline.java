@@ -0,0 +1,111 @@
+package com.example.todolistapp;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Thread única de processamento dos dados: os snapshots do Firebase são decodificados e aplicados
+// no TaskStore aqui, e a TaskView monta as listas aqui. A thread principal só recebe a lista pronta.
+// TaskStore, TaskIndex, TaskView, TaskWriter e TaskPager devem ser usados apenas por esta thread.
+public class TaskPipeline implements Executor {
+
+    private final ScheduledExecutorService worker;
+    private final Executor mainThread;
+
+    public TaskPipeline(Executor mainThread) {
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "task-pipeline"));
+        this.mainThread = mainThread;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        // Callbacks atrasados depois do onDestroy não têm mais modelo para atualizar
+        if (!worker.isShutdown()) {
+            worker.execute(rethrowOnMainThread(command));
+        }
+    }
+
+    // Publicação da TaskView e janela de agrupamento do TaskWriter, na mesma thread do modelo
+    public Scheduler scheduler() {
+        return (runnable, delayMillis) -> {
+            if (!worker.isShutdown()) {
+                worker.schedule(rethrowOnMainThread(runnable), delayMillis, TimeUnit.MILLISECONDS);
+            }
+        };
+    }
+
+    // Entrega as listas da TaskView na thread principal, só a mais recente
+    public TaskView.Listener deliverOnMainThread(TaskView.Listener listener) {
+        return new MainThreadHandoff(listener, mainThread);
+    }
+
+    // O que já está na fila (ex.: escritas do flushAll no onStop) ainda roda
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    // O executor guardaria a exceção num Future que ninguém lê; na thread principal o erro aparece
+    private Runnable rethrowOnMainThread(Runnable command) {
+        return () -> {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                mainThread.execute(() -> {
+                    throw e;
+                });
+            }
+        };
+    }
+
+    // Uma lista ainda não entregue é substituída pela nova: a thread principal nunca processa
+    // uma versão velha. O diff que já estiver rodando é descartado pelo AsyncListDiffer.
+    static final class MainThreadHandoff implements TaskView.Listener {
+
+        private final TaskView.Listener listener;
+        private final Executor mainThread;
+        private List<Task> pending;
+        private boolean pendingViewSwitched;
+        private boolean posted;
+        private long dropped;
+
+        MainThreadHandoff(TaskView.Listener listener, Executor mainThread) {
+            this.listener = listener;
+            this.mainThread = mainThread;
+        }
+
+        @Override
+        public synchronized void onTasksChanged(List<Task> snapshot, boolean viewSwitched) {
+            if (pending != null) {
+                dropped++;
+            }
+            pending = snapshot;
+            // Uma troca de filtro descartada ainda vale para a lista que a substitui
+            pendingViewSwitched |= viewSwitched;
+            if (!posted) {
+                posted = true;
+                mainThread.execute(this::deliver);
+            }
+        }
+
+        synchronized long getDroppedCount() {
+            return dropped;
+        }
+
+        private void deliver() {
+            List<Task> snapshot;
+            boolean viewSwitched;
+            synchronized (this) {
+                snapshot = pending;
+                viewSwitched = pendingViewSwitched;
+                pending = null;
+                pendingViewSwitched = false;
+                posted = false;
+            }
+            if (snapshot != null) {
+                listener.onTasksChanged(snapshot, viewSwitched);
+            }
+        }
+    }
+}
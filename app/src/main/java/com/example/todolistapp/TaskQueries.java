@@ -0,0 +1,65 @@
+package com.example.todolistapp;
+
+import com.google.firebase.database.Query;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+// Consultas por faixa de tarefas pendentes, resolvidas no servidor pelos índices de
+// database.rules.json (.indexOn). Só o recorte pedido trafega, não o nó inteiro.
+public final class TaskQueries {
+
+    public enum Slice {
+        DUE_TODAY,
+        OVERDUE,
+        TOP_PRIORITY
+    }
+
+    // Teto de cada recorte; uma lista maior que isso já não cabe na tela de um jeito útil
+    static final int SLICE_LIMIT = 200;
+
+    private TaskQueries() {
+    }
+
+    public static Query forSlice(Query tasks, Slice slice, long now, TimeZone zone) {
+        switch (slice) {
+            case DUE_TODAY:
+                return dueToday(tasks, now, zone);
+            case OVERDUE:
+                return overdue(tasks, now);
+            case TOP_PRIORITY:
+                return topPriorityPending(tasks);
+            default:
+                throw new IllegalArgumentException("Recorte desconhecido: " + slice);
+        }
+    }
+
+    // Prazo entre a meia-noite de hoje e a de amanhã, no fuso do aparelho
+    public static Query dueToday(Query tasks, long now, TimeZone zone) {
+        long[] day = dayBounds(now, zone);
+        return tasks.orderByChild(Task.FIELD_PENDING_DUE_AT).startAt(day[0]).endBefore(day[1]).limitToFirst(SLICE_LIMIT);
+    }
+
+    // Os mais atrasados primeiro; startAt(0) deixa de fora as tarefas sem prazo (null)
+    public static Query overdue(Query tasks, long now) {
+        return tasks.orderByChild(Task.FIELD_PENDING_DUE_AT).startAt(0).endBefore(now).limitToFirst(SLICE_LIMIT);
+    }
+
+    // As de maior prioridade; o servidor devolve em ordem crescente, quem exibe inverte
+    public static Query topPriorityPending(Query tasks) {
+        return tasks.orderByChild(Task.FIELD_PENDING_PRIORITY).startAt(Task.PRIORITY_LOW).limitToLast(SLICE_LIMIT);
+    }
+
+    // [início do dia, início do dia seguinte) em milissegundos; o horário de verão muda a duração
+    static long[] dayBounds(long now, TimeZone zone) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        long start = calendar.getTimeInMillis();
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return new long[]{start, calendar.getTimeInMillis()};
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todolistapp;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+// Escritas multi-caminho relativas ao nó tasks/<uid>
+public interface TaskRemote {
+
+    interface Callback {
+        void onComplete(@Nullable Exception error);
+    }
+
+    void updateChildren(Map<String, Object> updates, Callback callback);
+}
@@ -0,0 +1,677 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tarefas de um usuário: assinatura do Firebase, modelo em memória, cache local e escritas.
+// Vive no TaskListViewModel, então uma rotação só religa a tela ao que já está carregado.
+// Os métodos públicos são chamados da thread principal; o modelo roda no TaskPipeline.
+public class TaskRepository {
+
+    // Abre a assinatura do nó de tarefas, entregando os eventos ao listener: completa com
+    // since == 0, ou só dos filhos com updatedAt >= since
+    public interface SyncSource {
+        ListenerRegistry.Subscription open(TaskSyncListener listener, long since);
+    }
+
+    // Assinatura de um recorte consultado no servidor (ver TaskQueries)
+    public interface SliceSource {
+        ListenerRegistry.Subscription open(TaskQueries.Slice slice, long now, SliceListener listener);
+    }
+
+    public interface SliceListener {
+        // Chamado na thread do pipeline, com as tarefas já na ordem de exibição
+        void onSliceLoaded(List<Task> tasks);
+
+        void onSliceCancelled(DatabaseError error);
+    }
+
+    public interface InitialLoadListener {
+        // Chamado na thread do pipeline
+        void onInitialLoad(int taskCount);
+    }
+
+    public interface RemovedIdsCallback {
+        void onRemoved(List<String> ids);
+    }
+
+    private static final String TAG = "TaskRepository";
+    // Acima disso a sincronização completa pesa demais; a próxima sessão carrega por páginas
+    static final int PAGED_LOAD_THRESHOLD = 5_000;
+    private static final String SLICE_KEY = "slice";
+    // O arquivamento espera a tela inicial e a primeira sincronização
+    static final long ARCHIVE_DELAY_MS = 10_000;
+
+    private final String userId;
+    private final Executor mainThread;
+    private final TaskPipeline pipeline;
+    private final TaskStore taskStore = new TaskStore();
+    private final TaskView taskView;
+    private final TaskSyncListener taskSyncListener;
+    private final TaskWriter taskWriter;
+    private final TaskRemote remote;
+    private final ListenerRegistry listenerRegistry = new ListenerRegistry();
+    private final SyncSource syncSource;
+    private final String syncKey;
+    private final TaskPager taskPager;
+    private final TaskDiskCache taskDiskCache;
+    private final SliceSource sliceSource;
+    // Meses do arquivo já lidos; separados do modelo sincronizado, do cache em disco e do TaskWriter
+    private final TaskStore archiveStore = new TaskStore(TaskArchiver.NEWEST_FIRST);
+    private final TaskView archiveView;
+    private final TaskArchiver taskArchiver;
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    private final long createdAtMillis = SystemClock.uptimeMillis();
+    private TaskView.Listener listener;
+    private List<Task> latest = Collections.emptyList();
+    private List<Task> viewLatest = Collections.emptyList();
+    private List<Task> archiveLatest = Collections.emptyList();
+    private TaskIndex.Filter filter = TaskIndex.Filter.ALL;
+    private boolean archiveShown;
+    private boolean archiveScheduled;
+    private TaskQueries.Slice slice;
+    private int sliceGeneration;
+    private Runnable pageLoadListener;
+    private TaskWriter.FailureListener writeFailureListener;
+    private TaskSyncListener.ErrorCallback syncErrorListener;
+    private InitialLoadListener initialLoadListener;
+    private volatile String pendingSearch = "";
+    private boolean started;
+    private boolean cacheLoaded;
+    private int fetchCount;
+    private int deltaFetchCount;
+
+    // pageSource != null: conta grande, só a janela de páginas fica em memória (e sem cache em disco).
+    // archiveSource != null: concluídas paradas há mais de archiveAfterMillis vão para o arquivo.
+    TaskRepository(String userId, TaskPipeline pipeline, Executor mainThread, TaskRemote remote, SyncSource syncSource,
+                   @Nullable TaskPager.PageSource pageSource, @Nullable SliceSource sliceSource,
+                   @Nullable TaskDiskCache taskDiskCache, @Nullable TaskArchiver.ArchiveSource archiveSource,
+                   long archiveAfterMillis) {
+        this.userId = userId;
+        this.sliceSource = sliceSource;
+        this.syncSource = syncSource;
+        this.pipeline = pipeline;
+        this.mainThread = mainThread;
+        this.remote = remote;
+        this.taskDiskCache = pageSource == null ? taskDiskCache : null;
+        this.cacheLoaded = this.taskDiskCache == null;
+        this.syncKey = "tasks/" + userId;
+        // Só há um repositório ativo por vez; o de outro usuário substitui este medidor
+        Metrics.get().registerGauge(Metrics.LISTENERS_ACTIVE, listenerRegistry::getActiveCount);
+
+        taskView = new TaskView(taskStore, new TaskIndex(taskStore), pipeline.scheduler());
+        taskView.setListener(pipeline.deliverOnMainThread(this::onTasksPublished));
+
+        taskSyncListener = new TaskSyncListener(taskStore, pipeline, this::onSyncError);
+        taskSyncListener.setInitialLoadListener(() -> {
+            Log.d(TAG, "Lista sincronizada com o Firebase em "
+                    + (SystemClock.uptimeMillis() - createdAtMillis) + " ms (" + taskStore.size() + " tarefas)");
+            if (initialLoadListener != null) {
+                initialLoadListener.onInitialLoad(taskStore.size());
+            }
+        });
+
+        taskPager = pageSource == null ? null : new TaskPager(taskStore, pipeline, listenerRegistry, pageSource, syncKey,
+                this::onSyncError);
+        if (taskPager != null) {
+            taskPager.setPageLoadListener(() -> mainThread.execute(() -> {
+                if (pageLoadListener != null) {
+                    pageLoadListener.run();
+                }
+            }));
+        }
+
+        taskWriter = new TaskWriter(taskStore, remote, pipeline.scheduler());
+        taskSyncListener.setTombstoneListener(taskWriter::purgeTombstones);
+        // Criar, editar e apagar aparecem na hora; os eventos do Firebase não passam por cima
+        // de uma escrita sem resposta, e uma recusa devolve a tarefa ao estado do servidor
+        taskSyncListener.setPendingWrites(taskWriter.getPendingWrites());
+        if (taskPager != null) {
+            taskPager.setPendingWrites(taskWriter.getPendingWrites());
+        }
+        taskWriter.setFailureListener((taskId, error) -> mainThread.execute(() -> {
+            if (writeFailureListener != null) {
+                writeFailureListener.onWriteFailed(taskId, error);
+            }
+        }));
+
+        if (archiveSource != null) {
+            taskArchiver = new TaskArchiver(archiveSource, archiveStore, taskWriter.getPendingWrites(),
+                    pipeline.scheduler(), archiveAfterMillis);
+            archiveView = new TaskView(archiveStore, new TaskIndex(archiveStore), pipeline.scheduler());
+            archiveView.setListener(pipeline.deliverOnMainThread(this::onArchivePublished));
+            // Um mês que não enche a tela chama o próximo, como as páginas do TaskPager
+            taskArchiver.setMonthLoadListener(() -> mainThread.execute(() -> {
+                if (pageLoadListener != null) {
+                    pageLoadListener.run();
+                }
+            }));
+        } else {
+            taskArchiver = null;
+            archiveView = null;
+        }
+    }
+
+    // Firebase, fila de escritas e cache em disco do usuário, no armazenamento privado do app
+    public static TaskRepository forUser(Context context, String userId) {
+        Context appContext = context.getApplicationContext();
+        DatabaseReference databaseReference = FirebaseDatabase.getInstance().getReference("tasks").child(userId);
+        SharedPreferences syncPreferences = appContext.getSharedPreferences("task_sync", Context.MODE_PRIVATE);
+        boolean pagedLoading = syncPreferences.getBoolean("paged_" + userId, false);
+
+        TaskRemote remote = new FirebaseTaskRemote(databaseReference);
+        try {
+            remote = new OutboxTaskRemote(remote, new TaskOutbox(new File(appContext.getFilesDir(), "outbox-" + userId + ".log")));
+        } catch (IOException e) {
+            Log.w(TAG, "Fila de escritas indisponível", e);
+        }
+
+        Handler handler = new Handler(Looper.getMainLooper());
+        TaskPipeline pipeline = new TaskPipeline(handler::post);
+        TaskRepository repository = new TaskRepository(userId, pipeline, handler::post, remote,
+                (listener, since) -> listener.subscriptionFor(databaseReference, since),
+                pagedLoading ? new FirebaseTaskPageSource(databaseReference) : null,
+                new FirebaseTaskSliceSource(databaseReference, pipeline),
+                new TaskDiskCache(new File(appContext.getFilesDir(), "tasks-" + userId + ".bin")),
+                new FirebaseTaskArchive(FirebaseDatabase.getInstance().getReference(), userId, pipeline),
+                syncPreferences.getLong("archive_after_ms", TaskArchiver.DEFAULT_ARCHIVE_AFTER_MS));
+        repository.setInitialLoadListener(taskCount -> {
+            if (taskCount > PAGED_LOAD_THRESHOLD) {
+                syncPreferences.edit().putBoolean("paged_" + userId, true).apply();
+            }
+        });
+        repository.taskArchiver.setCursorStore(archiveCursorStore(syncPreferences, userId));
+        return repository;
+    }
+
+    private static TaskArchiver.CursorStore archiveCursorStore(SharedPreferences preferences, String userId) {
+        String keyName = "archive_cursor_key_" + userId;
+        String updatedAtName = "archive_cursor_at_" + userId;
+        return new TaskArchiver.CursorStore() {
+            @Override
+            public TaskArchiver.ScanCursor load() {
+                String key = preferences.getString(keyName, null);
+                if (key == null) {
+                    return null;
+                }
+                return new TaskArchiver.ScanCursor(preferences.contains(updatedAtName)
+                        ? preferences.getLong(updatedAtName, 0) : null, key);
+            }
+
+            @Override
+            public void save(TaskArchiver.ScanCursor cursor) {
+                SharedPreferences.Editor editor = preferences.edit().putString(keyName, cursor.key);
+                if (cursor.updatedAt == null) {
+                    editor.remove(updatedAtName);
+                } else {
+                    editor.putLong(updatedAtName, cursor.updatedAt);
+                }
+                editor.apply();
+            }
+        };
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    // A tela recebe na hora a última lista publicada; depois, cada nova versão
+    public void setListener(@Nullable TaskView.Listener listener) {
+        this.listener = listener;
+        if (listener != null) {
+            listener.onTasksChanged(latest, false);
+        }
+    }
+
+    public void setPageLoadListener(@Nullable Runnable pageLoadListener) {
+        this.pageLoadListener = pageLoadListener;
+    }
+
+    public void setWriteFailureListener(@Nullable TaskWriter.FailureListener writeFailureListener) {
+        this.writeFailureListener = writeFailureListener;
+    }
+
+    // Chamado na thread principal quando o Firebase cancela a assinatura (ex.: permissão negada)
+    public void setSyncErrorListener(@Nullable TaskSyncListener.ErrorCallback syncErrorListener) {
+        this.syncErrorListener = syncErrorListener;
+    }
+
+    public void setInitialLoadListener(@Nullable InitialLoadListener initialLoadListener) {
+        this.initialLoadListener = initialLoadListener;
+    }
+
+    // Leituras completas do nó feitas até agora
+    public int getFetchCount() {
+        return fetchCount;
+    }
+
+    // Assinaturas que pediram só o que mudou desde a anterior
+    public int getDeltaFetchCount() {
+        return deltaFetchCount;
+    }
+
+    public boolean isPaged() {
+        return taskPager != null;
+    }
+
+    // Concluídas ou busca na tela: a lista continua pelos meses do arquivo ao rolar
+    public boolean isArchiveShown() {
+        return archiveShown;
+    }
+
+    // Conta criada agora (SessionBootstrap): sem cache em disco para ler antes da assinatura
+    // e sem concluídas antigas para arquivar nesta sessão. Antes do start().
+    void markNewAccount() {
+        cacheLoaded = true;
+        archiveScheduled = true;
+    }
+
+    // Chamadas repetidas (ex.: activity recriada) não assinam de novo
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        subscribe();
+        if (slice != null) {
+            subscribeSlice();
+        }
+        scheduleArchiving();
+    }
+
+    // Uma passada por processo; a migração de uma conta antiga continua nas sessões seguintes
+    // se for interrompida
+    private void scheduleArchiving() {
+        if (taskArchiver == null || archiveScheduled) {
+            return;
+        }
+        archiveScheduled = true;
+        pipeline.scheduler().schedule(() -> taskArchiver.archiveOld(System.currentTimeMillis()), ARCHIVE_DELAY_MS);
+    }
+
+    // App em segundo plano: solta os listeners e guarda o modelo no disco
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        listenerRegistry.unsubscribeAll();
+        pipeline.execute(taskWriter::flushAll);
+        if (taskDiskCache != null && cacheLoaded) {
+            pipeline.execute(() -> {
+                List<Task> snapshot = new ArrayList<>(taskStore.getTasks());
+                // Lido na mesma thread que aplica os eventos: descreve exatamente este snapshot
+                long watermark = taskSyncListener.getWatermark();
+                ioExecutor.execute(() -> {
+                    try {
+                        taskDiskCache.write(snapshot, watermark);
+                    } catch (IOException e) {
+                        Log.w(TAG, "Falha ao salvar cache de tarefas", e);
+                    }
+                });
+            });
+        }
+    }
+
+    // Fim do ViewModel; o pipeline termina o que está na fila (escritas, cache) antes de parar
+    public void close() {
+        stop();
+        listener = null;
+        pageLoadListener = null;
+        writeFailureListener = null;
+        syncErrorListener = null;
+        pipeline.execute(ioExecutor::shutdown);
+        pipeline.shutdown();
+    }
+
+    private void subscribe() {
+        if (taskPager != null) {
+            pipeline.execute(taskPager::start);
+        } else if (!cacheLoaded) {
+            loadCachedTasks();
+            return;
+        } else {
+            subscribeSync();
+        }
+        if (remote instanceof OutboxTaskRemote) {
+            OutboxTaskRemote outboxTaskRemote = (OutboxTaskRemote) remote;
+            pipeline.execute(outboxTaskRemote::replayPending);
+        }
+    }
+
+    // Com um watermark (sessão anterior ou cache em disco) o Firebase só envia o que mudou desde
+    // ele; sem, ou parado há mais tempo que a validade das marcas de exclusão, o nó inteiro
+    private void subscribeSync() {
+        long since = taskSyncListener.deltaStart(System.currentTimeMillis());
+        ListenerRegistry.Subscription subscription = syncSource.open(taskSyncListener, since);
+        listenerRegistry.subscribe(syncKey, new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                if (since > 0) {
+                    deltaFetchCount++;
+                } else {
+                    fetchCount++;
+                }
+                subscription.attach();
+            }
+
+            @Override
+            public void detach() {
+                subscription.detach();
+            }
+        });
+    }
+
+    // Desenha a partir do disco e só depois reconcilia com o Firebase em segundo plano
+    private void loadCachedTasks() {
+        ioExecutor.execute(() -> {
+            List<Task> cached;
+            long watermark;
+            try {
+                watermark = taskDiskCache.readWatermark();
+                cached = taskDiskCache.read();
+            } catch (IOException e) {
+                Log.w(TAG, "Cache de tarefas ilegível", e);
+                watermark = 0;
+                cached = new ArrayList<>();
+            }
+            List<Task> tasks = cached;
+            // Antes de voltar à thread principal, que decide entre a assinatura completa e a incremental
+            taskSyncListener.setWatermark(watermark);
+            // A assinatura feita a seguir entra na fila do pipeline depois desta carga
+            pipeline.execute(() -> taskStore.replaceAll(tasks));
+            mainThread.execute(() -> {
+                cacheLoaded = true;
+                Log.d(TAG, "Primeira linha a partir do cache em " + (SystemClock.uptimeMillis() - createdAtMillis)
+                        + " ms (" + tasks.size() + " tarefas)");
+                if (started) {
+                    subscribe();
+                }
+            });
+        });
+    }
+
+    private void onSyncError(@NonNull DatabaseError error) {
+        Log.w(TAG, "Sincronização cancelada: " + error.getMessage());
+        if (syncErrorListener != null) {
+            syncErrorListener.onSyncError(error);
+        }
+    }
+
+    private void onTasksPublished(List<Task> snapshot, boolean viewSwitched) {
+        viewLatest = snapshot;
+        // Com um recorte na tela, a lista local continua atualizada para quando ele sair
+        if (slice == null) {
+            publish(visible(), viewSwitched);
+        }
+    }
+
+    private void onArchivePublished(List<Task> snapshot, boolean viewSwitched) {
+        archiveLatest = snapshot;
+        // Um mês a mais no fim da lista não a leva de volta ao topo
+        if (slice == null && archiveShown) {
+            publish(visible(), false);
+        }
+    }
+
+    // As tarefas arquivadas vêm depois das do nó quente, das mais recentes para as mais antigas
+    private List<Task> visible() {
+        if (!archiveShown || archiveLatest.isEmpty()) {
+            return viewLatest;
+        }
+        List<Task> visible = new ArrayList<>(viewLatest.size() + archiveLatest.size());
+        visible.addAll(viewLatest);
+        visible.addAll(archiveLatest);
+        return Collections.unmodifiableList(visible);
+    }
+
+    // O arquivo só tem concluídas: entra no filtro de concluídas e nas buscas que as incluem
+    private void updateArchiveShown() {
+        boolean shown = taskArchiver != null && filter != TaskIndex.Filter.PENDING
+                && (filter == TaskIndex.Filter.COMPLETED || !pendingSearch.trim().isEmpty());
+        if (shown == archiveShown) {
+            return;
+        }
+        archiveShown = shown;
+        if (shown) {
+            pipeline.execute(() -> {
+                if (archiveStore.size() == 0) {
+                    taskArchiver.loadOlderMonth();
+                }
+            });
+        }
+        if (slice == null) {
+            publish(visible(), false);
+        }
+    }
+
+    private void publish(List<Task> snapshot, boolean viewSwitched) {
+        latest = snapshot;
+        if (listener != null) {
+            listener.onTasksChanged(snapshot, viewSwitched);
+        }
+    }
+
+    // Filtro e busca rodam sobre o modelo já sincronizado, sem consulta ao servidor
+    public void setFilter(TaskIndex.Filter filter) {
+        this.filter = filter;
+        if (slice != null) {
+            slice = null;
+            sliceGeneration++;
+            listenerRegistry.unsubscribe(SLICE_KEY);
+            publish(visible(), true);
+        }
+        pipeline.execute(() -> {
+            taskView.setFilter(filter);
+            if (archiveView != null) {
+                archiveView.setFilter(filter);
+            }
+        });
+        updateArchiveShown();
+    }
+
+    // Recorte do servidor no lugar da lista filtrada localmente, inclusive no modo paginado,
+    // em que o modelo só tem a janela visível; setFilter volta para a lista local
+    public void showSlice(TaskQueries.Slice slice) {
+        if (sliceSource == null) {
+            return;
+        }
+        this.slice = slice;
+        sliceGeneration++;
+        listenerRegistry.unsubscribe(SLICE_KEY);
+        if (started) {
+            subscribeSlice();
+        }
+    }
+
+    @Nullable
+    public TaskQueries.Slice getSlice() {
+        return slice;
+    }
+
+    // "Agora" fica fixo na assinatura: uma tarefa que atrasa com a tela aberta entra na próxima
+    private void subscribeSlice() {
+        int generation = sliceGeneration;
+        boolean[] first = {true};
+        listenerRegistry.subscribe(SLICE_KEY, sliceSource.open(slice, System.currentTimeMillis(), new SliceListener() {
+            @Override
+            public void onSliceLoaded(List<Task> tasks) {
+                mainThread.execute(() -> {
+                    // Resposta de um recorte que já saiu da tela
+                    if (generation == sliceGeneration) {
+                        publish(tasks, first[0]);
+                        first[0] = false;
+                    }
+                });
+            }
+
+            @Override
+            public void onSliceCancelled(DatabaseError error) {
+                mainThread.execute(() -> onSyncError(error));
+            }
+        }));
+    }
+
+    // Digitação rápida enfileira várias buscas; cada uma aplica só o texto mais recente,
+    // e as que ficaram para trás não refazem a consulta (setSearch ignora repetidos)
+    public void setSearch(String search) {
+        pendingSearch = search;
+        pipeline.execute(() -> {
+            String latestSearch = pendingSearch;
+            taskView.setSearch(latestSearch);
+            if (archiveView != null) {
+                archiveView.setSearch(latestSearch);
+            }
+        });
+        updateArchiveShown();
+    }
+
+    public void onVisibleRange(String firstVisibleId, String lastVisibleId) {
+        if (taskPager != null) {
+            pipeline.execute(() -> taskPager.onVisibleRange(firstVisibleId, lastVisibleId));
+        }
+    }
+
+    public void loadNextPage() {
+        if (taskPager != null) {
+            pipeline.execute(taskPager::loadNext);
+        }
+        if (archiveShown) {
+            pipeline.execute(taskArchiver::loadOlderMonth);
+        }
+    }
+
+    public void create(Task task, TaskRemote.Callback callback) {
+        pipeline.execute(() -> taskWriter.create(task, onMainThread(callback)));
+    }
+
+    // Uma tarefa arquivada editada ou reaberta volta ao nó quente
+    public void write(Task task, TaskRemote.Callback callback) {
+        pipeline.execute(() -> {
+            if (isArchived(task.getId())) {
+                taskArchiver.restore(task, onMainThread(callback));
+            } else {
+                taskWriter.write(task, onMainThread(callback));
+            }
+        });
+    }
+
+    // Cliques repetidos na mesma tarefa viram uma única escrita
+    public void enqueue(Task task) {
+        pipeline.execute(() -> {
+            if (isArchived(task.getId())) {
+                taskArchiver.restore(task, null);
+            } else {
+                taskWriter.enqueue(task);
+            }
+        });
+    }
+
+    public void delete(String id, TaskRemote.Callback callback) {
+        pipeline.execute(() -> {
+            if (isArchived(id)) {
+                taskArchiver.delete(id, onMainThread(callback));
+            } else {
+                taskWriter.delete(id, onMainThread(callback));
+            }
+        });
+    }
+
+    // Arquivadas já estão concluídas; reabri-las as traz de volta ao nó quente
+    public void completeAll(Collection<String> ids, boolean completed, TaskRemote.Callback callback) {
+        pipeline.execute(() -> {
+            List<String> archived = archivedAmong(ids);
+            List<String> hot = new ArrayList<>(ids);
+            hot.removeAll(archived);
+            boolean restoring = !completed && !archived.isEmpty();
+            boolean writing = !hot.isEmpty() || !restoring;
+            TaskRemote.Callback done = onMainThread(joined(restoring && writing ? 2 : 1, callback));
+            if (restoring) {
+                taskArchiver.restoreAll(archived, done);
+            }
+            if (writing) {
+                taskWriter.completeAll(hot, completed, done);
+            }
+        });
+    }
+
+    public void deleteAll(Collection<String> ids, TaskRemote.Callback callback) {
+        pipeline.execute(() -> {
+            List<String> archived = archivedAmong(ids);
+            List<String> hot = new ArrayList<>(ids);
+            hot.removeAll(archived);
+            boolean deletingArchived = !archived.isEmpty();
+            boolean writing = !hot.isEmpty() || !deletingArchived;
+            TaskRemote.Callback done = onMainThread(joined(deletingArchived && writing ? 2 : 1, callback));
+            if (deletingArchived) {
+                taskArchiver.deleteAll(archived, done);
+            }
+            if (writing) {
+                taskWriter.deleteAll(hot, done);
+            }
+        });
+    }
+
+    private boolean isArchived(String id) {
+        return taskArchiver != null && taskArchiver.isArchived(id);
+    }
+
+    private List<String> archivedAmong(Collection<String> ids) {
+        List<String> archived = new ArrayList<>();
+        for (String id : ids) {
+            if (isArchived(id)) {
+                archived.add(id);
+            }
+        }
+        return archived;
+    }
+
+    // As tarefas removidas só são conhecidas na thread do modelo; os ids voltam pela principal
+    public void clearCompleted(TaskRemote.Callback callback, RemovedIdsCallback removedIdsCallback) {
+        pipeline.execute(() -> {
+            List<String> ids = taskWriter.clearCompleted(onMainThread(callback));
+            mainThread.execute(() -> removedIdsCallback.onRemoved(ids));
+        });
+    }
+
+    // Uma seleção com arquivadas e do nó quente vira duas escritas e uma única resposta, com o
+    // primeiro erro. Contado na thread principal, depois do onMainThread.
+    private static TaskRemote.Callback joined(int parts, TaskRemote.Callback callback) {
+        int[] remaining = {parts};
+        Exception[] firstError = new Exception[1];
+        return error -> {
+            if (error != null && firstError[0] == null) {
+                firstError[0] = error;
+            }
+            if (--remaining[0] == 0) {
+                callback.onComplete(firstError[0]);
+            }
+        };
+    }
+
+    // Os callbacks do writer podem vir da thread do pipeline; a tela só lida com a principal
+    private TaskRemote.Callback onMainThread(TaskRemote.Callback callback) {
+        return error -> mainThread.execute(() -> callback.onComplete(error));
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.todolistapp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TaskStore {
+
+    public interface Observer {
+        void onTaskInserted(int position, Task task);
+
+        void onTaskChanged(int position, Task previous, Task task);
+
+        void onTaskRemoved(int position, Task task);
+
+        void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task);
+
+        // Conteúdo trocado de uma vez (ex.: carga do cache local)
+        void onTasksReplaced();
+    }
+
+    // Mesma ordem do Firebase para um nó sem orderBy: por chave
+    public static final Comparator<Task> BY_ID = (a, b) -> a.getId().compareTo(b.getId());
+
+    private final Comparator<Task> comparator;
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> readOnlyTasks = Collections.unmodifiableList(tasks);
+    private final Map<String, Task> tasksById = new HashMap<>();
+    private final List<Observer> observers = new ArrayList<>();
+
+    public TaskStore() {
+        this(BY_ID);
+    }
+
+    public TaskStore(Comparator<Task> comparator) {
+        this.comparator = comparator;
+    }
+
+    public void addObserver(Observer observer) {
+        if (!observers.contains(observer)) {
+            observers.add(observer);
+        }
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    public List<Task> getTasks() {
+        return readOnlyTasks;
+    }
+
+    public Task get(String id) {
+        return tasksById.get(id);
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public int indexOf(String id) {
+        Task task = tasksById.get(id);
+        return task == null ? -1 : search(task);
+    }
+
+    // Insere ou atualiza; só a linha afetada é notificada. As tarefas do modelo não devem
+    // ser alteradas no lugar: os observadores recebem a versão anterior para se atualizar.
+    public void upsert(Task task) {
+        Task previous = tasksById.put(task.getId(), task);
+        if (previous == null) {
+            int position = insertionPoint(task);
+            tasks.add(position, task);
+            for (Observer observer : observers) {
+                observer.onTaskInserted(position, task);
+            }
+            return;
+        }
+
+        if (previous.sameContent(task)) {
+            // Ex.: cache local confirmado pelo Firebase; mantém a instância já indexada
+            tasksById.put(previous.getId(), previous);
+            return;
+        }
+
+        int from = search(previous);
+        if (staysInPlace(task, from)) {
+            tasks.set(from, task);
+            for (Observer observer : observers) {
+                observer.onTaskChanged(from, previous, task);
+            }
+            return;
+        }
+
+        tasks.remove(from);
+        int to = insertionPoint(task);
+        tasks.add(to, task);
+        for (Observer observer : observers) {
+            observer.onTaskMoved(from, to, previous, task);
+        }
+    }
+
+    public Task remove(String id) {
+        Task removed = tasksById.get(id);
+        if (removed == null) {
+            return null;
+        }
+        int position = search(removed);
+        tasks.remove(position);
+        tasksById.remove(id);
+        for (Observer observer : observers) {
+            observer.onTaskRemoved(position, removed);
+        }
+        return removed;
+    }
+
+    public void replaceAll(List<Task> newTasks) {
+        tasks.clear();
+        tasksById.clear();
+        for (Task task : newTasks) {
+            if (tasksById.put(task.getId(), task) == null) {
+                tasks.add(task);
+            }
+        }
+        Collections.sort(tasks, this::compare);
+        for (Observer observer : observers) {
+            observer.onTasksReplaced();
+        }
+    }
+
+    // Remoção em lote: um único passe de compactação em vez de um deslocamento por tarefa
+    public void removeAll(Collection<String> ids) {
+        Set<Task> doomed = new HashSet<>();
+        for (String id : ids) {
+            Task task = tasksById.remove(id);
+            if (task != null) {
+                doomed.add(task);
+            }
+        }
+        if (doomed.isEmpty()) {
+            return;
+        }
+
+        int[] positions = new int[doomed.size()];
+        Task[] removed = new Task[doomed.size()];
+        int count = 0;
+        int write = 0;
+        for (int read = 0; read < tasks.size(); read++) {
+            Task task = tasks.get(read);
+            if (doomed.contains(task)) {
+                positions[count] = read;
+                removed[count] = task;
+                count++;
+            } else {
+                tasks.set(write++, task);
+            }
+        }
+        tasks.subList(write, tasks.size()).clear();
+
+        // Do fim para o início, as posições continuam válidas a cada notificação
+        for (int i = count - 1; i >= 0; i--) {
+            for (Observer observer : observers) {
+                observer.onTaskRemoved(positions[i], removed[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int position = tasks.size() - 1; position >= 0; position--) {
+            Task removed = tasks.remove(position);
+            tasksById.remove(removed.getId());
+            for (Observer observer : observers) {
+                observer.onTaskRemoved(position, removed);
+            }
+        }
+    }
+
+    private boolean staysInPlace(Task task, int position) {
+        if (position > 0 && compare(tasks.get(position - 1), task) > 0) {
+            return false;
+        }
+        return position == tasks.size() - 1 || compare(task, tasks.get(position + 1)) <= 0;
+    }
+
+    private int search(Task task) {
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = compare(tasks.get(mid), task);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("Tarefa fora de ordem no modelo: " + task.getId());
+    }
+
+    private int insertionPoint(Task task) {
+        int low = 0;
+        int high = tasks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(tasks.get(mid), task) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Desempate por id para que a posição de cada tarefa seja única
+    int compare(Task a, Task b) {
+        int result = comparator.compare(a, b);
+        return result != 0 ? result : a.getId().compareTo(b.getId());
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.todolistapp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Aplica no TaskStore apenas o filho que mudou, em vez de recarregar o nó inteiro.
+// O Firebase chama na thread principal; a decodificação e o modelo rodam no modelExecutor.
+public class TaskSyncListener implements ChildEventListener {
+
+    public interface ErrorCallback {
+        void onSyncError(@NonNull DatabaseError error);
+    }
+
+    public interface TombstoneListener {
+        // Marcas de exclusão vencidas vistas na última sincronização completa
+        void onExpiredTombstones(List<String> ids);
+    }
+
+    // Marcas de exclusão mais velhas que isso podem ser apagadas; um aparelho cuja última
+    // sincronização é anterior a esse prazo não pode mais confiar no incremental
+    static final long TOMBSTONE_TTL_MS = 30L * 24 * 60 * 60 * 1000;
+    // Folga no início da consulta incremental: o updatedAt das escritas deste aparelho é uma
+    // estimativa local até o servidor confirmar, e pode estar um pouco à frente do real
+    static final long WATERMARK_MARGIN_MS = 10 * 60 * 1000;
+    // Decodificar um filho leva poucas dezenas de ns, o mesmo que os dois nanoTime da medição:
+    // só um a cada 16 é cronometrado, o suficiente para os percentis
+    static final int PARSE_SAMPLE_INTERVAL = 16;
+
+    private final TaskStore taskStore;
+    private final Executor modelExecutor;
+    private final ErrorCallback errorCallback;
+    private final Set<String> unconfirmedIds = new HashSet<>();
+    private final List<String> expiredTombstones = new ArrayList<>();
+    private long callbackCount;
+    // Maior updatedAt recebido: tudo até ele já está no modelo. Lido da thread principal para
+    // escolher entre a sincronização completa e a incremental.
+    private volatile long watermark;
+    private Runnable initialLoadListener;
+    private TombstoneListener tombstoneListener;
+    private PendingWrites pendingWrites;
+    private final AtomicLong events;
+    private final LatencyHistogram parseTimes;
+    private final LatencyHistogram loadTimes;
+    private final LatencyHistogram snapshotChildren;
+    // Início da carga inicial em andamento (0 = nenhuma) e callbackCount naquele momento
+    private long loadStartedAt;
+    private long loadStartCallbacks;
+
+    public TaskSyncListener(TaskStore taskStore, ErrorCallback errorCallback) {
+        this(taskStore, Runnable::run, errorCallback);
+    }
+
+    public TaskSyncListener(TaskStore taskStore, Executor modelExecutor, ErrorCallback errorCallback) {
+        this.taskStore = taskStore;
+        this.modelExecutor = modelExecutor;
+        this.errorCallback = errorCallback;
+        Metrics metrics = Metrics.get();
+        this.events = metrics.counter(Metrics.SYNC_EVENTS);
+        this.parseTimes = metrics.histogram(Metrics.SYNC_PARSE_NS);
+        this.loadTimes = metrics.histogram(Metrics.SYNC_LOAD_NS);
+        this.snapshotChildren = metrics.histogram(Metrics.SYNC_SNAPSHOT_CHILDREN);
+    }
+
+    // Ao reanexar, o Firebase reenvia todos os filhos como onChildAdded. Tarefas que
+    // estavam no modelo e não voltaram foram apagadas enquanto o listener estava fora.
+    public ListenerRegistry.Subscription subscriptionFor(Query query) {
+        return subscription(query, true);
+    }
+
+    // since > 0: só os filhos alterados desde então (updatedAt, índice em database.rules.json).
+    // O modelo já tem o resto, vindo do cache em disco ou da sessão anterior.
+    public ListenerRegistry.Subscription subscriptionFor(Query tasksNode, long since) {
+        if (since <= 0) {
+            return subscriptionFor(tasksNode);
+        }
+        return subscription(tasksNode.orderByChild(Task.FIELD_UPDATED_AT).startAt(since), false);
+    }
+
+    // Início da consulta incremental a partir do que já foi recebido, ou 0 quando só a
+    // sincronização completa é segura (nada recebido ainda, ou parado há tempo demais)
+    public long deltaStart(long now) {
+        long since = watermark;
+        if (since <= 0 || now - since > TOMBSTONE_TTL_MS - WATERMARK_MARGIN_MS) {
+            return 0;
+        }
+        return since - WATERMARK_MARGIN_MS;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    // Restaurado junto com o cache em disco que ele descreve
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public void setTombstoneListener(TombstoneListener tombstoneListener) {
+        this.tombstoneListener = tombstoneListener;
+    }
+
+    // Com escritas locais em voo, o evento só atualiza o estado confirmado (ver PendingWrites)
+    public void setPendingWrites(PendingWrites pendingWrites) {
+        this.pendingWrites = pendingWrites;
+    }
+
+    private ListenerRegistry.Subscription subscription(Query query, boolean fullResync) {
+        ValueEventListener initialLoad = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                modelExecutor.execute(fullResync ? TaskSyncListener.this::endResync : TaskSyncListener.this::endDelta);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                modelExecutor.execute(() -> {
+                    loadStartedAt = 0;
+                    unconfirmedIds.clear();
+                    expiredTombstones.clear();
+                });
+            }
+        };
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                long attachedAt = System.nanoTime();
+                modelExecutor.execute(() -> beginLoad(attachedAt));
+                if (fullResync) {
+                    modelExecutor.execute(TaskSyncListener.this::beginResync);
+                }
+                query.addChildEventListener(TaskSyncListener.this);
+                // Eventos de valor chegam depois dos eventos de filho do mesmo dado
+                query.addListenerForSingleValueEvent(initialLoad);
+            }
+
+            @Override
+            public void detach() {
+                query.removeEventListener(TaskSyncListener.this);
+                query.removeEventListener(initialLoad);
+            }
+        };
+    }
+
+    public void setInitialLoadListener(Runnable initialLoadListener) {
+        this.initialLoadListener = initialLoadListener;
+    }
+
+    public long getCallbackCount() {
+        return callbackCount;
+    }
+
+    void beginLoad(long attachedAt) {
+        loadStartedAt = attachedAt;
+        loadStartCallbacks = callbackCount;
+    }
+
+    void beginResync() {
+        unconfirmedIds.clear();
+        expiredTombstones.clear();
+        for (Task task : taskStore.getTasks()) {
+            unconfirmedIds.add(task.getId());
+        }
+    }
+
+    void endResync() {
+        for (String id : unconfirmedIds) {
+            removeFromModel(id);
+        }
+        unconfirmedIds.clear();
+        if (!expiredTombstones.isEmpty() && tombstoneListener != null) {
+            tombstoneListener.onExpiredTombstones(new ArrayList<>(expiredTombstones));
+        }
+        expiredTombstones.clear();
+        recordLoad();
+        if (initialLoadListener != null) {
+            initialLoadListener.run();
+        }
+    }
+
+    // Incremental: o que não veio simplesmente não mudou, nada é removido por ausência
+    void endDelta() {
+        recordLoad();
+        if (initialLoadListener != null) {
+            initialLoadListener.run();
+        }
+    }
+
+    // Um filho como chegou do servidor: tarefa, ou marca de exclusão
+    void applyFields(String id, Map<?, ?> fields) {
+        long updatedAt = TaskCodec.updatedAtOf(fields);
+        if (updatedAt > watermark) {
+            watermark = updatedAt;
+        }
+        if (!TaskCodec.isTombstone(fields)) {
+            if (callbackCount % PARSE_SAMPLE_INTERVAL != 0) {
+                applyTask(TaskCodec.fromMap(id, fields));
+                return;
+            }
+            long startedAt = System.nanoTime();
+            Task task = TaskCodec.fromMap(id, fields);
+            parseTimes.record(System.nanoTime() - startedAt);
+            applyTask(task);
+            return;
+        }
+        applyRemoval(id);
+        if (updatedAt > 0 && System.currentTimeMillis() - updatedAt > TOMBSTONE_TTL_MS) {
+            expiredTombstones.add(id);
+        }
+    }
+
+    void applyTask(Task task) {
+        callbackCount++;
+        unconfirmedIds.remove(task.getId());
+        if (pendingWrites != null) {
+            pendingWrites.upsertRemote(task);
+        } else {
+            taskStore.upsert(task);
+        }
+    }
+
+    void applyRemoval(String id) {
+        callbackCount++;
+        unconfirmedIds.remove(id);
+        removeFromModel(id);
+    }
+
+    private void removeFromModel(String id) {
+        if (pendingWrites != null) {
+            pendingWrites.removeRemote(id);
+        } else {
+            taskStore.remove(id);
+        }
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        events.incrementAndGet();
+        modelExecutor.execute(() -> applySnapshot(snapshot));
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        events.incrementAndGet();
+        modelExecutor.execute(() -> applySnapshot(snapshot));
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        events.incrementAndGet();
+        String id = snapshot.getKey();
+        modelExecutor.execute(() -> applyRemoval(id));
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        events.incrementAndGet();
+        // A posição é recalculada pelo comparador do TaskStore
+        modelExecutor.execute(() -> applySnapshot(snapshot));
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        errorCallback.onSyncError(error);
+    }
+
+    // Do attach até o evento de valor, com tudo que chegou antes dele já aplicado no modelo
+    private void recordLoad() {
+        if (loadStartedAt == 0) {
+            return;
+        }
+        loadTimes.record(System.nanoTime() - loadStartedAt);
+        snapshotChildren.record(callbackCount - loadStartCallbacks);
+        loadStartedAt = 0;
+    }
+
+    private void applySnapshot(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        if (value instanceof Map) {
+            applyFields(snapshot.getKey(), (Map<?, ?>) value);
+        }
+    }
+}
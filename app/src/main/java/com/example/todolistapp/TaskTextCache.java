@@ -0,0 +1,62 @@
+package com.example.todolistapp;
+
+import android.util.LruCache;
+
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+// Layout das descrições (PrecomputedTextCompat) medido fora da thread principal e guardado por
+// texto; o total de caracteres guardados é limitado. Rolar de volta não mede a mesma descrição duas vezes.
+public class TaskTextCache {
+
+    static final int MAX_CACHED_CHARS = 256 * 1024;
+    // Texto curto mede rápido na própria thread principal; a troca de thread custaria mais
+    static final int PRECOMPUTE_MIN_LENGTH = 80;
+
+    private static final Executor PRECOMPUTE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-text");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LruCache<String, PrecomputedTextCompat> cache = new LruCache<String, PrecomputedTextCompat>(MAX_CACHED_CHARS) {
+        @Override
+        protected int sizeOf(String text, PrecomputedTextCompat precomputed) {
+            return text.length();
+        }
+    };
+
+    // Chamado no bind, na thread principal. Sem o layout pronto, o TextView recebe o futuro e
+    // só espera por ele no onMeasure; o prefetch do RecyclerView dá o tempo para o cálculo
+    public void bind(AppCompatTextView textView, String text) {
+        // Um futuro de um bind anterior desta view sobrescreveria o texto novo no próximo measure
+        textView.setTextFuture(null);
+        if (text == null || text.length() < PRECOMPUTE_MIN_LENGTH) {
+            textView.setText(text);
+            return;
+        }
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(textView);
+        PrecomputedTextCompat cached = cache.get(text);
+        // Tamanho de fonte diferente (ex.: outra escala) exige outro layout
+        if (cached != null && cached.getParams().equals(params)) {
+            TextViewCompat.setPrecomputedText(textView, cached);
+            return;
+        }
+        FutureTask<PrecomputedTextCompat> future = new FutureTask<>(() -> {
+            PrecomputedTextCompat precomputed = PrecomputedTextCompat.create(text, params);
+            cache.put(text, precomputed);
+            return precomputed;
+        });
+        PRECOMPUTE_EXECUTOR.execute(future);
+        textView.setTextFuture(future);
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.todolistapp;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Exportação e importação do nó tasks/<uid> em NDJSON (ver TaskJsonLines), para levar a lista a
+// outro aparelho ou conta. Nenhum dos dois monta a lista em memória: a exportação lê uma página
+// do servidor por vez e a escreve no arquivo; a importação lê o arquivo linha a linha e envia
+// lotes de um updateChildren, esperando a confirmação de cada um antes de ler o próximo.
+// A memória fica em uma página ou um lote, qualquer que seja o tamanho do arquivo.
+// Bloqueante: roda num executor de E/S, nunca na thread principal.
+public class TaskTransfer {
+
+    // Leitura avulsa, sem assinatura; chamada na thread da transferência e bloqueante
+    public interface ExportSource {
+        // Até limit filhos depois de afterKey (null: do início), na ordem das chaves, incluindo
+        // marcas de exclusão; um valor que não é um objeto vem como null
+        Map<String, Map<String, Object>> readPage(@Nullable String afterKey, int limit) throws IOException;
+    }
+
+    public interface ProgressListener {
+        // Chamado na thread da transferência depois de cada página escrita ou lote confirmado;
+        // totalBytes < 0 quando o tamanho não é conhecido (sempre, na exportação)
+        void onProgress(long tasks, long bytes, long totalBytes);
+    }
+
+    public static final class Result {
+        public final long tasks;
+        public final long rejectedLines;
+        public final boolean resumed;
+
+        Result(long tasks, long rejectedLines, boolean resumed) {
+            this.tasks = tasks;
+            this.rejectedLines = rejectedLines;
+            this.resumed = resumed;
+        }
+    }
+
+    public static final String MIME_TYPE = "application/x-ndjson";
+    static final int EXPORT_PAGE_SIZE = 500;
+    // Um caminho por tarefa, no mesmo tamanho de lote do TaskWriter; o checkpoint avança um lote por vez
+    static final int IMPORT_CHUNK_SIZE = TaskWriter.MAX_PATHS_PER_WRITE;
+    // Uma linha maior que isso não é uma tarefa deste app; é descartada sem ser lida inteira
+    static final int MAX_LINE_BYTES = 1 << 20;
+    static final long ACK_TIMEOUT_MS = 60_000;
+    // As regras recusam createdAt depois do relógio do servidor; com o do aparelho adiantado,
+    // datas tão recentes assim ficam com a hora do servidor
+    static final long CLOCK_SKEW_MS = 5 * 60_000;
+    private static final int CHECKPOINT_VERSION = 1;
+
+    private final ExportSource source;
+    private final TaskRemote remote;
+    private final File checkpointFile;
+    private long ackTimeoutMillis = ACK_TIMEOUT_MS;
+
+    public TaskTransfer(ExportSource source, TaskRemote remote, File checkpointFile) {
+        this.source = source;
+        this.remote = remote;
+        this.checkpointFile = checkpointFile;
+    }
+
+    void setAckTimeoutMillis(long ackTimeoutMillis) {
+        this.ackTimeoutMillis = ackTimeoutMillis;
+    }
+
+    // Devolve o número de tarefas escritas; as marcas de exclusão ficam de fora
+    public long export(OutputStream out, @Nullable ProgressListener progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String afterKey = null;
+        long tasks = 0;
+        while (true) {
+            Map<String, Map<String, Object>> page = source.readPage(afterKey, EXPORT_PAGE_SIZE);
+            for (Map.Entry<String, Map<String, Object>> child : page.entrySet()) {
+                afterKey = child.getKey();
+                if (child.getValue() != null && !TaskCodec.isTombstone(child.getValue())) {
+                    TaskJsonLines.write(writer, TaskCodec.fromMap(child.getKey(), child.getValue()));
+                    tasks++;
+                }
+            }
+            if (progress != null) {
+                progress.onProgress(tasks, -1, -1);
+            }
+            if (page.size() < EXPORT_PAGE_SIZE) {
+                break;
+            }
+        }
+        writer.flush();
+        return tasks;
+    }
+
+    // sourceKey e totalBytes identificam o arquivo: com um checkpoint do mesmo arquivo, a leitura
+    // continua depois do último lote confirmado. Lotes são idempotentes (o nó inteiro de cada id
+    // é substituído), então reenviar o que estava em voo na interrupção não duplica nada.
+    public Result importFrom(InputStream in, String sourceKey, long totalBytes,
+                             @Nullable ProgressListener progress) throws IOException {
+        Checkpoint checkpoint = readCheckpoint();
+        boolean resumed = checkpoint != null && checkpoint.sourceKey.equals(sourceKey)
+                && checkpoint.totalBytes == totalBytes;
+        if (!resumed) {
+            // Gravado já no início: morrer antes do primeiro lote confirmado também é retomável
+            checkpoint = new Checkpoint(sourceKey, totalBytes, 0, 0, 0);
+            writeCheckpoint(checkpoint);
+        }
+        LineReader lines = new LineReader(new BufferedInputStream(in), checkpoint.offset);
+        Map<String, Object> updates = new LinkedHashMap<>();
+        long chunkRejected = 0;
+        String line;
+        while ((line = lines.next()) != null) {
+            if (line != LineReader.TOO_LONG && line.trim().isEmpty()) {
+                continue;
+            }
+            Task task = line == LineReader.TOO_LONG ? null : TaskJsonLines.read(line);
+            if (task == null || !isValidKey(task.getId()) || !isValidTask(task)) {
+                chunkRejected++;
+                continue;
+            }
+            putImport(task, updates);
+            if (updates.size() == IMPORT_CHUNK_SIZE) {
+                checkpoint = send(updates, checkpoint, lines.getOffset(), chunkRejected, progress);
+                updates = new LinkedHashMap<>();
+                chunkRejected = 0;
+            }
+        }
+        if (!updates.isEmpty() || chunkRejected > 0) {
+            checkpoint = send(updates, checkpoint, lines.getOffset(), chunkRejected, progress);
+        }
+        checkpointFile.delete();
+        return new Result(checkpoint.tasks, checkpoint.rejected, resumed);
+    }
+
+    // Chave de uma importação interrompida (ex.: a Uri do arquivo), ou null
+    @Nullable
+    public String getPendingImport() throws IOException {
+        Checkpoint checkpoint = readCheckpoint();
+        return checkpoint == null ? null : checkpoint.sourceKey;
+    }
+
+    public void discardPendingImport() {
+        checkpointFile.delete();
+    }
+
+    // Uma linha que as regras do banco recusariam derrubaria o lote inteiro, em toda retomada.
+    // O pendingPriority sai do priority, então basta conferir este.
+    static boolean isValidTask(Task task) {
+        return task.getPriority() >= Task.PRIORITY_NONE && task.getPriority() <= Task.PRIORITY_HIGH;
+    }
+
+    // O updatedAt vem do servidor, como numa escrita normal: os outros aparelhos recebem as
+    // tarefas importadas na sincronização incremental. O createdAt do arquivo é preservado,
+    // a não ser que esteja no futuro.
+    private static void putImport(Task task, Map<String, Object> updates) {
+        Map<String, Object> fields = TaskCodec.toMap(task);
+        Long createdAt = task.getCreatedAt();
+        if (createdAt == null || createdAt > System.currentTimeMillis() - CLOCK_SKEW_MS) {
+            fields.put(Task.FIELD_CREATED_AT, TaskCodec.SERVER_TIMESTAMP);
+        }
+        fields.put(Task.FIELD_UPDATED_AT, TaskCodec.SERVER_TIMESTAMP);
+        updates.put(task.getId(), fields);
+    }
+
+    private Checkpoint send(Map<String, Object> updates, Checkpoint checkpoint, long offset, long chunkRejected,
+                            @Nullable ProgressListener progress) throws IOException {
+        if (!updates.isEmpty()) {
+            awaitWrite(updates);
+        }
+        Checkpoint next = new Checkpoint(checkpoint.sourceKey, checkpoint.totalBytes, offset,
+                checkpoint.tasks + updates.size(), checkpoint.rejected + chunkRejected);
+        writeCheckpoint(next);
+        if (progress != null) {
+            progress.onProgress(next.tasks, offset, next.totalBytes);
+        }
+        return next;
+    }
+
+    // Esperar a confirmação é o que limita a memória: sem isso o SDK acumularia o arquivo
+    // inteiro na fila de escritas
+    private void awaitWrite(Map<String, Object> updates) throws IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        Exception[] result = new Exception[1];
+        remote.updateChildren(updates, error -> {
+            result[0] = error;
+            done.countDown();
+        });
+        try {
+            if (!done.await(ackTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Servidor não confirmou o lote em " + ackTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida");
+        }
+        if (result[0] != null) {
+            throw new IOException("Lote recusado pelo servidor", result[0]);
+        }
+    }
+
+    // Chaves do Realtime Database: sem . $ # [ ] / nem caracteres de controle, até 768 bytes
+    static boolean isValidKey(String key) {
+        if (key.isEmpty() || key.getBytes(StandardCharsets.UTF_8).length > 768) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x20 || c == 0x7f || c == '.' || c == '$' || c == '#' || c == '[' || c == ']' || c == '/') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private Checkpoint readCheckpoint() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_VERSION) {
+                return null;
+            }
+            return new Checkpoint(TaskDiskCache.readString(in), in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong());
+        } catch (FileNotFoundException | EOFException e) {
+            return null;
+        }
+    }
+
+    // Temporário e rename, como o TaskDiskCache: uma queda no meio deixa o checkpoint anterior
+    private void writeCheckpoint(Checkpoint checkpoint) throws IOException {
+        File temp = new File(checkpointFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(CHECKPOINT_VERSION);
+            TaskDiskCache.writeString(out, checkpoint.sourceKey);
+            out.writeLong(checkpoint.totalBytes);
+            out.writeLong(checkpoint.offset);
+            out.writeLong(checkpoint.tasks);
+            out.writeLong(checkpoint.rejected);
+        }
+        if (!temp.renameTo(checkpointFile)) {
+            throw new IOException("Não foi possível substituir " + checkpointFile);
+        }
+    }
+
+    private static final class Checkpoint {
+        final String sourceKey;
+        final long totalBytes;
+        // Bytes do arquivo já confirmados no servidor; a próxima leitura começa daqui
+        final long offset;
+        final long tasks;
+        final long rejected;
+
+        Checkpoint(String sourceKey, long totalBytes, long offset, long tasks, long rejected) {
+            this.sourceKey = sourceKey;
+            this.totalBytes = totalBytes;
+            this.offset = offset;
+            this.tasks = tasks;
+            this.rejected = rejected;
+        }
+    }
+
+    // Linhas em UTF-8 contando os bytes consumidos, que o BufferedReader não informa
+    static final class LineReader {
+
+        // Marca de linha descartada por passar de MAX_LINE_BYTES
+        static final String TOO_LONG = new String("");
+
+        private final InputStream in;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private long offset;
+        private boolean firstLine;
+
+        LineReader(InputStream in, long offset) throws IOException {
+            this.in = in;
+            this.offset = offset;
+            this.firstLine = offset == 0;
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("Arquivo menor que o checkpoint");
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        @Nullable
+        String next() throws IOException {
+            line.reset();
+            boolean tooLong = false;
+            int b;
+            while ((b = in.read()) >= 0) {
+                offset++;
+                if (b == '\n') {
+                    return finish(tooLong);
+                }
+                if (line.size() < MAX_LINE_BYTES) {
+                    line.write(b);
+                } else {
+                    tooLong = true;
+                }
+            }
+            return line.size() == 0 ? null : finish(tooLong);
+        }
+
+        private String finish(boolean tooLong) {
+            if (tooLong) {
+                firstLine = false;
+                return TOO_LONG;
+            }
+            byte[] bytes = line.toByteArray();
+            int length = bytes.length;
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+            int start = 0;
+            // BOM que alguns editores põem no início do arquivo
+            if (firstLine && length >= 3 && (bytes[0] & 0xff) == 0xef && (bytes[1] & 0xff) == 0xbb
+                    && (bytes[2] & 0xff) == 0xbf) {
+                start = 3;
+            }
+            firstLine = false;
+            return new String(bytes, start, length - start, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.todolistapp;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Exportações e importações fora da activity: uma por vez, numa thread própria, sobrevivendo à
+// rotação e ao fechamento da tela. Uma importação interrompida (processo encerrado, rede) continua
+// do checkpoint na próxima abertura da lista, enquanto a permissão do arquivo valer.
+// Os métodos públicos são chamados da thread principal.
+public class TaskTransferRunner {
+
+    public interface Listener {
+        // Chamados na thread principal
+        void onTransferProgress(boolean importing, long tasks, long bytes, long totalBytes);
+
+        void onTransferFinished(boolean importing, @Nullable TaskTransfer.Result result, @Nullable Exception error);
+    }
+
+    private interface Job {
+        TaskTransfer.Result run(TaskTransfer.ProgressListener progress) throws IOException;
+    }
+
+    private static final String TAG = "TaskTransferRunner";
+
+    private static TaskTransferRunner shared;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "task-transfer"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean running;
+    private Listener listener;
+
+    private TaskTransferRunner(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized TaskTransferRunner from(Context context) {
+        if (shared == null) {
+            shared = new TaskTransferRunner(context.getApplicationContext());
+        }
+        return shared;
+    }
+
+    static synchronized void reset() {
+        shared = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    // false quando já há uma transferência em andamento
+    public boolean export(String userId, Uri uri) {
+        return run(false, progress -> {
+            try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wt")) {
+                if (out == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                return new TaskTransfer.Result(transferFor(userId).export(out, progress), 0, false);
+            }
+        });
+    }
+
+    public boolean importFrom(String userId, Uri uri) {
+        return run(true, progress -> {
+            TaskTransfer transfer = transferFor(userId);
+            ContentResolver resolver = context.getContentResolver();
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                return transfer.importFrom(in, uri.toString(), sizeOf(resolver, uri), progress);
+            } catch (FileNotFoundException | SecurityException e) {
+                // Arquivo apagado ou permissão revogada: não há mais de onde continuar
+                transfer.discardPendingImport();
+                throw e;
+            }
+        });
+    }
+
+    // Chamado ao abrir a lista: retoma a importação interrompida deste usuário, se houver
+    public void resumePendingImport(String userId) {
+        if (running) {
+            return;
+        }
+        executor.execute(() -> {
+            String pending;
+            try {
+                pending = transferFor(userId).getPendingImport();
+            } catch (IOException e) {
+                Log.w(TAG, "Checkpoint de importação ilegível", e);
+                return;
+            }
+            if (pending != null) {
+                mainHandler.post(() -> importFrom(userId, Uri.parse(pending)));
+            }
+        });
+    }
+
+    private boolean run(boolean importing, Job job) {
+        if (running) {
+            return false;
+        }
+        running = true;
+        executor.execute(() -> {
+            TaskTransfer.Result result = null;
+            Exception error = null;
+            try {
+                result = job.run((tasks, bytes, totalBytes) -> mainHandler.post(() -> {
+                    if (listener != null) {
+                        listener.onTransferProgress(importing, tasks, bytes, totalBytes);
+                    }
+                }));
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, importing ? "Importação falhou" : "Exportação falhou", e);
+                error = e;
+            }
+            TaskTransfer.Result finalResult = result;
+            Exception finalError = error;
+            mainHandler.post(() -> {
+                running = false;
+                if (listener != null) {
+                    listener.onTransferFinished(importing, finalResult, finalError);
+                }
+            });
+        });
+        return true;
+    }
+
+    private TaskTransfer transferFor(String userId) {
+        DatabaseReference databaseReference = FirebaseDatabase.getInstance().getReference("tasks").child(userId);
+        // Sem o OutboxTaskRemote: o checkpoint já torna a importação retomável, e a fila de
+        // escritas guardaria cada lote inteiro em disco de novo
+        return new TaskTransfer(new FirebaseTaskExportSource(databaseReference),
+                new FirebaseTaskRemote(databaseReference),
+                new File(context.getFilesDir(), "import-" + userId + ".checkpoint"));
+    }
+
+    // -1 quando o provedor não informa o tamanho; aí o progresso é só a contagem de tarefas
+    private static long sizeOf(ContentResolver resolver, Uri uri) {
+        try (AssetFileDescriptor descriptor = resolver.openAssetFileDescriptor(uri, "r")) {
+            return descriptor == null ? -1 : descriptor.getLength();
+        } catch (IOException | SecurityException e) {
+            return -1;
+        }
+    }
+}
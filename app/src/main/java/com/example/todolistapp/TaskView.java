@@ -0,0 +1,146 @@
+package com.example.todolistapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Lista visível (filtro + busca) calculada localmente sobre o TaskStore sincronizado.
+// Publica cópias imutáveis; várias alterações no mesmo ciclo viram uma única publicação.
+public class TaskView implements TaskStore.Observer {
+
+    public interface Listener {
+        void onTasksChanged(List<Task> snapshot, boolean viewSwitched);
+    }
+
+    private final TaskStore taskStore;
+    private final TaskIndex taskIndex;
+    private final Scheduler scheduler;
+    private List<Task> visible;
+    private TaskIndex.Filter filter = TaskIndex.Filter.ALL;
+    private String search = "";
+    private List<String> searchTokens = Collections.emptyList();
+    private Listener listener;
+    private boolean publishScheduled;
+    private boolean viewSwitched;
+    private final LatencyHistogram queryTimes = Metrics.get().histogram(Metrics.VIEW_QUERY_NS);
+
+    public TaskView(TaskStore taskStore, TaskIndex taskIndex, Scheduler scheduler) {
+        this.taskStore = taskStore;
+        this.taskIndex = taskIndex;
+        this.scheduler = scheduler;
+        this.visible = taskIndex.query(filter, searchTokens);
+        taskStore.addObserver(this);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public TaskIndex.Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(TaskIndex.Filter filter) {
+        if (this.filter != filter) {
+            this.filter = filter;
+            refresh();
+        }
+    }
+
+    public void setSearch(String search) {
+        String normalized = search == null ? "" : search.trim();
+        if (!normalized.equals(this.search)) {
+            this.search = normalized;
+            searchTokens = TaskIndex.tokenize(normalized);
+            refresh();
+        }
+    }
+
+    public int size() {
+        return visible.size();
+    }
+
+    public Task get(int position) {
+        return visible.get(position);
+    }
+
+    public List<Task> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(visible));
+    }
+
+    private void refresh() {
+        long startedAt = System.nanoTime();
+        visible = taskIndex.query(filter, searchTokens);
+        queryTimes.record(System.nanoTime() - startedAt);
+        viewSwitched = true;
+        schedulePublish();
+    }
+
+    private void schedulePublish() {
+        if (publishScheduled) {
+            return;
+        }
+        publishScheduled = true;
+        scheduler.schedule(this::publish, 0);
+    }
+
+    private void publish() {
+        publishScheduled = false;
+        boolean switched = viewSwitched;
+        viewSwitched = false;
+        if (listener != null) {
+            listener.onTasksChanged(snapshot(), switched);
+        }
+    }
+
+    @Override
+    public void onTaskInserted(int position, Task task) {
+        if (TaskIndex.matches(task, filter, searchTokens)) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void onTaskChanged(int position, Task previous, Task task) {
+        int index = Collections.binarySearch(visible, previous, taskStore::compare);
+        boolean matches = TaskIndex.matches(task, filter, searchTokens);
+        if (index >= 0 && matches) {
+            visible.set(index, task);
+            schedulePublish();
+        } else if (index >= 0) {
+            removeAt(index);
+        } else if (matches) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void onTaskRemoved(int position, Task task) {
+        int index = Collections.binarySearch(visible, task, taskStore::compare);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    @Override
+    public void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task) {
+        onTaskRemoved(fromPosition, previous);
+        onTaskInserted(toPosition, task);
+    }
+
+    @Override
+    public void onTasksReplaced() {
+        refresh();
+    }
+
+    private void insert(Task task) {
+        int index = -(Collections.binarySearch(visible, task, taskStore::compare) + 1);
+        visible.add(index, task);
+        schedulePublish();
+    }
+
+    private void removeAt(int index) {
+        visible.remove(index);
+        schedulePublish();
+    }
+}
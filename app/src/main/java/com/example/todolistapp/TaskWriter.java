@@ -0,0 +1,294 @@
+package com.example.todolistapp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Envia só os campos alterados via updateChildren e junta cliques repetidos na mesma tarefa.
+// Cada alteração aparece no TaskStore antes do envio e é confirmada ou desfeita na resposta.
+public class TaskWriter {
+
+    public interface FailureListener {
+        void onWriteFailed(String taskId, Exception error);
+    }
+
+    static final long COALESCE_WINDOW_MS = 400;
+    // Tamanho de lote escolhido, não um limite do Realtime Database: lotes maiores são menos idas
+    // ao servidor, mas cada um é um payload maior e mais demorado de confirmar ou reverter numa
+    // recusa. Cada lote é atômico no servidor.
+    static final int MAX_PATHS_PER_WRITE = 500;
+
+    private final TaskStore taskStore;
+    private final TaskRemote remote;
+    private final Scheduler scheduler;
+    private final Map<String, Map<String, Object>> pendingFields = new LinkedHashMap<>();
+    private final PendingWrites pendingWrites;
+    private FailureListener failureListener;
+    private long roundTrips;
+    private final LatencyHistogram ackTimes = Metrics.get().histogram(Metrics.WRITE_ACK_NS);
+    private final AtomicLong failures = Metrics.get().counter(Metrics.WRITE_FAILURES);
+
+    public TaskWriter(TaskStore taskStore, TaskRemote remote, Scheduler scheduler) {
+        this.taskStore = taskStore;
+        this.remote = remote;
+        this.scheduler = scheduler;
+        this.pendingWrites = new PendingWrites(taskStore);
+    }
+
+    // Os listeners da sincronização passam por aqui para não sobrescrever uma escrita em voo
+    public PendingWrites getPendingWrites() {
+        return pendingWrites;
+    }
+
+    public void setFailureListener(FailureListener failureListener) {
+        this.failureListener = failureListener;
+    }
+
+    // Alterações na mesma tarefa dentro da janela viram uma única escrita
+    public void enqueue(Task task) {
+        String id = task.getId();
+        boolean scheduled = pendingFields.containsKey(id);
+        pendingWrites.applyLocal(task);
+        merge(task);
+        if (!scheduled) {
+            scheduler.schedule(() -> flush(id, null), COALESCE_WINDOW_MS);
+        }
+    }
+
+    public void write(Task task, TaskRemote.Callback callback) {
+        pendingWrites.applyLocal(task);
+        merge(task);
+        flush(task.getId(), callback);
+    }
+
+    public void create(Task task, TaskRemote.Callback callback) {
+        Map<String, Object> updates = new HashMap<>();
+        TaskCodec.putPaths(task, updates);
+        pendingWrites.applyLocal(task);
+        task.markClean();
+        dispatch(task.getId(), updates, callback);
+    }
+
+    // A tarefa vira uma marca de exclusão, que outros aparelhos recebem na sincronização incremental
+    public void delete(String id, TaskRemote.Callback callback) {
+        pendingFields.remove(id);
+        pendingWrites.removeLocal(id);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(id, TaskCodec.tombstone());
+        dispatch(id, updates, callback);
+    }
+
+    public void completeAll(Collection<String> ids, boolean completed, TaskRemote.Callback callback) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (String id : ids) {
+            Map<String, Object> fields = pendingFields.get(id);
+            if (fields != null) {
+                fields.remove(Task.FIELD_COMPLETED);
+            }
+            Task shown = taskStore.get(id);
+            if (shown != null && shown.isCompleted() != completed) {
+                Task local = shown.copy();
+                local.setCompleted(completed);
+                pendingWrites.applyLocal(local);
+            }
+            Task current = pendingWrites.confirmed(id);
+            if (current == null || current.isCompleted() != completed) {
+                TaskCodec.putChangePaths(id, current,
+                        Collections.<String, Object>singletonMap(Task.FIELD_COMPLETED, completed), updates);
+            }
+        }
+        sendChunked(updates, callback);
+    }
+
+    public void deleteAll(Collection<String> ids, TaskRemote.Callback callback) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (String id : ids) {
+            pendingFields.remove(id);
+            updates.put(id, TaskCodec.tombstone());
+        }
+        pendingWrites.removeAllLocal(ids);
+        sendChunked(updates, callback);
+    }
+
+    // Remove de vez marcas de exclusão antigas; nenhum aparelho sincroniza incrementalmente
+    // a partir de antes delas (ver TaskSyncListener.TOMBSTONE_TTL_MS)
+    public void purgeTombstones(Collection<String> ids) {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (String id : ids) {
+            updates.put(id, null);
+        }
+        sendChunked(updates, null);
+    }
+
+    public List<String> clearCompleted(TaskRemote.Callback callback) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : taskStore.getTasks()) {
+            if (task.isCompleted()) {
+                ids.add(task.getId());
+            }
+        }
+        deleteAll(ids, callback);
+        return ids;
+    }
+
+    public long getRoundTripCount() {
+        return roundTrips;
+    }
+
+    public void flushAll() {
+        Iterator<String> ids = pendingFields.keySet().iterator();
+        while (ids.hasNext()) {
+            String id = ids.next();
+            Map<String, Object> fields = pendingFields.get(id);
+            ids.remove();
+            send(id, fields, null);
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingFields.size();
+    }
+
+    private void merge(Task task) {
+        Map<String, Object> fields = pendingFields.get(task.getId());
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+            pendingFields.put(task.getId(), fields);
+        }
+        for (String field : task.getDirtyFields()) {
+            fields.put(field, task.getFieldValue(field));
+        }
+        task.markClean();
+    }
+
+    private void flush(String id, TaskRemote.Callback callback) {
+        Map<String, Object> fields = pendingFields.remove(id);
+        if (fields == null) {
+            if (callback != null) {
+                callback.onComplete(null);
+            }
+            return;
+        }
+        send(id, fields, callback);
+    }
+
+    private void send(String id, Map<String, Object> fields, TaskRemote.Callback callback) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        Task current = pendingWrites.confirmed(id);
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            // Campo que voltou ao valor sincronizado (ex.: marcar e desmarcar) não é enviado
+            if (current != null && equal(current.getFieldValue(field.getKey()), field.getValue())) {
+                continue;
+            }
+            changed.put(field.getKey(), field.getValue());
+        }
+        if (changed.isEmpty()) {
+            pendingWrites.dropped(id);
+            if (callback != null) {
+                callback.onComplete(null);
+            }
+            return;
+        }
+        Map<String, Object> updates = new HashMap<>();
+        TaskCodec.putChangePaths(id, current, changed, updates);
+        dispatch(id, updates, callback);
+    }
+
+    // Divide o mapa em lotes e chama o callback uma vez, com o primeiro erro, ao fim de todos.
+    // Os caminhos de uma mesma tarefa chegam juntos e nunca ficam em lotes diferentes.
+    private void sendChunked(Map<String, Object> updates, TaskRemote.Callback callback) {
+        if (updates.isEmpty()) {
+            if (callback != null) {
+                callback.onComplete(null);
+            }
+            return;
+        }
+
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        Map<String, Object> chunk = new HashMap<>();
+        String lastId = null;
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            String id = taskIdOf(update.getKey());
+            if (chunk.size() >= MAX_PATHS_PER_WRITE && !id.equals(lastId)) {
+                chunks.add(chunk);
+                chunk = new HashMap<>();
+            }
+            chunk.put(update.getKey(), update.getValue());
+            lastId = id;
+        }
+        chunks.add(chunk);
+
+        int[] remaining = {chunks.size()};
+        Exception[] firstError = new Exception[1];
+        for (Map<String, Object> part : chunks) {
+            roundTrips++;
+            Set<String> ids = new HashSet<>();
+            for (String path : part.keySet()) {
+                ids.add(taskIdOf(path));
+            }
+            for (String id : ids) {
+                pendingWrites.sent(id);
+            }
+            long sentAt = System.nanoTime();
+            remote.updateChildren(part, error -> {
+                recordAck(sentAt, error);
+                acknowledge(ids, error);
+                if (error != null && firstError[0] == null) {
+                    firstError[0] = error;
+                }
+                if (--remaining[0] == 0 && callback != null) {
+                    callback.onComplete(firstError[0]);
+                }
+            });
+        }
+    }
+
+    private void dispatch(String id, Map<String, Object> updates, TaskRemote.Callback callback) {
+        roundTrips++;
+        pendingWrites.sent(id);
+        long sentAt = System.nanoTime();
+        remote.updateChildren(updates, error -> {
+            recordAck(sentAt, error);
+            acknowledge(Collections.singleton(id), error);
+            if (callback != null) {
+                callback.onComplete(error);
+            } else if (error != null && failureListener != null) {
+                failureListener.onWriteFailed(id, error);
+            }
+        });
+    }
+
+    // A resposta vem na thread do Firebase; o modelo só muda na thread do TaskWriter
+    private void acknowledge(Collection<String> ids, Exception error) {
+        scheduler.schedule(() -> {
+            for (String id : ids) {
+                pendingWrites.acknowledged(id, error, pendingFields.containsKey(id));
+            }
+        }, 0);
+    }
+
+    // Cada lote conta separado: é o tempo que o usuário espera pela confirmação de um updateChildren
+    private void recordAck(long sentAt, Exception error) {
+        ackTimes.record(System.nanoTime() - sentAt);
+        if (error != null) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private static String taskIdOf(String path) {
+        int slash = path.indexOf('/');
+        return slash < 0 ? path : path.substring(0, slash);
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.todolistapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Caminhos do modelo com o FakeTaskDatabase no lugar do Firebase, em contas de 1k a 100k tarefas.
+// Roda com DataLayerBenchmarkTest (-Djmh=true), que grava o relatório em JSON.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataLayerBenchmark {
+
+    // Um lote cheio do TaskWriter por edição em massa
+    static final int BULK_SIZE = TaskWriter.MAX_PATHS_PER_WRITE;
+
+    private static final TaskIndex.Filter[] FILTERS = {
+            TaskIndex.Filter.PENDING, TaskIndex.Filter.COMPLETED, TaskIndex.Filter.ALL
+    };
+
+    // Conta já sincronizada, com a lista visível e o TaskWriter como no TaskRepository
+    @State(Scope.Thread)
+    public static class Account {
+
+        @Param({"1000", "10000", "100000"})
+        public int size;
+
+        FakeTaskDatabase database;
+        TaskStore store;
+        TaskView view;
+        TaskWriter writer;
+        List<String> ids;
+        ListenerRegistry.Subscription sync;
+        int next;
+        boolean bulkCompleted = true;
+
+        @Setup
+        public void setUp() {
+            database = new FakeTaskDatabase();
+            List<Task> tasks = FakeTaskDatabase.generate(size, database.now());
+            database.seed(tasks);
+            ids = new ArrayList<>(size);
+            for (Task task : tasks) {
+                ids.add(task.getId());
+            }
+            store = new TaskStore();
+            view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> runnable.run());
+            writer = new TaskWriter(store, database, (runnable, delayMillis) -> runnable.run());
+            TaskSyncListener listener = new TaskSyncListener(store, error -> {
+                throw new IllegalStateException(error.getMessage());
+            });
+            listener.setPendingWrites(writer.getPendingWrites());
+            sync = database.open(listener, 0);
+            sync.attach();
+        }
+
+        @TearDown
+        public void tearDown() {
+            sync.detach();
+        }
+
+        String nextId() {
+            String id = ids.get(next);
+            next = (next + 1) % ids.size();
+            return id;
+        }
+    }
+
+    // Índice de lembretes em arquivo temporário, com uma tarefa por lembrete já agendada
+    @State(Scope.Thread)
+    public static class Reminders {
+
+        @Param({"1000", "10000", "100000"})
+        public int size;
+
+        File directory;
+        ReminderScheduler scheduler;
+        long now = 1_700_000_000_000L;
+        int next;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("reminders").toFile();
+            ReminderScheduler.Alarms alarms = new ReminderScheduler.Alarms() {
+                @Override
+                public void setNext(long fireAt) {
+                }
+
+                @Override
+                public void cancelNext() {
+                }
+            };
+            scheduler = new ReminderScheduler(new ReminderIndex(new File(directory, "reminders.log")), alarms,
+                    () -> now);
+            for (int i = 0; i < size; i++) {
+                scheduler.schedule(String.format("t%06d", i), "Tarefa " + i, now + (i + 1) * 60_000L);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    // Abertura da conta: todos os filhos decodificados no TaskStore e reconciliados
+    @Benchmark
+    public TaskStore load(Account account) {
+        TaskStore store = new TaskStore();
+        ListenerRegistry.Subscription subscription = account.database.open(new TaskSyncListener(store, error -> {
+        }), 0);
+        subscription.attach();
+        subscription.detach();
+        return store;
+    }
+
+    // Troca de filtro na lista visível (antes, uma consulta nova ao Firebase)
+    @Benchmark
+    public int filter(Account account) {
+        account.view.setFilter(FILTERS[account.next++ % FILTERS.length]);
+        return account.view.size();
+    }
+
+    // Marcar uma tarefa: escrita otimista, eco do servidor e confirmação
+    @Benchmark
+    public int toggle(Account account) {
+        Task task = account.store.get(account.nextId()).copy();
+        task.setCompleted(!task.isCompleted());
+        account.writer.write(task, null);
+        return account.view.size();
+    }
+
+    // Concluir (ou reabrir) um lote de tarefas num único updateChildren
+    @Benchmark
+    public int bulkEdit(Account account) {
+        int from = account.next;
+        int to = Math.min(from + BULK_SIZE, account.ids.size());
+        boolean completed = account.bulkCompleted;
+        // A cada volta pela conta o sentido inverte, para o lote nunca ser um no-op
+        if (to == account.ids.size()) {
+            account.next = 0;
+            account.bulkCompleted = !completed;
+        } else {
+            account.next = to;
+        }
+        account.writer.completeAll(account.ids.subList(from, to), completed, null);
+        return account.view.size();
+    }
+
+    // Reagendar o lembrete de uma tarefa: log em disco e realarme do próximo horário
+    @Benchmark
+    public int scheduleReminder(Reminders reminders) throws IOException {
+        int i = reminders.next;
+        reminders.next = (i + 1) % reminders.size;
+        reminders.scheduler.schedule(String.format("t%06d", i), "Tarefa " + i,
+                reminders.now + (reminders.size - i) * 60_000L);
+        return reminders.scheduler.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+import static org.junit.Assume.assumeTrue;
+
+// Roda o DataLayerBenchmark pelo JMH só quando pedido, porque leva alguns minutos:
+//   ./gradlew :app:testDebugUnitTest --tests '*DataLayerBenchmarkTest' -Djmh=true
+// Opcionais: -Djmh.sizes=1000,10000 -Djmh.forks=0 -Djmh.report=<arquivo.json>
+public class DataLayerBenchmarkTest {
+
+    static final String DEFAULT_REPORT = "build/reports/jmh/data-layer.json";
+
+    @Test
+    public void runDataLayerSuite() throws Exception {
+        assumeTrue(Boolean.getBoolean("jmh"));
+        run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run();
+    }
+
+    static void run() throws Exception {
+        File report = new File(System.getProperty("jmh.report", DEFAULT_REPORT));
+        File parent = report.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IllegalStateException("Não foi possível criar " + parent);
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(DataLayerBenchmark.class.getName() + "\\.")
+                // O FakeTaskDatabase com 100k tarefas não cabe no heap padrão do worker de testes
+                .jvmArgsAppend("-Xmx2g")
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(report.getPath());
+        String sizes = System.getProperty("jmh.sizes");
+        if (sizes != null) {
+            options.param("size", sizes.split(","));
+        }
+        String forks = System.getProperty("jmh.forks");
+        if (forks != null) {
+            options.forks(Integer.parseInt(forks));
+        }
+        new Runner(options.build()).run();
+        System.out.printf("Relatório do JMH: %s%n", report.getAbsolutePath());
+    }
+}
@@ -0,0 +1,690 @@
+package com.example.todolistapp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+// O nó tasks/<uid> em memória, para testes e benchmarks sem emulador nem rede, com a partição
+// fria archive/<uid> do TaskArchiver. Faz o papel do
+// servidor e do cache local do SDK: aplica escritas multi-caminho (ServerValue.TIMESTAMP vira o
+// relógio do fake), entrega os filhos às assinaturas abertas (completa, incremental, páginas e
+// recortes de TaskQueries) e responde às escritas depois da latência configurada.
+// Determinístico: relógio e latência são controlados pelo teste e nada roda em threads próprias.
+// Os eventos vão para o modelExecutor, como os do Firebase vão para o TaskPipeline.
+public class FakeTaskDatabase implements TaskRemote, TaskRepository.SyncSource, TaskRepository.SliceSource,
+        TaskPager.PageSource, TaskArchiver.ArchiveSource, TaskTransfer.ExportSource {
+
+    // Decide se uma escrita é recusada; null aceita
+    public interface FailurePolicy {
+        Exception check(Map<String, Object> updates);
+    }
+
+    private static final class Scheduled {
+        final long dueAt;
+        final long order;
+        final Runnable runnable;
+
+        Scheduled(long dueAt, long order, Runnable runnable) {
+            this.dueAt = dueAt;
+            this.order = order;
+            this.runnable = runnable;
+        }
+    }
+
+    private final TreeMap<String, Map<String, Object>> children = new TreeMap<>();
+    // mês -> id -> campos
+    private final TreeMap<String, TreeMap<String, Map<String, Object>>> archive = new TreeMap<>();
+    private final Executor modelExecutor;
+    private final List<SyncSubscription> syncSubscriptions = new ArrayList<>();
+    private final List<SliceSubscription> sliceSubscriptions = new ArrayList<>();
+    private final List<PageSubscription> pageSubscriptions = new ArrayList<>();
+    private final PriorityQueue<Scheduled> scheduled = new PriorityQueue<>(
+            Comparator.<Scheduled>comparingLong(s -> s.dueAt).thenComparingLong(s -> s.order));
+    private long scheduledCount;
+    private long now = 1_700_000_000_000L;
+    private long latencyMillis;
+    private FailurePolicy failurePolicy;
+    private final ArrayDeque<Exception> nextFailures = new ArrayDeque<>();
+    private long bytesSent;
+    private long childrenSent;
+    private long writes;
+
+    public FakeTaskDatabase() {
+        this(Runnable::run);
+    }
+
+    public FakeTaskDatabase(Executor modelExecutor) {
+        this.modelExecutor = modelExecutor;
+    }
+
+    // Relógio do servidor: resolve ServerValue.TIMESTAMP e decide quando as respostas saem
+    public long now() {
+        return now;
+    }
+
+    public void setNow(long now) {
+        this.now = now;
+    }
+
+    // Avança o relógio entregando, em ordem, as respostas que vencem até lá
+    public void advance(long millis) {
+        long target = now + millis;
+        while (!scheduled.isEmpty() && scheduled.peek().dueAt <= target) {
+            Scheduled next = scheduled.poll();
+            now = Math.max(now, next.dueAt);
+            next.runnable.run();
+        }
+        now = target;
+    }
+
+    // Entrega tudo o que está pendente, avançando o relógio o necessário
+    public void drain() {
+        while (!scheduled.isEmpty()) {
+            advance(scheduled.peek().dueAt - now);
+        }
+    }
+
+    // Tempo entre o updateChildren (ou o attach da sincronização) e a resposta do servidor;
+    // 0 responde na hora
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public void setFailurePolicy(FailurePolicy failurePolicy) {
+        this.failurePolicy = failurePolicy;
+    }
+
+    // As próximas count escritas são recusadas com o erro dado
+    public void failNext(int count, Exception error) {
+        for (int i = 0; i < count; i++) {
+            nextFailures.add(error);
+        }
+    }
+
+    // Dados já no servidor antes do teste: não geram eventos nem contam como escrita
+    public void seed(Task task) {
+        Map<String, Object> node = TaskCodec.toMap(task);
+        node.values().removeIf(value -> value == null);
+        children.put(task.getId(), node);
+    }
+
+    public void seed(List<Task> tasks) {
+        for (Task task : tasks) {
+            seed(task);
+        }
+    }
+
+    // n tarefas determinísticas com prazos, prioridades e conclusões variados
+    public static List<Task> generate(int count, long now) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = String.format("t%06d", i);
+            long updatedAt = now - (count - i) * 1_000L;
+            Long dueAt = i % 5 == 0 ? null : now + (i % 7 - 3) * 24 * 60 * 60 * 1000L;
+            tasks.add(new Task(id, "Tarefa " + i, "Descrição da tarefa número " + i, i % 3 == 0,
+                    updatedAt, updatedAt, dueAt, i % 4, null));
+        }
+        return tasks;
+    }
+
+    public Map<String, Object> get(String id) {
+        Map<String, Object> node = children.get(id);
+        return node == null ? null : Collections.unmodifiableMap(node);
+    }
+
+    // Nó da tarefa no arquivo, em qualquer mês
+    public Map<String, Object> getArchived(String id) {
+        for (TreeMap<String, Map<String, Object>> month : archive.values()) {
+            Map<String, Object> node = month.get(id);
+            if (node != null) {
+                return Collections.unmodifiableMap(node);
+            }
+        }
+        return null;
+    }
+
+    public List<String> getArchiveMonths() {
+        return new ArrayList<>(archive.keySet());
+    }
+
+    public int archivedCount() {
+        int archived = 0;
+        for (TreeMap<String, Map<String, Object>> month : archive.values()) {
+            archived += month.size();
+        }
+        return archived;
+    }
+
+    // Filhos que não são marcas de exclusão
+    public int liveCount() {
+        int live = 0;
+        for (Map<String, Object> node : children.values()) {
+            if (!TaskCodec.isTombstone(node)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getChildrenSent() {
+        return childrenSent;
+    }
+
+    public long getWriteCount() {
+        return writes;
+    }
+
+    public int getPendingResponseCount() {
+        return scheduled.size();
+    }
+
+    // O SDK aplica a escrita no cache local e avisa os listeners na hora; o servidor responde
+    // depois. Numa recusa, os listeners recebem de volta o valor do servidor antes do erro.
+    @Override
+    public void updateChildren(Map<String, Object> updates, Callback callback) {
+        write(updates, updates, Collections.<String, Object>emptyMap(), callback);
+    }
+
+    // Os caminhos vêm relativos ao usuário: "tasks/<id>…" e "archive/<mês>/<id>…"
+    @Override
+    public void updatePartitions(Map<String, Object> updates, Callback callback) {
+        Map<String, Object> hot = new LinkedHashMap<>();
+        Map<String, Object> cold = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            String path = update.getKey();
+            if (path.startsWith(TaskArchiver.HOT + "/")) {
+                hot.put(path.substring(TaskArchiver.HOT.length() + 1), update.getValue());
+            } else if (path.startsWith(TaskArchiver.ARCHIVE + "/")) {
+                cold.put(path.substring(TaskArchiver.ARCHIVE.length() + 1), update.getValue());
+            } else {
+                throw new IllegalArgumentException("Caminho fora das partições: " + path);
+            }
+        }
+        write(updates, hot, cold, callback);
+    }
+
+    // As duas partições mudam juntas ou nenhuma muda, como num updateChildren na raiz
+    private void write(Map<String, Object> updates, Map<String, Object> hot, Map<String, Object> cold,
+                       Callback callback) {
+        writes++;
+        Exception error = nextFailures.isEmpty() ? null : nextFailures.poll();
+        if (error == null && failurePolicy != null) {
+            error = failurePolicy.check(updates);
+        }
+        Set<String> ids;
+        if (error == null) {
+            ids = apply(children, hot);
+            applyArchive(cold);
+        } else {
+            TreeMap<String, Map<String, Object>> local = new TreeMap<>();
+            for (String id : idsOf(hot)) {
+                Map<String, Object> node = children.get(id);
+                if (node != null) {
+                    local.put(id, new LinkedHashMap<>(node));
+                }
+            }
+            ids = apply(local, hot);
+            deliverLocal(ids, local);
+        }
+        if (error == null) {
+            deliver(ids);
+        }
+        Exception result = error;
+        respond(() -> {
+            if (result != null) {
+                // O cache local volta ao que o servidor tem
+                deliver(ids);
+            }
+            callback.onComplete(result);
+        });
+    }
+
+    @Override
+    public ListenerRegistry.Subscription open(TaskSyncListener listener, long since) {
+        SyncSubscription subscription = new SyncSubscription(listener, since);
+        boolean[] attached = new boolean[1];
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                long attachedAt = System.nanoTime();
+                attached[0] = true;
+                // A carga inicial também espera a latência; um detach antes dela não recebe nada
+                respond(() -> {
+                    if (!attached[0]) {
+                        return;
+                    }
+                    syncSubscriptions.add(subscription);
+                    List<Map.Entry<String, Map<String, Object>>> initial = new ArrayList<>();
+                    for (Map.Entry<String, Map<String, Object>> child : children.entrySet()) {
+                        if (subscription.matches(child.getValue())) {
+                            initial.add(copy(child));
+                        }
+                    }
+                    count(initial);
+                    modelExecutor.execute(() -> {
+                        listener.beginLoad(attachedAt);
+                        if (since <= 0) {
+                            listener.beginResync();
+                        }
+                        for (Map.Entry<String, Map<String, Object>> child : initial) {
+                            listener.applyFields(child.getKey(), child.getValue());
+                        }
+                        if (since <= 0) {
+                            listener.endResync();
+                        } else {
+                            listener.endDelta();
+                        }
+                    });
+                });
+            }
+
+            @Override
+            public void detach() {
+                attached[0] = false;
+                syncSubscriptions.remove(subscription);
+            }
+        };
+    }
+
+    @Override
+    public ListenerRegistry.Subscription open(TaskQueries.Slice slice, long now, TaskRepository.SliceListener listener) {
+        SliceSubscription subscription = new SliceSubscription(slice, now, listener);
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                sliceSubscriptions.add(subscription);
+                subscription.publish();
+            }
+
+            @Override
+            public void detach() {
+                sliceSubscriptions.remove(subscription);
+            }
+        };
+    }
+
+    @Override
+    public ListenerRegistry.Subscription open(String afterKey, int limit, TaskPager.Page page) {
+        PageSubscription subscription = new PageSubscription(afterKey, limit, page);
+        return new ListenerRegistry.Subscription() {
+            @Override
+            public void attach() {
+                pageSubscriptions.add(subscription);
+                modelExecutor.execute(page::beginLoad);
+                subscription.sync();
+                modelExecutor.execute(page::endLoad);
+            }
+
+            @Override
+            public void detach() {
+                pageSubscriptions.remove(subscription);
+            }
+        };
+    }
+
+    // orderByKey().startAfter(afterKey).limitToFirst(limit), lido uma vez
+    @Override
+    public Map<String, Map<String, Object>> readPage(String afterKey, int limit) {
+        Map<String, Map<String, Object>> page = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> child
+                : (afterKey == null ? children : children.tailMap(afterKey, false)).entrySet()) {
+            if (page.size() == limit) {
+                break;
+            }
+            Map.Entry<String, Map<String, Object>> sent = copy(child);
+            count(Collections.singletonList(sent));
+            page.put(sent.getKey(), sent.getValue());
+        }
+        return page;
+    }
+
+    // orderByChild(updatedAt).startAt(cursor).endBefore(before).limitToFirst(limit), sem o cursor
+    @Override
+    public void scanHot(Object afterValue, String afterKey, long before, int limit, TaskArchiver.ScanCallback callback) {
+        List<Map.Entry<String, Map<String, Object>>> ordered = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> child : children.entrySet()) {
+            Object value = child.getValue().get(Task.FIELD_UPDATED_AT);
+            if (value == null || ((Number) value).longValue() < before) {
+                ordered.add(child);
+            }
+        }
+        ordered.sort((a, b) -> compareByChild(a, b, Task.FIELD_UPDATED_AT));
+        Map<String, Object> cursorFields = new LinkedHashMap<>();
+        if (afterValue != null) {
+            cursorFields.put(Task.FIELD_UPDATED_AT, afterValue);
+        }
+        Map.Entry<String, Map<String, Object>> cursor = afterKey == null ? null
+                : new java.util.AbstractMap.SimpleImmutableEntry<>(afterKey, cursorFields);
+        Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+        List<Map.Entry<String, Map<String, Object>>> sent = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> child : ordered) {
+            if (scanned.size() == limit) {
+                break;
+            }
+            if (cursor == null || compareByChild(child, cursor, Task.FIELD_UPDATED_AT) > 0) {
+                Map.Entry<String, Map<String, Object>> copy = copy(child);
+                scanned.put(copy.getKey(), copy.getValue());
+                sent.add(copy);
+            }
+        }
+        count(sent);
+        modelExecutor.execute(() -> callback.onScanned(scanned));
+    }
+
+    // orderByKey().endBefore(beforeMonth).limitToLast(1) em archive/<uid>
+    @Override
+    public void loadMonth(String beforeMonth, TaskArchiver.MonthCallback callback) {
+        String month = beforeMonth == null ? (archive.isEmpty() ? null : archive.lastKey()) : archive.lowerKey(beforeMonth);
+        List<Task> tasks = new ArrayList<>();
+        if (month != null) {
+            List<Map.Entry<String, Map<String, Object>>> sent = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> child : archive.get(month).entrySet()) {
+                sent.add(copy(child));
+                tasks.add(TaskCodec.fromMap(child.getKey(), child.getValue()));
+            }
+            count(sent);
+        }
+        modelExecutor.execute(() -> callback.onMonthLoaded(month, tasks));
+    }
+
+    // "<mês>/<id>" troca o nó inteiro, "<mês>/<id>/<campo>" só o campo; meses vazios somem
+    private void applyArchive(Map<String, Object> updates) {
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            String[] path = update.getKey().split("/", 3);
+            TreeMap<String, Map<String, Object>> month = archive.get(path[0]);
+            if (month == null) {
+                month = new TreeMap<>();
+                archive.put(path[0], month);
+            }
+            TreeMap<String, Map<String, Object>> target = new TreeMap<>();
+            Map<String, Object> node = month.get(path[1]);
+            if (node != null) {
+                target.put(path[1], node);
+            }
+            String relative = path.length == 2 ? path[1] : path[1] + "/" + path[2];
+            apply(target, Collections.singletonMap(relative, update.getValue()));
+            if (target.containsKey(path[1])) {
+                month.put(path[1], target.get(path[1]));
+            } else {
+                month.remove(path[1]);
+            }
+            if (month.isEmpty()) {
+                archive.remove(path[0]);
+            }
+        }
+    }
+
+    private void respond(Runnable response) {
+        if (latencyMillis <= 0) {
+            response.run();
+        } else {
+            scheduled.add(new Scheduled(now + latencyMillis, scheduledCount++, response));
+        }
+    }
+
+    // Multi-caminho como no servidor: "id" troca o nó inteiro, "id/campo" só o campo, null apaga
+    private Set<String> apply(TreeMap<String, Map<String, Object>> target, Map<String, Object> updates) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            String path = update.getKey();
+            Object value = resolve(update.getValue());
+            int slash = path.indexOf('/');
+            String id = slash < 0 ? path : path.substring(0, slash);
+            ids.add(id);
+            if (slash < 0) {
+                if (value == null) {
+                    target.remove(id);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> node = new LinkedHashMap<>((Map<String, Object>) value);
+                    node.replaceAll((field, fieldValue) -> resolve(fieldValue));
+                    node.values().removeIf(fieldValue -> fieldValue == null);
+                    target.put(id, node);
+                }
+                continue;
+            }
+            String field = path.substring(slash + 1);
+            Map<String, Object> node = target.get(id);
+            if (value == null) {
+                if (node != null) {
+                    node.remove(field);
+                    // Nó sem campos deixa de existir
+                    if (node.isEmpty()) {
+                        target.remove(id);
+                    }
+                }
+            } else {
+                if (node == null) {
+                    node = new LinkedHashMap<>();
+                    target.put(id, node);
+                }
+                node.put(field, value);
+            }
+        }
+        return ids;
+    }
+
+    private Object resolve(Object value) {
+        return TaskCodec.SERVER_TIMESTAMP.equals(value) ? (Object) now : value;
+    }
+
+    private void deliver(Set<String> ids) {
+        deliverLocal(ids, children);
+    }
+
+    private void deliverLocal(Set<String> ids, TreeMap<String, Map<String, Object>> state) {
+        for (SyncSubscription subscription : new ArrayList<>(syncSubscriptions)) {
+            for (String id : ids) {
+                Map<String, Object> node = state.get(id);
+                if (node == null) {
+                    childrenSent++;
+                    modelExecutor.execute(() -> subscription.listener.applyRemoval(id));
+                } else if (subscription.matches(node)) {
+                    Map.Entry<String, Map<String, Object>> child = copy(id, node);
+                    count(Collections.singletonList(child));
+                    modelExecutor.execute(() -> subscription.listener.applyFields(child.getKey(), child.getValue()));
+                }
+            }
+        }
+        for (PageSubscription subscription : new ArrayList<>(pageSubscriptions)) {
+            subscription.sync(state);
+        }
+        for (SliceSubscription subscription : new ArrayList<>(sliceSubscriptions)) {
+            subscription.publish(state);
+        }
+    }
+
+    private void count(List<Map.Entry<String, Map<String, Object>>> sent) {
+        for (Map.Entry<String, Map<String, Object>> child : sent) {
+            childrenSent++;
+            bytesSent += wireSize(child.getKey(), child.getValue());
+        }
+    }
+
+    // Tamanho aproximado do JSON do filho como o Firebase o envia
+    static long wireSize(String key, Map<String, Object> fields) {
+        long size = key.length() + 4;
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            size += field.getKey().length() + String.valueOf(field.getValue()).length() + 6;
+        }
+        return size;
+    }
+
+    private static Set<String> idsOf(Map<String, Object> updates) {
+        Set<String> ids = new HashSet<>();
+        for (String path : updates.keySet()) {
+            int slash = path.indexOf('/');
+            ids.add(slash < 0 ? path : path.substring(0, slash));
+        }
+        return ids;
+    }
+
+    // Cada evento leva um mapa novo, como o getValue() de um DataSnapshot
+    private static Map.Entry<String, Map<String, Object>> copy(Map.Entry<String, Map<String, Object>> child) {
+        return copy(child.getKey(), child.getValue());
+    }
+
+    private static Map.Entry<String, Map<String, Object>> copy(String id, Map<String, Object> node) {
+        return new java.util.AbstractMap.SimpleImmutableEntry<>(id, new LinkedHashMap<>(node));
+    }
+
+    // orderByChild: ausentes (null) primeiro, depois números em ordem, empates pela chave
+    private static int compareByChild(Map.Entry<String, Map<String, Object>> a, Map.Entry<String, Map<String, Object>> b,
+                                      String field) {
+        Object valueA = a.getValue().get(field);
+        Object valueB = b.getValue().get(field);
+        if (valueA == null || valueB == null) {
+            if (valueA != valueB) {
+                return valueA == null ? -1 : 1;
+            }
+        } else {
+            int compared = Double.compare(((Number) valueA).doubleValue(), ((Number) valueB).doubleValue());
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return a.getKey().compareTo(b.getKey());
+    }
+
+    private final class SyncSubscription {
+        final TaskSyncListener listener;
+        final long since;
+
+        SyncSubscription(TaskSyncListener listener, long since) {
+            this.listener = listener;
+            this.since = since;
+        }
+
+        // orderByChild(updatedAt).startAt(since) quando incremental
+        boolean matches(Map<String, Object> node) {
+            return since <= 0 || TaskCodec.updatedAtOf(node) >= since;
+        }
+    }
+
+    // Resolve a consulta de TaskQueries como o servidor, pelo campo derivado
+    private final class SliceSubscription {
+        final TaskQueries.Slice slice;
+        final long queryNow;
+        final TaskRepository.SliceListener listener;
+
+        SliceSubscription(TaskQueries.Slice slice, long queryNow, TaskRepository.SliceListener listener) {
+            this.slice = slice;
+            this.queryNow = queryNow;
+            this.listener = listener;
+        }
+
+        void publish() {
+            publish(children);
+        }
+
+        // Um ValueEventListener recebe o recorte inteiro a cada alteração
+        void publish(Map<String, Map<String, Object>> state) {
+            String field = slice == TaskQueries.Slice.TOP_PRIORITY ? Task.FIELD_PENDING_PRIORITY : Task.FIELD_PENDING_DUE_AT;
+            List<Map.Entry<String, Map<String, Object>>> matching = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> child : state.entrySet()) {
+                Object value = child.getValue().get(field);
+                if (value instanceof Number && inRange(((Number) value).longValue())) {
+                    matching.add(copy(child));
+                }
+            }
+            matching.sort((a, b) -> compareByChild(a, b, field));
+            if (matching.size() > TaskQueries.SLICE_LIMIT) {
+                matching = slice == TaskQueries.Slice.TOP_PRIORITY
+                        ? new ArrayList<>(matching.subList(matching.size() - TaskQueries.SLICE_LIMIT, matching.size()))
+                        : new ArrayList<>(matching.subList(0, TaskQueries.SLICE_LIMIT));
+            }
+            count(matching);
+            List<Task> tasks = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> child : matching) {
+                tasks.add(TaskCodec.fromMap(child.getKey(), child.getValue()));
+            }
+            // Maior prioridade no topo, como o FirebaseTaskSliceSource entrega
+            if (slice == TaskQueries.Slice.TOP_PRIORITY) {
+                Collections.reverse(tasks);
+            }
+            modelExecutor.execute(() -> listener.onSliceLoaded(tasks));
+        }
+
+        private boolean inRange(long value) {
+            switch (slice) {
+                case DUE_TODAY:
+                    long[] day = TaskQueries.dayBounds(queryNow, TimeZone.getDefault());
+                    return value >= day[0] && value < day[1];
+                case OVERDUE:
+                    return value >= 0 && value < queryNow;
+                default:
+                    return value >= Task.PRIORITY_LOW;
+            }
+        }
+    }
+
+    // orderByKey().startAfter(cursor).limitToFirst(n): os filhos que entram e saem da janela
+    private final class PageSubscription {
+        final String afterKey;
+        final int limit;
+        final TaskPager.Page page;
+        Map<String, Map<String, Object>> window = new LinkedHashMap<>();
+
+        PageSubscription(String afterKey, int limit, TaskPager.Page page) {
+            this.afterKey = afterKey;
+            this.limit = limit;
+            this.page = page;
+        }
+
+        void sync() {
+            sync(children);
+        }
+
+        void sync(TreeMap<String, Map<String, Object>> state) {
+            Map<String, Map<String, Object>> next = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Object>> child
+                    : (afterKey == null ? state : state.tailMap(afterKey, false)).entrySet()) {
+                if (next.size() == limit) {
+                    break;
+                }
+                next.put(child.getKey(), child.getValue());
+            }
+            Map<String, Map<String, Object>> previous = window;
+            window = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Object>> child : next.entrySet()) {
+                window.put(child.getKey(), new LinkedHashMap<>(child.getValue()));
+            }
+            for (String id : previous.keySet()) {
+                if (!window.containsKey(id)) {
+                    childrenSent++;
+                    modelExecutor.execute(() -> page.applyRemoval(id));
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> child : window.entrySet()) {
+                if (child.getValue().equals(previous.get(child.getKey()))) {
+                    continue;
+                }
+                count(Collections.singletonList(child));
+                String id = child.getKey();
+                Map<String, Object> node = child.getValue();
+                modelExecutor.execute(() -> {
+                    if (TaskCodec.isTombstone(node)) {
+                        page.applyTombstone(id);
+                    } else {
+                        page.applyTask(TaskCodec.fromMap(id, node));
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.todolistapp;
+
+import com.google.firebase.database.DatabaseError;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FakeTaskDatabaseTest {
+
+    private static final Exception DENIED = new Exception("Permission denied");
+
+    private FakeTaskDatabase database;
+    private TaskStore store;
+    private TaskSyncListener listener;
+    private TaskWriter writer;
+
+    @Before
+    public void setUp() {
+        database = new FakeTaskDatabase();
+        database.seed(FakeTaskDatabase.generate(1_000, database.now()));
+        store = new TaskStore();
+        writer = new TaskWriter(store, database, (runnable, delayMillis) -> runnable.run());
+        listener = new TaskSyncListener(store, error -> fail());
+        listener.setPendingWrites(writer.getPendingWrites());
+    }
+
+    @Test
+    public void fullSyncLoadsEveryChild() {
+        database.open(listener, 0).attach();
+
+        assertEquals(1_000, store.size());
+        assertEquals(1_000, database.getChildrenSent());
+        assertTrue(database.getBytesSent() > 0);
+    }
+
+    @Test
+    public void deltaSendsOnlyChildrenChangedSinceTheWatermark() {
+        database.open(listener, 0).attach();
+        long since = database.now();
+        // Alterada por outro aparelho enquanto este estava desconectado
+        database.seed(new Task("t000010", "Editada", "", false, since, since, null, Task.PRIORITY_NONE, null));
+        long before = database.getChildrenSent();
+
+        database.open(listener, since).attach();
+
+        assertEquals(1, database.getChildrenSent() - before);
+        assertEquals("Editada", store.get("t000010").getTitle());
+        assertEquals(1_000, store.size());
+    }
+
+    @Test
+    public void writeIsEchoedWithTheServerTimestamp() {
+        database.open(listener, 0).attach();
+        database.setNow(database.now() + 5_000);
+        Task toggled = store.get("t000001").copy();
+        toggled.setCompleted(!toggled.isCompleted());
+        List<Exception> results = new ArrayList<>();
+
+        writer.write(toggled, results::add);
+
+        assertEquals(Arrays.asList((Exception) null), results);
+        assertEquals(database.now(), database.get("t000001").get(Task.FIELD_UPDATED_AT));
+        assertEquals(toggled.isCompleted(), store.get("t000001").isCompleted());
+        assertFalse(store.get("t000001").isAwaitingAck());
+    }
+
+    @Test
+    public void latencyHoldsTheAckUntilTheClockAdvances() {
+        database.open(listener, 0).attach();
+        database.setLatencyMillis(200);
+        List<Exception> results = new ArrayList<>();
+
+        writer.create(new Task("n1", "Nova", "", false), results::add);
+
+        assertTrue(store.get("n1").isAwaitingAck());
+        assertTrue(results.isEmpty());
+        database.advance(199);
+        assertTrue(results.isEmpty());
+        database.advance(1);
+        assertEquals(1, results.size());
+        assertNull(results.get(0));
+        assertFalse(store.get("n1").isAwaitingAck());
+    }
+
+    @Test
+    public void rejectedWriteIsRevertedBeforeTheErrorArrives() {
+        database.open(listener, 0).attach();
+        database.setLatencyMillis(50);
+        database.failNext(1, DENIED);
+        Task edited = store.get("t000002").copy();
+        String original = edited.getTitle();
+        edited.setTitle("Recusada");
+        List<Exception> results = new ArrayList<>();
+
+        writer.write(edited, results::add);
+        assertEquals("Recusada", store.get("t000002").getTitle());
+        database.drain();
+
+        assertEquals(Arrays.asList(DENIED), results);
+        assertEquals(original, store.get("t000002").getTitle());
+        assertEquals(original, database.get("t000002").get(Task.FIELD_TITLE));
+        assertEquals(1, writer.getPendingWrites().getRollbackCount());
+    }
+
+    @Test
+    public void failurePolicyRejectsMatchingWrites() {
+        database.open(listener, 0).attach();
+        database.setFailurePolicy(updates -> updates.containsKey("t000003") ? DENIED : null);
+        List<Exception> results = new ArrayList<>();
+
+        writer.delete("t000003", results::add);
+        writer.delete("t000004", results::add);
+
+        assertEquals(Arrays.asList(DENIED, null), results);
+        assertNotNull(store.get("t000003"));
+        assertNull(store.get("t000004"));
+        assertEquals(999, database.liveCount());
+    }
+
+    @Test
+    public void sliceIsRedeliveredOnChange() {
+        List<List<Task>> deliveries = new ArrayList<>();
+        database.open(TaskQueries.Slice.TOP_PRIORITY, database.now(), new TaskRepository.SliceListener() {
+            @Override
+            public void onSliceLoaded(List<Task> tasks) {
+                deliveries.add(tasks);
+            }
+
+            @Override
+            public void onSliceCancelled(DatabaseError error) {
+                fail();
+            }
+        }).attach();
+
+        List<Task> first = deliveries.get(0);
+        assertEquals(TaskQueries.SLICE_LIMIT, first.size());
+        assertEquals(Task.PRIORITY_HIGH, first.get(0).getPriority());
+        for (Task task : first) {
+            assertFalse(task.isCompleted());
+        }
+        database.open(listener, 0).attach();
+        writer.completeAll(Arrays.asList(first.get(0).getId()), true, null);
+
+        assertEquals(2, deliveries.size());
+        for (Task task : deliveries.get(1)) {
+            assertNotEquals(first.get(0).getId(), task.getId());
+        }
+    }
+
+    @Test
+    public void pageWindowFollowsInsertsBeforeTheCursor() {
+        ListenerRegistry registry = new ListenerRegistry();
+        TaskPager pager = new TaskPager(store, registry, database, "tasks/u1", error -> fail());
+        pager.start();
+
+        assertEquals(TaskPager.PAGE_SIZE, store.size());
+        database.updateChildren(Collections.singletonMap("a0", TaskCodec.toMap(new Task("a0", "Primeira", "", false))),
+                error -> assertNull(error));
+
+        assertNotNull(store.get("a0"));
+        assertEquals(TaskPager.PAGE_SIZE, store.size());
+    }
+}
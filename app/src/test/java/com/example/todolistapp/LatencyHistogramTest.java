@@ -0,0 +1,108 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 128; value++) {
+            histogram.record(value);
+        }
+        assertEquals(128, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(127, histogram.getMax());
+        assertEquals(63.5, histogram.getMean(), 1e-9);
+        assertEquals(63, histogram.getValueAtPercentile(50));
+        assertEquals(127, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void bucketsCoverEveryValueWithoutGaps() {
+        for (int index = 1; index < 64 * 58; index++) {
+            assertEquals(LatencyHistogram.highestValueAt(index - 1) + 1, LatencyHistogram.lowestValueAt(index));
+        }
+        long[] samples = {0, 1, 127, 128, 129, 255, 256, 1_000, 123_456_789, Long.MAX_VALUE};
+        for (long value : samples) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value >= LatencyHistogram.lowestValueAt(index));
+            assertTrue(value <= LatencyHistogram.highestValueAt(index));
+        }
+    }
+
+    // Latências de 1 µs a 1 s espalhadas em escala logarítmica, comparadas com a ordenação exata
+    @Test
+    public void percentilesWithinRelativeError() {
+        Random random = new Random(42);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        long sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            histogram.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(percentile);
+            assertTrue("p" + percentile + ": " + estimate + " vs " + exact, estimate >= exact);
+            assertTrue("p" + percentile + ": " + estimate + " vs " + exact, estimate - exact <= exact / 64);
+        }
+        assertEquals(values[0], histogram.getMin());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals((double) sum / values.length, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    public void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(7);
+        assertEquals(7, histogram.getMin());
+        assertEquals(7, histogram.getMax());
+    }
+
+    @Test
+    public void concurrentRecordsAreNotLost() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long offset = t * 1_000_000L;
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= 50_000; i++) {
+                    histogram.record(offset + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(3_050_000, histogram.getMax());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ListenerRegistryTest {
+
+    // Simula o nó tasks/<uid>: reenvia os filhos ao anexar e propaga cada escrita
+    private static class FakeTaskNode {
+        final Map<String, Task> children = new LinkedHashMap<>();
+        final List<TaskSyncListener> listeners = new ArrayList<>();
+
+        ListenerRegistry.Subscription subscriptionFor(TaskSyncListener listener) {
+            return new ListenerRegistry.Subscription() {
+                @Override
+                public void attach() {
+                    listener.beginResync();
+                    listeners.add(listener);
+                    for (Task task : children.values()) {
+                        listener.applyTask(copy(task));
+                    }
+                    listener.endResync();
+                }
+
+                @Override
+                public void detach() {
+                    listeners.remove(listener);
+                }
+            };
+        }
+
+        void write(Task task) {
+            children.put(task.getId(), task);
+            for (TaskSyncListener listener : listeners) {
+                listener.applyTask(copy(task));
+            }
+        }
+
+        void delete(String id) {
+            children.remove(id);
+            for (TaskSyncListener listener : listeners) {
+                listener.applyRemoval(id);
+            }
+        }
+
+        private static Task copy(Task task) {
+            return new Task(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted());
+        }
+    }
+
+    private FakeTaskNode node;
+    private TaskStore store;
+    private TaskSyncListener syncListener;
+    private ListenerRegistry registry;
+    private int modelUpdates;
+
+    @Before
+    public void setUp() {
+        node = new FakeTaskNode();
+        node.write(new Task("a", "A", "", false));
+        store = new TaskStore();
+        syncListener = new TaskSyncListener(store, error -> fail());
+        registry = new ListenerRegistry();
+        store.addObserver(new TaskStore.Observer() {
+            @Override
+            public void onTaskInserted(int position, Task task) {
+                modelUpdates++;
+            }
+
+            @Override
+            public void onTaskChanged(int position, Task previous, Task task) {
+                modelUpdates++;
+            }
+
+            @Override
+            public void onTaskRemoved(int position, Task task) {
+                modelUpdates++;
+            }
+
+            @Override
+            public void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task) {
+            }
+
+            @Override
+            public void onTasksReplaced() {
+            }
+        });
+    }
+
+    @Test
+    public void repeatedSubscribeKeepsOneListener() {
+        assertTrue(registry.subscribe("tasks/u1", node.subscriptionFor(syncListener)));
+        assertFalse(registry.subscribe("tasks/u1", node.subscriptionFor(syncListener)));
+        assertFalse(registry.subscribe("tasks/u1", node.subscriptionFor(syncListener)));
+
+        assertEquals(1, registry.getActiveCount());
+        assertEquals(1, node.listeners.size());
+    }
+
+    @Test
+    public void oneWriteCausesOneModelUpdate() {
+        for (int i = 0; i < 5; i++) {
+            registry.subscribe("tasks/u1", node.subscriptionFor(syncListener));
+        }
+        modelUpdates = 0;
+        long callbacksBefore = syncListener.getCallbackCount();
+
+        node.write(new Task("a", "A", "", true));
+
+        assertEquals(1, modelUpdates);
+        assertEquals(1, syncListener.getCallbackCount() - callbacksBefore);
+    }
+
+    @Test
+    public void stopDetachesAndRestartDoesNotStack() {
+        for (int cycle = 0; cycle < 3; cycle++) {
+            registry.subscribe("tasks/u1", node.subscriptionFor(syncListener));
+            registry.unsubscribeAll();
+            assertEquals(0, registry.getActiveCount());
+            assertTrue(node.listeners.isEmpty());
+        }
+        registry.subscribe("tasks/u1", node.subscriptionFor(syncListener));
+        modelUpdates = 0;
+
+        node.write(new Task("b", "B", "", false));
+
+        assertEquals(1, node.listeners.size());
+        assertEquals(1, modelUpdates);
+    }
+
+    @Test
+    public void resubscribeDropsTasksDeletedWhileStopped() {
+        registry.subscribe("tasks/u1", node.subscriptionFor(syncListener));
+        node.write(new Task("b", "B", "", false));
+        registry.unsubscribeAll();
+
+        node.delete("a");
+        registry.subscribe("tasks/u1", node.subscriptionFor(syncListener));
+
+        assertNull(store.get("a"));
+        assertNotNull(store.get("b"));
+        assertEquals(1, store.size());
+    }
+}
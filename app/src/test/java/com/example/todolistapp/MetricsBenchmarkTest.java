@@ -0,0 +1,57 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+// Custo de um registro (nanoTime + histograma) comparado ao trabalho que ele mede:
+// decodificar e aplicar um filho do Firebase no TaskStore
+public class MetricsBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void recordingOverheadIsNegligible() {
+        // Limites de tempo só com -Djmh=true, como o DataLayerBenchmarkTest
+        assumeTrue(Boolean.getBoolean("jmh"));
+        List<Map<String, Object>> children = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            children.add(TaskCodec.toMap(new Task("t" + i, "Tarefa " + i, "Descrição da tarefa número " + i,
+                    i % 3 == 0, 1_000L + i, 1_000L + i, null, i % 4, null)));
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long recordNanos = Long.MAX_VALUE;
+        long applyNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < TASKS; i++) {
+                long sampleStart = System.nanoTime();
+                histogram.record(System.nanoTime() - sampleStart);
+            }
+            recordNanos = Math.min(recordNanos, System.nanoTime() - startedAt);
+
+            TaskSyncListener listener = new TaskSyncListener(new TaskStore(), error -> fail());
+            startedAt = System.nanoTime();
+            for (int i = 0; i < TASKS; i++) {
+                listener.applyFields("t" + i, children.get(i));
+            }
+            applyNanos = Math.min(applyNanos, System.nanoTime() - startedAt);
+        }
+
+        double perRecord = (double) recordNanos / TASKS;
+        double perApply = (double) applyNanos / TASKS;
+        // Só um filho a cada PARSE_SAMPLE_INTERVAL é cronometrado
+        double perChild = perRecord / TaskSyncListener.PARSE_SAMPLE_INTERVAL;
+        // Na prática fica em dezenas de ns
+        assertTrue(perRecord < 1_000);
+        assertTrue(perChild < perApply / 10);
+        assertEquals((long) ROUNDS * TASKS, histogram.getCount());
+    }
+}
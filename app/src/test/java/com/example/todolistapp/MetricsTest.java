@@ -0,0 +1,96 @@
+package com.example.todolistapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.reset();
+    }
+
+    @Test
+    public void sameNameReturnsSameInstrument() {
+        Metrics metrics = Metrics.get();
+        assertSame(metrics.histogram(Metrics.WRITE_ACK_NS), metrics.histogram(Metrics.WRITE_ACK_NS));
+        assertSame(metrics.counter(Metrics.SYNC_EVENTS), metrics.counter(Metrics.SYNC_EVENTS));
+    }
+
+    @Test
+    public void jsonHasCountersGaugesAndPercentiles() {
+        Metrics metrics = Metrics.get();
+        metrics.counter(Metrics.WRITE_FAILURES).addAndGet(2);
+        metrics.registerGauge(Metrics.LISTENERS_ACTIVE, () -> 3);
+        LatencyHistogram acks = metrics.histogram(Metrics.WRITE_ACK_NS);
+        for (long value = 1; value <= 100; value++) {
+            acks.record(value);
+        }
+
+        assertEquals("{\"counters\":{\"listeners.active\":3,\"write.failures\":2},"
+                + "\"histograms\":{\"write.ack_ns\":{\"count\":100,\"min\":1,\"mean\":50.5,"
+                + "\"p50\":50,\"p90\":90,\"p99\":99,\"p999\":100,\"max\":100}}}", metrics.toJson());
+    }
+
+    @Test
+    public void clearKeepsInstrumentsButZeroesThem() {
+        Metrics metrics = Metrics.get();
+        LatencyHistogram parse = metrics.histogram(Metrics.SYNC_PARSE_NS);
+        parse.record(10);
+        metrics.counter(Metrics.SYNC_EVENTS).incrementAndGet();
+
+        metrics.clear();
+
+        assertSame(parse, metrics.histogram(Metrics.SYNC_PARSE_NS));
+        assertEquals(0, parse.getCount());
+        assertEquals(0, metrics.counter(Metrics.SYNC_EVENTS).get());
+    }
+
+    // A carga inicial conta do attach até o fim do resync, com os filhos aplicados nesse meio
+    @Test
+    public void syncListenerRecordsParseAndInitialLoad() {
+        TaskSyncListener listener = new TaskSyncListener(new TaskStore(), error -> fail());
+        listener.beginLoad(System.nanoTime());
+        listener.beginResync();
+        int children = 2 * TaskSyncListener.PARSE_SAMPLE_INTERVAL;
+        for (int i = 0; i < children; i++) {
+            listener.applyFields("t" + i, TaskCodec.toMap(new Task("t" + i, "Tarefa", "", false)));
+        }
+        listener.endResync();
+        // Sem attach, o fim de um resync não é uma carga inicial
+        listener.endResync();
+
+        Metrics metrics = Metrics.get();
+        assertEquals(2, metrics.histogram(Metrics.SYNC_PARSE_NS).getCount());
+        assertEquals(1, metrics.histogram(Metrics.SYNC_LOAD_NS).getCount());
+        assertEquals(children, metrics.histogram(Metrics.SYNC_SNAPSHOT_CHILDREN).getMax());
+    }
+
+    @Test
+    public void writerRecordsAckLatencyAndFailures() {
+        Map<String, TaskRemote.Callback> inFlight = new HashMap<>();
+        TaskRemote remote = (updates, callback) -> inFlight.put(updates.keySet().iterator().next(), callback);
+        TaskStore store = new TaskStore();
+        TaskWriter writer = new TaskWriter(store, remote, (runnable, delayMillis) -> runnable.run());
+        writer.delete("a", null);
+        writer.delete("b", null);
+
+        inFlight.get("a").onComplete(null);
+        inFlight.get("b").onComplete(new Exception("sem permissão"));
+
+        Metrics metrics = Metrics.get();
+        assertEquals(2, metrics.histogram(Metrics.WRITE_ACK_NS).getCount());
+        assertEquals(1, metrics.counter(Metrics.WRITE_FAILURES).get());
+    }
+}
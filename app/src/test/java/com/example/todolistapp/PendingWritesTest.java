@@ -0,0 +1,204 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Escritas otimistas pelo TaskWriter, com o servidor respondendo quando o teste manda
+public class PendingWritesTest {
+
+    private static final Exception DENIED = new Exception("Permission denied");
+
+    private final List<TaskRemote.Callback> inFlight = new ArrayList<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private TaskStore store;
+    private TaskSyncListener listener;
+    private TaskWriter writer;
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        store.upsert(new Task("t1", "Título", "", false));
+        writer = new TaskWriter(store, (updates, callback) -> inFlight.add(callback),
+                (runnable, delayMillis) -> scheduled.add(runnable));
+        listener = new TaskSyncListener(store, error -> fail());
+        listener.setPendingWrites(writer.getPendingWrites());
+    }
+
+    @Test
+    public void createShowsAtOnceAndConfirmsOnAck() {
+        writer.create(new Task("t2", "Nova", "", false), null);
+
+        assertTrue(store.get("t2").isAwaitingAck());
+        respond(0, null);
+
+        assertFalse(store.get("t2").isAwaitingAck());
+        assertEquals(0, writer.getPendingWrites().size());
+    }
+
+    @Test
+    public void failedCreateRemovesTheTask() {
+        writer.create(new Task("t2", "Nova", "", false), null);
+        respond(0, DENIED);
+
+        assertNull(store.get("t2"));
+        assertEquals(1, writer.getPendingWrites().getRollbackCount());
+    }
+
+    @Test
+    public void failedEditRestoresTheConfirmedVersion() {
+        Task edited = store.get("t1").copy();
+        edited.setTitle("Editado");
+        List<Exception> results = new ArrayList<>();
+        writer.write(edited, results::add);
+
+        assertEquals("Editado", store.get("t1").getTitle());
+        respond(0, DENIED);
+
+        assertEquals(Arrays.asList(DENIED), results);
+        assertEquals("Título", store.get("t1").getTitle());
+        assertFalse(store.get("t1").isAwaitingAck());
+    }
+
+    @Test
+    public void failedDeleteBringsTheTaskBack() {
+        writer.delete("t1", null);
+        assertNull(store.get("t1"));
+
+        respond(0, DENIED);
+
+        assertEquals("Título", store.get("t1").getTitle());
+    }
+
+    @Test
+    public void confirmedDeleteStaysRemoved() {
+        writer.delete("t1", null);
+        respond(0, null);
+
+        assertNull(store.get("t1"));
+        assertEquals(0, writer.getPendingWrites().size());
+    }
+
+    @Test
+    public void toggleWaitingForTheWindowIsAlreadyShown() {
+        writer.enqueue(toggled(true));
+
+        assertTrue(store.get("t1").isCompleted());
+        assertTrue(store.get("t1").isAwaitingAck());
+        runScheduled();
+        respond(0, DENIED);
+
+        assertFalse(store.get("t1").isCompleted());
+    }
+
+    @Test
+    public void toggleBackBeforeTheWindowSettlesWithoutWriting() {
+        writer.enqueue(toggled(true));
+        writer.enqueue(toggled(false));
+        runScheduled();
+
+        assertTrue(inFlight.isEmpty());
+        assertFalse(store.get("t1").isCompleted());
+        assertFalse(store.get("t1").isAwaitingAck());
+    }
+
+    // Uma resposta antiga não tira a marca enquanto outra alteração ainda espera a janela
+    @Test
+    public void ackOfEarlierWriteKeepsQueuedChangeVisible() {
+        Task edited = store.get("t1").copy();
+        edited.setTitle("Editado");
+        writer.write(edited, null);
+        writer.enqueue(toggled(true));
+
+        inFlight.get(0).onComplete(null);
+        runScheduled();
+
+        assertTrue(store.get("t1").isCompleted());
+        assertTrue(store.get("t1").isAwaitingAck());
+        respond(1, null);
+        assertTrue(store.get("t1").isCompleted());
+        assertFalse(store.get("t1").isAwaitingAck());
+    }
+
+    // O Firebase avisa da escrita local e, se o servidor recusa, do valor restaurado
+    @Test
+    public void remoteEventsDuringTheWriteDecideTheFinalState() {
+        Task edited = store.get("t1").copy();
+        edited.setTitle("Editado");
+        writer.write(edited, null);
+
+        listener.applyFields("t1", TaskCodec.toMap(new Task("t1", "Editado", "", false, 1L, 500L, null, 0, null)));
+        assertTrue(store.get("t1").isAwaitingAck());
+        listener.applyFields("t1", TaskCodec.toMap(new Task("t1", "De outro aparelho", "", false, 1L, 600L, null, 0, null)));
+        assertEquals("Editado", store.get("t1").getTitle());
+
+        respond(0, DENIED);
+        assertEquals("De outro aparelho", store.get("t1").getTitle());
+    }
+
+    @Test
+    public void fullResyncKeepsAnUnconfirmedCreate() {
+        writer.create(new Task("t2", "Nova", "", false), null);
+
+        listener.beginResync();
+        listener.applyFields("t1", TaskCodec.toMap(new Task("t1", "Título", "", false)));
+        listener.endResync();
+        assertNotNull(store.get("t2"));
+
+        listener.applyFields("t2", TaskCodec.toMap(new Task("t2", "Nova", "", false, 700L, 700L, null, 0, null)));
+        respond(0, null);
+        assertEquals(Long.valueOf(700L), store.get("t2").getUpdatedAt());
+        assertFalse(store.get("t2").isAwaitingAck());
+    }
+
+    @Test
+    public void failedBulkCompleteRollsBackEveryTask() {
+        store.upsert(new Task("t2", "Outra", "", false));
+        writer.completeAll(Arrays.asList("t1", "t2"), true, null);
+
+        assertTrue(store.get("t1").isCompleted());
+        assertTrue(store.get("t2").isCompleted());
+        respond(0, DENIED);
+
+        assertFalse(store.get("t1").isCompleted());
+        assertFalse(store.get("t2").isCompleted());
+        assertEquals(2, writer.getPendingWrites().getRollbackCount());
+    }
+
+    @Test
+    public void failedBulkDeleteRestoresTheTasks() {
+        store.upsert(new Task("t2", "Outra", "", false));
+        writer.deleteAll(Arrays.asList("t1", "t2"), null);
+        assertEquals(0, store.size());
+
+        respond(0, DENIED);
+
+        assertEquals(2, store.size());
+    }
+
+    private void respond(int index, Exception error) {
+        inFlight.get(index).onComplete(error);
+        runScheduled();
+    }
+
+    private Task toggled(boolean completed) {
+        Task task = store.get("t1").copy();
+        task.setCompleted(completed);
+        return task;
+    }
+
+    private void runScheduled() {
+        while (!scheduled.isEmpty()) {
+            List<Runnable> due = new ArrayList<>(scheduled);
+            scheduled.clear();
+            for (Runnable runnable : due) {
+                runnable.run();
+            }
+        }
+    }
+}
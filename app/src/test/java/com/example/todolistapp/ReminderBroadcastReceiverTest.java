@@ -0,0 +1,146 @@
+package com.example.todolistapp;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowNotificationManager;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReminderBroadcastReceiverTest {
+
+    private Context context;
+    private ShadowNotificationManager notifications;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        // Sem a thread de fundo, o trabalho termina antes de sendBroadcast retornar ao teste
+        ReminderBroadcastReceiver.executor = Runnable::run;
+        // Na thread do teste, o carregamento do som só terminaria depois da espera
+        ReminderBroadcastReceiver.soundTimeoutMillis = 0;
+        ReminderScheduler.reset();
+        ReminderNotifier.reset();
+        ReminderSound.reset();
+        notifications = shadowOf((NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE));
+    }
+
+    @Test
+    public void burstOfFiftyCollapsesIntoOneSummaryAndOnePlayer() throws Exception {
+        ReminderScheduler scheduler = ReminderScheduler.from(context);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 50; i++) {
+            scheduler.schedule(String.format("task%02d", i), "Tarefa " + i, now - 5_000 + i * 100);
+        }
+
+        fireAlarm();
+
+        assertEquals(1, notifications.size());
+        assertEquals(1, ReminderSound.instanceCount);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void receiverWallTimeForABurstOfFifty() throws Exception {
+        // Tempo de parede: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        ReminderScheduler scheduler = ReminderScheduler.from(context);
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 50; i++) {
+                scheduler.schedule(String.format("r%d-task%02d", round, i), "Tarefa " + i, now - 5_000 + i * 100);
+            }
+            long start = System.nanoTime();
+            fireAlarm();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            assertEquals(0, scheduler.size());
+        }
+
+        // Do sendBroadcast ao fim do trabalho em fundo (executor síncrono no teste)
+        assertTrue("receiver acima de 250ms para 50 lembretes", bestNanos < 250_000_000L);
+        assertEquals(1, ReminderSound.instanceCount);
+    }
+
+    @Test
+    public void burstAboveMaxChildrenPostsThePlainSummary() throws Exception {
+        ReminderScheduler scheduler = ReminderScheduler.from(context);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i <= ReminderNotifier.MAX_CHILDREN; i++) {
+            scheduler.schedule("task" + i, "Tarefa " + i, now - 1_000 + i);
+        }
+
+        fireAlarm();
+
+        // Sem filhos, um resumo de grupo poderia nem aparecer
+        assertEquals(1, notifications.size());
+        Notification summary = notifications.getAllNotifications().get(0);
+        assertNull(summary.getGroup());
+        assertEquals(0, summary.flags & Notification.FLAG_GROUP_SUMMARY);
+    }
+
+    @Test
+    public void smallBurstShowsEachReminderUnderASummary() throws Exception {
+        ReminderScheduler scheduler = ReminderScheduler.from(context);
+        long now = System.currentTimeMillis();
+        // Mesmo hashCode: antes uma notificação substituía a outra
+        scheduler.schedule("Aa", "Primeira", now - 1_000);
+        scheduler.schedule("BB", "Segunda", now - 500);
+        scheduler.schedule("c", "Terceira", now);
+
+        fireAlarm();
+
+        assertEquals(4, notifications.size());
+        int summaries = 0;
+        for (Notification notification : notifications.getAllNotifications()) {
+            assertNotNull(notification.getGroup());
+            if ((notification.flags & Notification.FLAG_GROUP_SUMMARY) != 0) {
+                summaries++;
+            }
+        }
+        assertEquals(1, summaries);
+    }
+
+    @Test
+    public void repeatedAlarmsReuseThePlayerAndSkipDuplicateSound() throws Exception {
+        ReminderScheduler scheduler = ReminderScheduler.from(context);
+        long now = System.currentTimeMillis();
+        scheduler.schedule("a", "A", now - 1_000);
+        fireAlarm();
+        scheduler.schedule("b", "B", now - 500);
+        fireAlarm();
+
+        assertEquals(1, ReminderSound.instanceCount);
+        assertFalse(ReminderSound.get(context).play());
+    }
+
+    @Test
+    public void bootRearmsWithoutNotifying() throws Exception {
+        ReminderScheduler.from(context).schedule("a", "A", System.currentTimeMillis() + 3_600_000);
+        ReminderScheduler.reset();
+
+        context.sendBroadcast(new Intent(Intent.ACTION_BOOT_COMPLETED).setClass(context, ReminderBroadcastReceiver.class));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(0, notifications.size());
+        assertEquals(1, ReminderScheduler.from(context).size());
+    }
+
+    private void fireAlarm() {
+        context.sendBroadcast(new Intent(context, ReminderBroadcastReceiver.class)
+                .setAction(AlarmManagerAlarms.ACTION_REMINDERS_DUE));
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ReminderSchedulerTest {
+
+    // Relógio e AlarmManager falsos: um único alarme, que toca quando o relógio o alcança
+    private static class FakeAlarmClock implements ReminderScheduler.Alarms, ReminderScheduler.Clock {
+        long now;
+        long armedAt = Long.MIN_VALUE;
+        int alarmsSet;
+        int wakeups;
+        final List<ReminderIndex.Reminder> delivered = new ArrayList<>();
+
+        @Override
+        public void setNext(long fireAt) {
+            armedAt = fireAt;
+            alarmsSet++;
+        }
+
+        @Override
+        public void cancelNext() {
+            armedAt = Long.MIN_VALUE;
+        }
+
+        @Override
+        public long now() {
+            return now;
+        }
+
+        void advanceTo(long time, ReminderScheduler scheduler) throws Exception {
+            while (armedAt != Long.MIN_VALUE && armedAt <= time) {
+                // Um alarme vencido (ex.: após o boot) toca assim que armado
+                now = Math.max(now, armedAt);
+                armedAt = Long.MIN_VALUE;
+                wakeups++;
+                delivered.addAll(scheduler.deliverDue());
+            }
+            now = time;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private FakeAlarmClock clock;
+    private ReminderScheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "reminders.log");
+        clock = new FakeAlarmClock();
+        scheduler = new ReminderScheduler(new ReminderIndex(file), clock, clock);
+    }
+
+    @Test
+    public void remindersSurviveReopenInFireOrder() throws Exception {
+        scheduler.schedule("b", "Comprar pão", 3_000);
+        scheduler.schedule("a", "Pagar conta", 2_000);
+        scheduler.schedule("c", "Ligar", 1_000);
+        scheduler.schedule("a", "Pagar conta", 4_000);
+        scheduler.cancel("c");
+
+        List<ReminderIndex.Reminder> reopened = new ReminderIndex(file).getAll();
+
+        assertEquals(2, reopened.size());
+        assertEquals("b", reopened.get(0).getTaskId());
+        assertEquals("a", reopened.get(1).getTaskId());
+        assertEquals(4_000, reopened.get(1).getFireAt());
+        assertEquals("Pagar conta", reopened.get(1).getTitle());
+    }
+
+    @Test
+    public void onlyTheSoonestReminderIsArmed() throws Exception {
+        scheduler.schedule("b", "B", 500_000);
+        scheduler.schedule("a", "A", 100_000);
+        scheduler.schedule("c", "C", 900_000);
+        assertEquals(100_000, clock.armedAt);
+        assertEquals(2, clock.alarmsSet);
+
+        scheduler.cancel("a");
+        assertEquals(500_000, clock.armedAt);
+
+        scheduler.cancel("b");
+        scheduler.cancel("c");
+        assertEquals(Long.MIN_VALUE, clock.armedAt);
+    }
+
+    @Test
+    public void deliveryFollowsFireOrder() throws Exception {
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            scheduler.schedule("t" + i, "T" + i, random.nextInt(10_000_000));
+        }
+
+        clock.advanceTo(10_000_000, scheduler);
+
+        assertEquals(500, clock.delivered.size());
+        for (int i = 1; i < clock.delivered.size(); i++) {
+            assertTrue(clock.delivered.get(i - 1).getFireAt() <= clock.delivered.get(i).getFireAt());
+        }
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void idsWithEqualHashCodesAreBothDelivered() throws Exception {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        scheduler.schedule("Aa", "Primeira", 1_000);
+        scheduler.schedule("BB", "Segunda", 5_000_000);
+
+        clock.advanceTo(10_000_000, scheduler);
+
+        Set<String> titles = new HashSet<>();
+        for (ReminderIndex.Reminder reminder : clock.delivered) {
+            titles.add(reminder.getTitle());
+        }
+        assertEquals(2, titles.size());
+        assertEquals(2, clock.wakeups);
+    }
+
+    @Test
+    public void remindersInsideWindowShareOneWakeup() throws Exception {
+        // 1000 lembretes em 10 grupos; os de cada grupo caem em 20s
+        for (int i = 0; i < 1_000; i++) {
+            long group = i / 100;
+            scheduler.schedule(String.format("task%04d", i), "T", group * 3_600_000L + (i % 100) * 200);
+        }
+
+        clock.advanceTo(36_000_000, scheduler);
+
+        assertEquals(1_000, clock.delivered.size());
+        assertEquals(10, clock.wakeups);
+    }
+
+    @Test
+    public void rearmAfterBootDeliversMissedRemindersAtOnce() throws Exception {
+        for (int i = 0; i < 5_000; i++) {
+            scheduler.schedule(String.format("task%05d", i), "Tarefa " + i, i * 60_000L);
+        }
+
+        // Reboot pouco antes das 10h: só o arquivo sobrevive; 600 lembretes venceram com o aparelho desligado
+        FakeAlarmClock afterBoot = new FakeAlarmClock();
+        afterBoot.now = 600 * 60_000L - 31_000;
+        ReminderScheduler rebooted = new ReminderScheduler(new ReminderIndex(file), afterBoot, afterBoot);
+        rebooted.rearmAll();
+        afterBoot.advanceTo(afterBoot.now, rebooted);
+
+        assertEquals(1, afterBoot.wakeups);
+        assertEquals(600, afterBoot.delivered.size());
+        assertEquals(2, afterBoot.alarmsSet);
+        assertEquals(600 * 60_000L, afterBoot.armedAt);
+    }
+
+    @Test
+    public void rearmOf5000RemindersAfterBootIsFast() throws Exception {
+        // Tempo de parede: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        for (int i = 0; i < 5_000; i++) {
+            scheduler.schedule(String.format("task%05d", i), "Tarefa " + i, i * 60_000L);
+        }
+
+        // Abrir o arquivo e rearmar, como o receiver faz no BOOT_COMPLETED; vale a melhor rodada
+        long rearmNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            FakeAlarmClock afterBoot = new FakeAlarmClock();
+            long start = System.nanoTime();
+            new ReminderScheduler(new ReminderIndex(file), afterBoot, afterBoot).rearmAll();
+            rearmNanos = Math.min(rearmNanos, System.nanoTime() - start);
+            assertEquals(1, afterBoot.alarmsSet);
+        }
+
+        assertTrue("rearme de 5000 lembretes acima de 200ms", rearmNanos < 200_000_000L);
+    }
+
+    @Test
+    public void truncatedTailIsDroppedAndLogStaysAppendable() throws Exception {
+        scheduler.schedule("a", "A", 1_000);
+        scheduler.schedule("b", "B", 2_000);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        ReminderIndex reopened = new ReminderIndex(file);
+        reopened.put("c", "C", 500);
+
+        List<ReminderIndex.Reminder> all = new ReminderIndex(file).getAll();
+        assertEquals(2, all.size());
+        assertEquals("c", all.get(0).getTaskId());
+        assertEquals("a", all.get(1).getTaskId());
+    }
+
+    @Test
+    public void logIsCompactedAfterManyReschedules() throws Exception {
+        for (int i = 0; i < 2_000; i++) {
+            scheduler.schedule("a", "A", i);
+        }
+
+        assertTrue(file.length() < 20_000);
+        assertEquals(1_999, new ReminderIndex(file).get("a").getFireAt());
+    }
+}
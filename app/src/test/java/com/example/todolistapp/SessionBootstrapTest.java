@@ -0,0 +1,225 @@
+package com.example.todolistapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SessionBootstrapTest {
+
+    // Tempos de um login típico: resposta do FirebaseAuth, abertura e layout da MainActivity,
+    // e a primeira resposta da assinatura das tarefas
+    private static final long AUTH_MS = 400;
+    private static final long LAUNCH_MS = 250;
+    private static final long FETCH_MS = 300;
+
+    // Fila no lugar do Looper principal: o teste decide quando a thread principal roda
+    private static class MainQueue implements Executor {
+        final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void drain() {
+            Runnable runnable;
+            while ((runnable = queue.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MainQueue main;
+    private FakeTaskDatabase database;
+    private TaskPipeline pipeline;
+    private final List<TaskRepository> created = new ArrayList<>();
+    private final List<Runnable> delayed = new ArrayList<>();
+    private int attached;
+    private int detached;
+    private boolean diskCache;
+    private SessionBootstrap bootstrap;
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+        main = new MainQueue();
+        database = new FakeTaskDatabase(command -> pipeline.execute(command));
+        database.seed(FakeTaskDatabase.generate(200, database.now()));
+        bootstrap = newBootstrap(true);
+    }
+
+    @After
+    public void tearDown() {
+        for (TaskRepository repository : created) {
+            repository.close();
+        }
+    }
+
+    @Test
+    public void prefetchedRepositoryIsHandedToTheActivity() {
+        bootstrap.prefetch("u1");
+        assertEquals(1, created.size());
+
+        TaskRepository repository = bootstrap.take("u1");
+
+        assertSame(created.get(0), repository);
+        assertEquals(1, attached);
+        assertNull(bootstrap.take("u1"));
+        assertEquals(1, Metrics.get().counter(Metrics.SESSION_PREFETCH_HITS).get());
+    }
+
+    @Test
+    public void repeatedPrefetchForTheSameUserIsIgnored() {
+        bootstrap.prefetch("u1");
+        bootstrap.prefetch("u1");
+
+        assertEquals(1, created.size());
+        assertEquals(1, attached);
+    }
+
+    @Test
+    public void anotherUserClosesThePrefetch() {
+        bootstrap.prefetch("u1");
+
+        assertNull(bootstrap.take("u2"));
+
+        assertEquals(1, detached);
+        assertNull(bootstrap.take("u1"));
+    }
+
+    @Test
+    public void abandonedPrefetchIsClosed() {
+        bootstrap.prefetch("u1");
+        assertEquals(1, delayed.size());
+
+        // A MainActivity nunca chegou a abrir
+        delayed.get(0).run();
+
+        assertEquals(1, detached);
+        assertNull(bootstrap.take("u1"));
+    }
+
+    @Test
+    public void takenRepositoryOutlivesTheAbandonTimer() {
+        bootstrap.prefetch("u1");
+        TaskRepository repository = bootstrap.take("u1");
+
+        delayed.get(0).run();
+
+        assertNotNull(repository);
+        assertEquals(0, detached);
+    }
+
+    @Test
+    public void newAccountSubscribesWithoutReadingTheDiskCache() {
+        diskCache = true;
+        bootstrap.prefetch("u1");
+        // Conta existente: a assinatura espera a leitura do cache em disco
+        assertEquals(0, attached);
+
+        bootstrap.prefetchNewAccount("u2");
+
+        assertEquals(1, attached);
+    }
+
+    @Test
+    public void disabledBootstrapLeavesLoadingToTheActivity() {
+        bootstrap = newBootstrap(false);
+
+        bootstrap.prefetch("u1");
+
+        assertTrue(created.isEmpty());
+        assertNull(bootstrap.take("u1"));
+    }
+
+    @Test
+    public void firstRowArrivesSoonerWithPrefetch() throws InterruptedException {
+        database.setLatencyMillis(FETCH_MS);
+        long serial = firstRowMillis(newBootstrap(false));
+        long prefetched = firstRowMillis(newBootstrap(true));
+
+        assertEquals(AUTH_MS + LAUNCH_MS + FETCH_MS, serial);
+        assertEquals(AUTH_MS + Math.max(LAUNCH_MS, FETCH_MS), prefetched);
+    }
+
+    // Relógio do FakeTaskDatabase desde o toque em entrar até a primeira lista com tarefas
+    private long firstRowMillis(SessionBootstrap bootstrap) throws InterruptedException {
+        TaskListViewModel viewModel = new TaskListViewModel(userId -> {
+            TaskRepository prefetched = bootstrap.take(userId);
+            return prefetched != null ? prefetched : create(userId, null);
+        });
+        long tappedAt = database.now();
+        database.advance(AUTH_MS);
+        bootstrap.prefetch("u1");
+        database.advance(LAUNCH_MS);
+
+        List<List<Task>> received = new ArrayList<>();
+        TaskRepository repository = viewModel.repositoryFor("u1");
+        repository.setListener((snapshot, viewSwitched) -> received.add(snapshot));
+        repository.start();
+        while (true) {
+            settle();
+            if (!received.isEmpty() && !received.get(received.size() - 1).isEmpty()) {
+                break;
+            }
+            assertTrue(database.now() - tappedAt < 10_000);
+            database.advance(10);
+        }
+        long elapsed = database.now() - tappedAt;
+        viewModel.onCleared();
+        return elapsed;
+    }
+
+    private SessionBootstrap newBootstrap(boolean enabled) {
+        return new SessionBootstrap(userId -> create(userId,
+                diskCache ? new TaskDiskCache(new File(folder.getRoot(), userId)) : null),
+                (runnable, delayMillis) -> delayed.add(runnable), enabled);
+    }
+
+    private TaskRepository create(String userId, TaskDiskCache cache) {
+        pipeline = new TaskPipeline(main);
+        TaskRepository repository = new TaskRepository(userId, pipeline, main, database, (listener, since) -> {
+            ListenerRegistry.Subscription subscription = database.open(listener, since);
+            return new ListenerRegistry.Subscription() {
+                @Override
+                public void attach() {
+                    attached++;
+                    subscription.attach();
+                }
+
+                @Override
+                public void detach() {
+                    detached++;
+                    subscription.detach();
+                }
+            };
+        }, null, null, cache, null, 0);
+        created.add(repository);
+        return repository;
+    }
+
+    // O pipeline aplica a carga e publica, e a thread principal entrega a lista
+    private void settle() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch idle = new CountDownLatch(1);
+            pipeline.execute(idle::countDown);
+            assertTrue(idle.await(5, TimeUnit.SECONDS));
+            main.drain();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.todolistapp;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+// Conta quantas linhas são religadas por atualização com um RecyclerView real
+@RunWith(RobolectricTestRunner.class)
+public class TaskAdapterBindTest {
+
+    private static class CountingAdapter extends TaskAdapter {
+        int fullBinds;
+        int partialBinds;
+
+        CountingAdapter(Context context) {
+            // Diff executado na própria thread para o teste ser determinístico
+            super(context, new AsyncDifferConfig.Builder<>(TaskAdapter.DIFF_CALLBACK)
+                    .setBackgroundThreadExecutor(Runnable::run)
+                    .build());
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                fullBinds++;
+            } else {
+                partialBinds++;
+            }
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
+    private TaskStore store;
+    private TaskView view;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        store = new TaskStore();
+        for (int i = 0; i < 10; i++) {
+            store.upsert(new Task("t" + i, "Tarefa " + i, "", false));
+        }
+        view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> runnable.run());
+        adapter = new CountingAdapter(context);
+        view.setListener(adapter);
+        adapter.submitList(view.snapshot());
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        // Sem animações, cada alteração religa a própria linha em vez de criar outra para o fade
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(adapter);
+        layout();
+        adapter.fullBinds = 0;
+        adapter.partialBinds = 0;
+    }
+
+    @Test
+    public void togglingCompletedRebindsOnlyTheCheckBox() {
+        Task updated = store.get("t3").copy();
+        updated.setCompleted(true);
+        store.upsert(updated);
+        layout();
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(1, adapter.partialBinds);
+    }
+
+    @Test
+    public void editingTitleRebindsOneRow() {
+        store.upsert(new Task("t5", "Tarefa 5 editada", "", false));
+        layout();
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void insertBindsOnlyTheNewRow() {
+        store.upsert(new Task("t05", "Nova", "", false));
+        layout();
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(11, adapter.getItemCount());
+    }
+
+    @Test
+    public void unchangedResyncBindsNothing() {
+        // Reanexar o listener reenvia tarefas iguais às do modelo
+        for (int i = 0; i < 10; i++) {
+            store.upsert(new Task("t" + i, "Tarefa " + i, "", false));
+        }
+        layout();
+
+        assertEquals(0, adapter.fullBinds + adapter.partialBinds);
+    }
+
+    @Test
+    public void stableIdsSurviveFilterSwitch() {
+        long id = adapter.getItemId(4);
+        Task completed = store.get("t2").copy();
+        completed.setCompleted(true);
+        store.upsert(completed);
+        view.setFilter(TaskIndex.Filter.PENDING);
+        layout();
+
+        assertEquals("t4", adapter.getCurrentList().get(3).getId());
+        assertEquals(id, adapter.getItemId(3));
+    }
+
+    // Listeners presos ao holder na criação: a tarefa é a da posição no momento do toque
+    @Test
+    public void clickResolvesTheTaskAtTheCurrentPosition() {
+        recyclerView.findViewHolderForAdapterPosition(2).itemView.performLongClick();
+        store.remove("t0");
+        layout();
+
+        assertEquals(0, adapter.fullBinds);
+        recyclerView.findViewHolderForAdapterPosition(2).itemView.performClick();
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("t2", "t3")), adapter.getSelectedIds());
+    }
+
+    @Test
+    public void removedTaskLeavesTheSelection() {
+        recyclerView.findViewHolderForAdapterPosition(2).itemView.performLongClick();
+        recyclerView.findViewHolderForAdapterPosition(5).itemView.performClick();
+        store.remove("t2");
+        layout();
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("t5")), adapter.getSelectedIds());
+    }
+
+    @Test
+    public void stableIdsOfRemovedTasksAreDropped() {
+        for (int i = 10; i < 1_000; i++) {
+            store.upsert(new Task("t" + i, "Tarefa " + i, "", false));
+            layout();
+            store.remove("t" + i);
+            layout();
+        }
+
+        assertTrue(adapter.getStableIdCount() <= 2 * 10 + TaskAdapter.STABLE_ID_SLACK + 1);
+        assertEquals(10, adapter.getItemCount());
+    }
+
+    private void layout() {
+        shadowOf(Looper.getMainLooper()).idle();
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1080, 1920);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskArchiverTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final Exception DENIED = new Exception("Permission denied");
+
+    private FakeTaskDatabase database;
+    private TaskStore store;
+    private TaskStore archiveStore;
+    private TaskWriter writer;
+    private TaskArchiver archiver;
+    private long now;
+
+    @Before
+    public void setUp() {
+        database = new FakeTaskDatabase();
+        now = database.now();
+        // Conta antiga: concluídas de dois e três meses atrás, pendentes esquecidas, concluídas
+        // recentes e tarefas de antes do updatedAt existir
+        for (int i = 0; i < 300; i++) {
+            long updatedAt = now - (i % 2 == 0 ? 60 : 90) * DAY - i * 1000L;
+            database.seed(new Task(String.format("old%03d", i), "Antiga " + i, "", true,
+                    updatedAt, updatedAt, null, Task.PRIORITY_NONE, null));
+        }
+        for (int i = 0; i < 50; i++) {
+            long updatedAt = now - 120 * DAY + i;
+            database.seed(new Task(String.format("pending%02d", i), "Pendente " + i, "", false,
+                    updatedAt, updatedAt, null, Task.PRIORITY_LOW, null));
+        }
+        for (int i = 0; i < 20; i++) {
+            long updatedAt = now - DAY + i;
+            database.seed(new Task(String.format("recent%02d", i), "Recente " + i, "", true,
+                    updatedAt, updatedAt, null, Task.PRIORITY_NONE, null));
+        }
+        for (int i = 0; i < 10; i++) {
+            database.seed(new Task(String.format("legacy%02d", i), "Legado " + i, "", true));
+        }
+
+        store = new TaskStore();
+        archiveStore = new TaskStore(TaskArchiver.NEWEST_FIRST);
+        Scheduler immediate = (runnable, delayMillis) -> runnable.run();
+        writer = new TaskWriter(store, database, immediate);
+        TaskSyncListener listener = new TaskSyncListener(store, error -> fail());
+        listener.setPendingWrites(writer.getPendingWrites());
+        database.open(listener, 0).attach();
+        archiver = new TaskArchiver(database, archiveStore, writer.getPendingWrites(), immediate,
+                TaskArchiver.DEFAULT_ARCHIVE_AFTER_MS);
+    }
+
+    @Test
+    public void oldCompletedTasksMoveInBatches() {
+        archiver.archiveOld(now);
+
+        assertFalse(archiver.isArchiving());
+        assertEquals(310, archiver.getArchivedCount());
+        assertEquals(310, database.archivedCount());
+        // O nó quente e o modelo ficam só com o que está em uso
+        assertEquals(70, database.liveCount());
+        assertEquals(70, store.size());
+        assertTrue(TaskCodec.isTombstone(database.get("old000")));
+        assertEquals("Antiga 0", database.getArchived("old000").get(Task.FIELD_TITLE));
+        assertTrue(database.getWriteCount() >= 2);
+    }
+
+    @Test
+    public void tasksWithoutUpdatedAtAreMigratedToTheFirstMonth() {
+        archiver.archiveOld(now);
+
+        assertEquals("1970-01", database.getArchiveMonths().get(0));
+        assertNotNull(database.getArchived("legacy00"));
+        assertNull(store.get("legacy09"));
+    }
+
+    @Test
+    public void secondPassFindsNothingToMove() {
+        archiver.archiveOld(now);
+        long writes = database.getWriteCount();
+
+        archiver.archiveOld(now);
+
+        assertEquals(writes, database.getWriteCount());
+        assertEquals(310, database.archivedCount());
+    }
+
+    @Test
+    public void taskWithAWriteInFlightStaysHot() {
+        database.setLatencyMillis(100);
+        Task reopened = store.get("old000").copy();
+        reopened.setCompleted(false);
+        writer.write(reopened, null);
+
+        archiver.archiveOld(now);
+        database.drain();
+
+        assertNull(database.getArchived("old000"));
+        assertFalse(store.get("old000").isCompleted());
+        assertFalse(TaskCodec.isTombstone(database.get("old000")));
+    }
+
+    @Test
+    public void failedMoveLeavesTheBatchHotAndStops() {
+        database.failNext(1, DENIED);
+
+        archiver.archiveOld(now);
+
+        assertFalse(archiver.isArchiving());
+        assertEquals(0, database.archivedCount());
+        assertEquals(380, store.size());
+        // A próxima sessão recomeça de onde o nó quente está
+        archiver.archiveOld(now);
+        assertEquals(310, database.archivedCount());
+    }
+
+    @Test
+    public void expiredTombstonesAreDeletedInALaterPass() {
+        archiver.archiveOld(now);
+        assertTrue(TaskCodec.isTombstone(database.get("old000")));
+
+        // As marcas criadas pela primeira passada vencem um mês depois
+        long later = now + TaskSyncListener.TOMBSTONE_TTL_MS + DAY;
+        database.setNow(later);
+        archiver.archiveOld(later);
+
+        assertEquals(310, archiver.getPurgedCount());
+        assertNull(database.get("old000"));
+        assertNull(database.get("legacy00"));
+        // As recentes de antes já passaram do corte nesta data
+        assertEquals(330, database.archivedCount());
+        assertEquals(50, database.liveCount());
+    }
+
+    @Test
+    public void recentTombstonesStay() {
+        archiver.archiveOld(now);
+
+        archiver.archiveOld(now + DAY);
+
+        assertEquals(0, archiver.getPurgedCount());
+        assertTrue(TaskCodec.isTombstone(database.get("old000")));
+    }
+
+    @Test
+    public void laterPassesStartAfterTheSavedCursor() {
+        TaskArchiver.ScanCursor[] saved = new TaskArchiver.ScanCursor[1];
+        TaskArchiver.CursorStore cursorStore = new TaskArchiver.CursorStore() {
+            @Override
+            public TaskArchiver.ScanCursor load() {
+                return saved[0];
+            }
+
+            @Override
+            public void save(TaskArchiver.ScanCursor cursor) {
+                saved[0] = cursor;
+            }
+        };
+        archiver.setCursorStore(cursorStore);
+        archiver.archiveOld(now);
+        assertEquals("old000", saved[0].key);
+
+        // Novo processo: as 50 pendentes antigas não são lidas de novo
+        TaskArchiver next = new TaskArchiver(database, archiveStore, writer.getPendingWrites(),
+                (runnable, delayMillis) -> runnable.run(), TaskArchiver.DEFAULT_ARCHIVE_AFTER_MS);
+        next.setCursorStore(cursorStore);
+        long sent = database.getChildrenSent();
+        next.archiveOld(now + DAY);
+
+        assertEquals(0, database.getChildrenSent() - sent);
+        assertEquals(70, database.liveCount());
+    }
+
+    @Test
+    public void monthsLoadNewestFirstOnDemand() {
+        archiver.archiveOld(now);
+        List<String> months = database.getArchiveMonths();
+        assertEquals(3, months.size());
+        int[] loads = new int[1];
+        archiver.setMonthLoadListener(() -> loads[0]++);
+
+        archiver.loadOlderMonth();
+        assertEquals(150, archiveStore.size());
+        assertEquals(months.get(2), TaskArchiver.monthOf(archiveStore.getTasks().get(0).getUpdatedAt()));
+
+        archiver.loadOlderMonth();
+        archiver.loadOlderMonth();
+        assertEquals(310, archiveStore.size());
+        assertTrue(archiver.hasMoreMonths());
+        archiver.loadOlderMonth();
+        assertFalse(archiver.hasMoreMonths());
+        assertEquals(4, loads[0]);
+    }
+
+    @Test
+    public void newlyArchivedTasksJoinAnOpenMonth() {
+        archiver.archiveOld(now);
+        // Concluída há 60 dias, no mês que a tela vai abrir
+        long updatedAt = now - 60 * DAY + 1;
+        database.seed(new Task("late", "Atrasada", "", true, updatedAt, updatedAt, null, Task.PRIORITY_NONE, null));
+        archiver.loadOlderMonth();
+        assertNull(archiveStore.get("late"));
+
+        archiver.archiveOld(now);
+
+        assertNotNull(archiveStore.get("late"));
+        assertEquals(151, archiveStore.size());
+    }
+
+    @Test
+    public void reopeningAnArchivedTaskRestoresItToTheHotNode() {
+        archiver.archiveOld(now);
+        archiver.loadOlderMonth();
+        Task reopened = archiveStore.getTasks().get(0).copy();
+        reopened.setCompleted(false);
+        List<Exception> results = new ArrayList<>();
+        database.setNow(now + 1_000);
+
+        archiver.restore(reopened, results::add);
+
+        assertEquals(Arrays.asList((Exception) null), results);
+        assertNull(archiveStore.get(reopened.getId()));
+        assertNull(database.getArchived(reopened.getId()));
+        Task hot = store.get(reopened.getId());
+        assertFalse(hot.isCompleted());
+        assertEquals(now + 1_000, (long) hot.getUpdatedAt());
+    }
+
+    @Test
+    public void rejectedRestoreKeepsTheTaskArchived() {
+        archiver.archiveOld(now);
+        archiver.loadOlderMonth();
+        Task reopened = archiveStore.getTasks().get(0).copy();
+        reopened.setCompleted(false);
+        database.failNext(1, DENIED);
+        List<Exception> results = new ArrayList<>();
+
+        archiver.restore(reopened, results::add);
+
+        assertEquals(Arrays.asList(DENIED), results);
+        assertTrue(archiveStore.get(reopened.getId()).isCompleted());
+        assertNotNull(database.getArchived(reopened.getId()));
+        assertNull(store.get(reopened.getId()));
+    }
+
+    @Test
+    public void deleteAllRemovesOnlyFromTheArchive() {
+        archiver.archiveOld(now);
+        archiver.loadOlderMonth();
+        List<String> ids = Arrays.asList(archiveStore.getTasks().get(0).getId(), archiveStore.getTasks().get(1).getId());
+
+        archiver.deleteAll(ids, null);
+
+        assertEquals(148, archiveStore.size());
+        assertEquals(308, database.archivedCount());
+        assertEquals(70, database.liveCount());
+    }
+
+    @Test
+    public void mixedSelectionCompletesOnce() throws InterruptedException {
+        ConcurrentLinkedQueue<Runnable> main = new ConcurrentLinkedQueue<>();
+        TaskPipeline pipeline = new TaskPipeline(main::add);
+        FakeTaskDatabase database = new FakeTaskDatabase(pipeline);
+        long updatedAt = database.now() - 60 * DAY;
+        for (String suffix : Arrays.asList("1", "2")) {
+            database.seed(new Task("hot" + suffix, "Quente", "", true));
+            database.updatePartitions(Collections.singletonMap(TaskArchiver.ARCHIVE + "/"
+                    + TaskArchiver.monthOf(updatedAt) + "/cold" + suffix, TaskCodec.toMap(new Task("cold" + suffix,
+                    "Fria", "", true, updatedAt, updatedAt, null, Task.PRIORITY_NONE, null))), error -> assertNull(error));
+        }
+        TaskRepository repository = new TaskRepository("u1", pipeline, main::add, database,
+                (listener, since) -> database.open(listener, since), null, null, null, database,
+                TaskArchiver.DEFAULT_ARCHIVE_AFTER_MS);
+        try {
+            repository.start();
+            repository.setFilter(TaskIndex.Filter.COMPLETED);
+            settle(pipeline, main);
+            List<Exception> results = new ArrayList<>();
+
+            repository.completeAll(Arrays.asList("hot1", "cold1"), false, results::add);
+            settle(pipeline, main);
+
+            assertEquals(Arrays.asList((Exception) null), results);
+            assertNull(database.getArchived("cold1"));
+            assertFalse(database.get("cold1").isEmpty());
+
+            results.clear();
+            database.failNext(1, DENIED);
+            repository.deleteAll(Arrays.asList("hot2", "cold2"), results::add);
+            settle(pipeline, main);
+
+            assertEquals(Arrays.asList(DENIED), results);
+        } finally {
+            repository.close();
+        }
+    }
+
+    // O pipeline aplica e responde, e a thread principal entrega
+    private static void settle(TaskPipeline pipeline, ConcurrentLinkedQueue<Runnable> main) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch idle = new CountDownLatch(1);
+            pipeline.execute(idle::countDown);
+            assertTrue(idle.await(5, TimeUnit.SECONDS));
+            Runnable runnable;
+            while ((runnable = main.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.todolistapp;
+
+import com.google.firebase.database.core.utilities.encoding.CustomClassMapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+// 10k nós decodificados pelo TaskCodec e pelo mapeador por reflexão do SDK (o que o getValue(Class) usa)
+public class TaskCodecBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final int ROUNDS = 20;
+
+    // Mesmo formato que Task tinha para o getValue(Task.class): construtor vazio e setters
+    public static class ReflectedTask {
+        private String id;
+        private String title;
+        private String description;
+        private boolean isCompleted;
+        private final Set<String> dirtyFields = new LinkedHashSet<>();
+
+        public ReflectedTask() {
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+            dirtyFields.add(Task.FIELD_TITLE);
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+            dirtyFields.add(Task.FIELD_DESCRIPTION);
+        }
+
+        public boolean isCompleted() {
+            return isCompleted;
+        }
+
+        public void setCompleted(boolean completed) {
+            isCompleted = completed;
+            dirtyFields.add(Task.FIELD_COMPLETED);
+        }
+    }
+
+    @Test
+    public void codecIsFasterThanReflectiveMapperAt10k() {
+        // Corrida contra o relógio: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            nodes.add(TaskCodec.toMap(new Task("task" + i, "Tarefa " + i, "Descrição " + i, i % 3 == 0)));
+        }
+
+        // Aquecimento dos dois caminhos antes de medir
+        decodeWithCodec(nodes);
+        decodeWithMapper(nodes);
+        long codecNanos = Long.MAX_VALUE;
+        long mapperNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            decodeWithCodec(nodes);
+            codecNanos = Math.min(codecNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            decodeWithMapper(nodes);
+            mapperNanos = Math.min(mapperNanos, System.nanoTime() - start);
+        }
+
+
+        assertTrue("codec não é mais rápido que a reflexão", codecNanos < mapperNanos);
+    }
+
+    @Test
+    public void bothPathsDecodeTheSameContent() {
+        Task task = new Task("t1", "Tarefa", "Descrição", true);
+        Map<String, Object> node = TaskCodec.toMap(task);
+
+        ReflectedTask reflected = CustomClassMapper.convertToCustomClass(node, ReflectedTask.class);
+
+        assertEquals(task.getTitle(), reflected.getTitle());
+        assertEquals(task.getDescription(), reflected.getDescription());
+        assertEquals(task.isCompleted(), reflected.isCompleted());
+    }
+
+    private static int decodeWithCodec(List<Map<String, Object>> nodes) {
+        int completed = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (TaskCodec.fromMap("task" + i, nodes.get(i)).isCompleted()) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    // O caminho antigo: mapear, atribuir o id e limpar os campos marcados pelos setters
+    private static int decodeWithMapper(List<Map<String, Object>> nodes) {
+        int completed = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            ReflectedTask task = CustomClassMapper.convertToCustomClass(nodes.get(i), ReflectedTask.class);
+            task.setId("task" + i);
+            task.dirtyFields.clear();
+            if (task.isCompleted()) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+}
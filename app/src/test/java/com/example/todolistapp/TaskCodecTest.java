@@ -0,0 +1,108 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TaskCodecTest {
+
+    @Test
+    public void roundTripKeepsEveryField() {
+        Task task = new Task("t1", "Comprar pão", "Na padaria", true, 1_000L, 2_000L, 3_000L, Task.PRIORITY_HIGH, 4_000L);
+
+        Task decoded = TaskCodec.fromMap("t1", TaskCodec.toMap(task));
+
+        assertTrue(task.sameContent(decoded));
+        assertTrue(decoded.getDirtyFields().isEmpty());
+    }
+
+    @Test
+    public void completedIsWrittenUnderTheFieldConstant() {
+        Map<String, Object> fields = TaskCodec.toMap(new Task("t1", "A", null, true));
+
+        assertEquals(Boolean.TRUE, fields.get(Task.FIELD_COMPLETED));
+        assertFalse(fields.containsKey("isCompleted"));
+        assertFalse(fields.containsKey("id"));
+    }
+
+    @Test
+    public void missingAndMistypedFieldsFallBackToDefaults() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(Task.FIELD_TITLE, 42L);
+        fields.put(Task.FIELD_COMPLETED, "sim");
+        fields.put("campoDesconhecido", 1);
+
+        Task decoded = TaskCodec.fromMap("t1", fields);
+
+        assertEquals("42", decoded.getTitle());
+        assertNull(decoded.getDescription());
+        assertFalse(decoded.isCompleted());
+    }
+
+    @Test
+    public void pathsMatchTheFieldMapWithServerTimestamps() {
+        Task task = new Task("t1", "A", "B", false, null, null, 3_000L, Task.PRIORITY_LOW, null);
+        Map<String, Object> updates = new HashMap<>();
+
+        TaskCodec.putPaths(task, updates);
+
+        assertEquals(TaskCodec.toMap(task).size(), updates.size());
+        for (Map.Entry<String, Object> field : TaskCodec.toMap(task).entrySet()) {
+            if (field.getKey().equals(Task.FIELD_CREATED_AT) || field.getKey().equals(Task.FIELD_UPDATED_AT)) {
+                assertSame(TaskCodec.SERVER_TIMESTAMP, updates.get("t1/" + field.getKey()));
+            } else {
+                assertEquals(field.getValue(), updates.get("t1/" + field.getKey()));
+            }
+        }
+        assertEquals(3_000L, updates.get("t1/" + Task.FIELD_PENDING_DUE_AT));
+        assertEquals(Task.PRIORITY_LOW, updates.get("t1/" + Task.FIELD_PENDING_PRIORITY));
+    }
+
+    @Test
+    public void completedTasksLeaveTheQueryIndexes() {
+        Task pending = new Task("t1", "A", null, false, 1_000L, 1_000L, 5_000L, Task.PRIORITY_HIGH, null);
+        Map<String, Object> updates = new HashMap<>();
+
+        TaskCodec.putChangePaths("t1", pending,
+                java.util.Collections.<String, Object>singletonMap(Task.FIELD_COMPLETED, true), updates);
+
+        assertEquals(Boolean.TRUE, updates.get("t1/" + Task.FIELD_COMPLETED));
+        assertTrue(updates.containsKey("t1/" + Task.FIELD_PENDING_DUE_AT));
+        assertNull(updates.get("t1/" + Task.FIELD_PENDING_DUE_AT));
+        assertTrue(updates.containsKey("t1/" + Task.FIELD_PENDING_PRIORITY));
+        assertNull(updates.get("t1/" + Task.FIELD_PENDING_PRIORITY));
+        assertSame(TaskCodec.SERVER_TIMESTAMP, updates.get("t1/" + Task.FIELD_UPDATED_AT));
+    }
+
+    @Test
+    public void unrelatedEditsDoNotRewriteDerivedFields() {
+        Task pending = new Task("t1", "A", null, false, 1_000L, 1_000L, 5_000L, Task.PRIORITY_HIGH, null);
+        Map<String, Object> updates = new HashMap<>();
+
+        TaskCodec.putChangePaths("t1", pending,
+                java.util.Collections.<String, Object>singletonMap(Task.FIELD_TITLE, "B"), updates);
+
+        assertEquals(2, updates.size());
+        assertEquals("B", updates.get("t1/" + Task.FIELD_TITLE));
+        assertTrue(updates.containsKey("t1/" + Task.FIELD_UPDATED_AT));
+    }
+
+    @Test
+    public void timestampsAreReadAsLongs() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(Task.FIELD_CREATED_AT, 1_700_000_000_000L);
+        fields.put(Task.FIELD_DUE_AT, 1.7E12);
+        fields.put(Task.FIELD_PRIORITY, 2L);
+
+        Task decoded = TaskCodec.fromMap("t1", fields);
+
+        assertEquals(Long.valueOf(1_700_000_000_000L), decoded.getCreatedAt());
+        assertEquals(Long.valueOf(1_700_000_000_000L), decoded.getDueAt());
+        assertEquals(Task.PRIORITY_MEDIUM, decoded.getPriority());
+        assertNull(decoded.getUpdatedAt());
+        assertNull(decoded.getReminderAt());
+    }
+}
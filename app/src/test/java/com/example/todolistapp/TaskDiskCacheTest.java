@@ -0,0 +1,86 @@
+package com.example.todolistapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class TaskDiskCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void missingFileReadsEmpty() throws Exception {
+        TaskDiskCache cache = new TaskDiskCache(new File(folder.getRoot(), "tasks-u1.bin"));
+
+        assertTrue(cache.read().isEmpty());
+        assertEquals(0, cache.readWatermark());
+    }
+
+    @Test
+    public void roundTripKeepsEveryField() throws Exception {
+        TaskDiskCache cache = new TaskDiskCache(new File(folder.getRoot(), "tasks-u1.bin"));
+        char[] longText = new char[70_000];
+        Arrays.fill(longText, 'á');
+        Task dated = new Task("a", "Comprar pão", null, true, 1_000L, 2_000L, null, Task.PRIORITY_HIGH, 3_000L);
+        cache.write(Arrays.asList(dated, new Task("b", null, new String(longText), false)), 2_000L);
+
+        List<Task> read = cache.read();
+
+        assertEquals(2_000L, cache.readWatermark());
+        assertEquals(2, read.size());
+        assertTrue(dated.sameContent(read.get(0)));
+        assertTrue(new Task("b", null, new String(longText), false).sameContent(read.get(1)));
+        assertTrue(read.get(0).getDirtyFields().isEmpty());
+    }
+
+    @Test
+    public void cacheOf5kTasksFillsTheFirstRow() throws Exception {
+        TaskDiskCache cache = filledCache(5_000);
+
+        TaskStore store = new TaskStore();
+        TaskView view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> runnable.run());
+        store.replaceAll(cache.read());
+
+        assertEquals("task00000", view.get(0).getId());
+        assertEquals(5_000, view.size());
+    }
+
+    @Test
+    public void timeToFirstRowFromCacheFor5kTasks() throws Exception {
+        // Tempo de parede: só com -Djmh=true. O lado da rede depende da latência e fica no
+        // log do TaskRepository no aparelho
+        assumeTrue(Boolean.getBoolean("jmh"));
+        TaskDiskCache cache = filledCache(5_000);
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            TaskStore store = new TaskStore();
+            TaskView view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> runnable.run());
+            store.replaceAll(cache.read());
+            assertEquals("task00000", view.get(0).getId());
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        assertTrue("primeira linha a partir do cache acima de 100ms", bestNanos < 100_000_000L);
+    }
+
+    private TaskDiskCache filledCache(int size) throws Exception {
+        TaskDiskCache cache = new TaskDiskCache(new File(folder.getRoot(), "tasks-u1.bin"));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(String.format("task%05d", i), "Tarefa " + i, "Descrição da tarefa número " + i, i % 3 == 0));
+        }
+        cache.write(tasks, 0);
+        return cache;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+// Troca de filtro e busca locais sobre 10k e 100k tarefas sintéticas
+public class TaskIndexBenchmarkTest {
+
+    private static final String[] WORDS = {
+            "comprar", "ligar", "enviar", "revisar", "pagar", "agendar", "estudar", "limpar",
+            "relatório", "mercado", "banco", "médico", "projeto", "reunião", "conta", "email"
+    };
+    private static final int ROUNDS = 50;
+
+    @Test
+    public void filterAndSearchAt10k() {
+        run(10_000);
+    }
+
+    @Test
+    public void filterAndSearchAt100k() {
+        run(100_000);
+    }
+
+    private static void run(int size) {
+        TaskStore store = new TaskStore();
+        TaskIndex index = new TaskIndex(store);
+        TaskView view = new TaskView(store, index, (runnable, delayMillis) -> runnable.run());
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            store.upsert(new Task(String.format("task%07d", i), title, WORDS[random.nextInt(WORDS.length)], random.nextBoolean()));
+        }
+
+        List<String> selective = TaskIndex.tokenize("rel proj");
+        List<String> exact = TaskIndex.tokenize(String.valueOf(size / 2));
+        List<Task> found = index.query(TaskIndex.Filter.ALL, exact);
+        assertEquals(1, found.size());
+        assertEquals(String.format("task%07d", size / 2), found.get(0).getId());
+
+        // Medição de tempo: só roda junto com os benchmarks (-Djmh=true), não no testDebugUnitTest comum
+        assumeTrue(Boolean.getBoolean("jmh"));
+        for (int i = 0; i < ROUNDS; i++) {
+            index.query(TaskIndex.Filter.PENDING, selective);
+            index.query(TaskIndex.Filter.ALL, exact);
+            view.setFilter(i % 2 == 0 ? TaskIndex.Filter.PENDING : TaskIndex.Filter.COMPLETED);
+        }
+
+        double exactSearch = nanosPerQuery(index, TaskIndex.Filter.ALL, exact);
+        assertTrue("busca exata acima de 1ms", exactSearch < 1_000_000);
+    }
+
+    private static double nanosPerQuery(TaskIndex index, TaskIndex.Filter filter, List<String> tokens) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            index.query(filter, tokens);
+        }
+        return (System.nanoTime() - start) / (double) ROUNDS;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskIndexTest {
+
+    private TaskStore store;
+    private TaskIndex index;
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        index = new TaskIndex(store);
+        store.upsert(new Task("a", "Comprar pão", "Padaria da esquina", false));
+        store.upsert(new Task("b", "Reunião", "Preparar apresentação", true));
+        store.upsert(new Task("c", "Comprar presente", "Aniversário", true));
+    }
+
+    @Test
+    public void statusIndexesFollowChanges() {
+        assertEquals(ids("a"), ids(index.query(TaskIndex.Filter.PENDING, Collections.<String>emptyList())));
+        assertEquals(ids("b", "c"), ids(index.query(TaskIndex.Filter.COMPLETED, Collections.<String>emptyList())));
+
+        store.upsert(new Task("b", "Reunião", "Preparar apresentação", false));
+        store.remove("c");
+
+        assertEquals(ids("a", "b"), ids(index.query(TaskIndex.Filter.PENDING, Collections.<String>emptyList())));
+        assertEquals(0, index.count(TaskIndex.Filter.COMPLETED));
+    }
+
+    @Test
+    public void prefixSearchIgnoresCaseAndAccents() {
+        assertEquals(ids("a", "c"), ids(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("COMP"))));
+        assertEquals(ids("b"), ids(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("reuniao"))));
+        assertEquals(ids("c"), ids(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("comprar aniv"))));
+        assertEquals(ids("c"), ids(index.query(TaskIndex.Filter.COMPLETED, TaskIndex.tokenize("compr"))));
+        assertTrue(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("xyz")).isEmpty());
+    }
+
+    @Test
+    public void editedTextIsReindexed() {
+        store.upsert(new Task("a", "Ligar para o banco", "", false));
+
+        assertEquals(ids("c"), ids(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("comprar"))));
+        assertEquals(ids("a"), ids(index.query(TaskIndex.Filter.ALL, TaskIndex.tokenize("banc"))));
+        assertTrue(TaskIndex.matches(store.get("a"), TaskIndex.Filter.PENDING, TaskIndex.tokenize("lig")));
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
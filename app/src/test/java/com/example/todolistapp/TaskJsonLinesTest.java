@@ -0,0 +1,75 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TaskJsonLinesTest {
+
+    @Test
+    public void roundTripKeepsEveryField() throws IOException {
+        Task task = new Task("-Nabc", "Comprar pão", "Na padaria", true, 1_700_000_000_000L, 1_700_000_500_000L,
+                1_700_086_400_000L, Task.PRIORITY_HIGH, 1_700_000_900_000L);
+
+        Task read = TaskJsonLines.read(line(task));
+
+        assertNotNull(read);
+        assertEquals(TaskCodec.toMap(task), TaskCodec.toMap(read));
+        assertEquals("-Nabc", read.getId());
+    }
+
+    @Test
+    public void nullFieldsAreLeftOut() throws IOException {
+        Task task = new Task("t1", "Só o título", null, false);
+
+        String line = line(task);
+
+        assertFalse(line.contains(Task.FIELD_DESCRIPTION));
+        assertFalse(line.contains(Task.FIELD_DUE_AT));
+        assertEquals(TaskCodec.toMap(task), TaskCodec.toMap(TaskJsonLines.read(line)));
+    }
+
+    @Test
+    public void descriptionWithLineBreaksStaysOnOneLine() throws IOException {
+        String description = "Linha 1\nLinha 2\r\n\t\"citação\" \\ fim \u0001 \u2028 ação ✓ 😀";
+        Task task = new Task("t1", "Título", description, false);
+
+        String line = line(task);
+
+        assertEquals(line.length() - 1, line.indexOf('\n'));
+        assertFalse(line.contains("\u2028"));
+        assertEquals(description, TaskJsonLines.read(line).getDescription());
+    }
+
+    @Test
+    public void unknownFieldsAndWhitespaceAreAccepted() {
+        Task task = TaskJsonLines.read(" { \"id\" : \"t1\" , \"title\":\"a\\/b \\u00e7\", \"tags\": \"x\", "
+                + "\"priority\": 2.0, \"completed\": true } ");
+
+        assertNotNull(task);
+        assertEquals("a/b ç", task.getTitle());
+        assertEquals(2, task.getPriority());
+        assertTrue(task.isCompleted());
+    }
+
+    @Test
+    public void malformedLinesReadAsNull() {
+        String[] lines = {
+                "", "{", "[]", "{}", "{\"title\":\"sem id\"}", "{\"id\":1}", "{\"id\":\"\"}",
+                "{\"id\":\"t1\",\"completed\":\"sim\"}", "{\"id\":\"t1\",\"title\":{\"a\":1}}",
+                "{\"id\":\"t1\"} lixo", "{\"id\":\"t1\",\"title\":\"aberto}", "{\"id\":\"t1\",\"title\":\"\\x\"}",
+                "{\"id\":\"t1\",\"dueAt\":12a}"
+        };
+        for (String line : lines) {
+            assertNull(line, TaskJsonLines.read(line));
+        }
+    }
+
+    private static String line(Task task) throws IOException {
+        StringBuilder out = new StringBuilder();
+        TaskJsonLines.write(out, task);
+        return out.toString();
+    }
+}
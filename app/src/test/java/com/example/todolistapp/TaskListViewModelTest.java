@@ -0,0 +1,185 @@
+package com.example.todolistapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskListViewModelTest {
+
+    // Fila no lugar do Looper principal: o teste decide quando a thread principal roda
+    private static class MainQueue implements Executor {
+        final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void drain() {
+            Runnable runnable;
+            while ((runnable = queue.poll()) != null) {
+                runnable.run();
+            }
+        }
+    }
+
+    // Cada attach reenvia o nó inteiro, como o Firebase faz numa assinatura nova
+    private static class FakeSyncSource implements TaskRepository.SyncSource {
+        final List<Task> server = new ArrayList<>();
+        final TaskPipeline pipeline;
+        int attached;
+        int detached;
+
+        FakeSyncSource(TaskPipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public ListenerRegistry.Subscription open(TaskSyncListener listener, long since) {
+            return new ListenerRegistry.Subscription() {
+                @Override
+                public void attach() {
+                    attached++;
+                    List<Task> tasks = new ArrayList<>(server);
+                    pipeline.execute(() -> {
+                        listener.beginResync();
+                        for (Task task : tasks) {
+                            listener.applyTask(task);
+                        }
+                        listener.endResync();
+                    });
+                }
+
+                @Override
+                public void detach() {
+                    detached++;
+                }
+            };
+        }
+    }
+
+    private static class RecordingListener implements TaskView.Listener {
+        final List<List<Task>> received = new ArrayList<>();
+
+        @Override
+        public void onTasksChanged(List<Task> snapshot, boolean viewSwitched) {
+            received.add(snapshot);
+        }
+
+        List<Task> last() {
+            return received.get(received.size() - 1);
+        }
+    }
+
+    private MainQueue main;
+    private List<FakeSyncSource> sources;
+    private TaskListViewModel viewModel;
+
+    @Before
+    public void setUp() {
+        main = new MainQueue();
+        sources = new ArrayList<>();
+        viewModel = new TaskListViewModel(userId -> {
+            TaskPipeline pipeline = new TaskPipeline(main);
+            FakeSyncSource source = new FakeSyncSource(pipeline);
+            for (int i = 0; i < 50; i++) {
+                source.server.add(new Task(userId + "-" + i, "Tarefa " + i, "", false));
+            }
+            sources.add(source);
+            return new TaskRepository(userId, pipeline, main, (updates, callback) -> callback.onComplete(null),
+                    source, null, null, null, null, 0);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        viewModel.onCleared();
+    }
+
+    @Test
+    public void configurationChangeReusesTheLoadedList() throws InterruptedException {
+        // Primeira activity: onCreate + onStart
+        RecordingListener first = new RecordingListener();
+        TaskRepository repository = viewModel.repositoryFor("u1");
+        repository.setListener(first);
+        repository.start();
+        awaitList(first, 50);
+        assertEquals(1, repository.getFetchCount());
+
+        // Rotação: onStop com isChangingConfigurations() não para, onDestroy solta o listener
+        repository.setListener(null);
+
+        RecordingListener second = new RecordingListener();
+        TaskRepository recreated = viewModel.repositoryFor("u1");
+        assertSame(repository, recreated);
+        recreated.setListener(second);
+        // A nova tela desenha na hora, sem esperar o servidor
+        assertEquals(1, second.received.size());
+        assertEquals(50, second.last().size());
+        recreated.start();
+
+        assertEquals(1, recreated.getFetchCount());
+        assertEquals(1, sources.get(0).attached);
+        assertEquals(0, sources.get(0).detached);
+    }
+
+    @Test
+    public void realStopAndStartFetchesAgain() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        TaskRepository repository = viewModel.repositoryFor("u1");
+        repository.setListener(listener);
+        repository.start();
+        awaitList(listener, 50);
+
+        // App em segundo plano e de volta
+        repository.stop();
+        assertEquals(1, sources.get(0).detached);
+        repository.start();
+        assertEquals(2, repository.getFetchCount());
+    }
+
+    @Test
+    public void anotherUserGetsAFreshRepository() {
+        TaskRepository first = viewModel.repositoryFor("u1");
+        first.start();
+
+        TaskRepository second = viewModel.repositoryFor("u2");
+        assertNotSame(first, second);
+        assertEquals("u2", second.getUserId());
+        // A assinatura do usuário anterior foi solta
+        assertEquals(1, sources.get(0).detached);
+    }
+
+    @Test
+    public void clearingTheViewModelDetaches() {
+        TaskRepository repository = viewModel.repositoryFor("u1");
+        repository.start();
+
+        viewModel.onCleared();
+
+        assertEquals(1, sources.get(0).attached);
+        assertEquals(1, sources.get(0).detached);
+    }
+
+    // Espera o pipeline publicar a lista e a entrega na fila da thread principal
+    private void awaitList(RecordingListener listener, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            main.drain();
+            if (!listener.received.isEmpty() && listener.last().size() == size) {
+                return;
+            }
+            new CountDownLatch(1).await(5, TimeUnit.MILLISECONDS);
+        }
+        fail("Lista com " + size + " tarefas não chegou");
+    }
+}
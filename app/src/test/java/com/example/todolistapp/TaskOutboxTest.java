@@ -0,0 +1,147 @@
+package com.example.todolistapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TaskOutboxTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unacknowledgedWritesSurviveReopen() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        TaskOutbox outbox = new TaskOutbox(file);
+        long first = outbox.append(update("a/completed", true));
+        long second = outbox.append(update("b", null));
+        Map<String, Object> timestamp = new HashMap<>();
+        timestamp.put(".sv", "timestamp");
+        long third = outbox.append(update("c/updatedAt", timestamp));
+        outbox.acknowledge(second);
+
+        Map<Long, Map<String, Object>> pending = new TaskOutbox(file).getPending();
+
+        assertEquals(2, pending.size());
+        assertEquals(update("a/completed", true), pending.get(first));
+        assertEquals(update("c/updatedAt", timestamp), pending.get(third));
+    }
+
+    @Test
+    public void logIsTruncatedWhenEverythingIsAcknowledged() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        TaskOutbox outbox = new TaskOutbox(file);
+        long sequence = outbox.append(update("a/title", "Novo"));
+        outbox.acknowledge(sequence);
+
+        assertEquals(0, file.length());
+        TaskOutbox reopened = new TaskOutbox(file);
+        assertTrue(reopened.getPending().isEmpty());
+        assertTrue(reopened.append(update("a/title", "Outro")) > 0);
+    }
+
+    @Test
+    public void truncatedTailIsIgnored() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        TaskOutbox outbox = new TaskOutbox(file);
+        outbox.append(update("a/completed", true));
+        outbox.append(update("b/completed", true));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        assertEquals(1, new TaskOutbox(file).getPending().size());
+    }
+
+    @Test
+    public void writesAfterATornRecordSurviveTheNextReopen() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        TaskOutbox outbox = new TaskOutbox(file);
+        long first = outbox.append(update("a/completed", true));
+        long complete = file.length();
+        outbox.append(update("b/title", "Registro cortado no meio do mapa"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(complete + 20);
+        }
+
+        TaskOutbox reopened = new TaskOutbox(file);
+        long after = reopened.append(update("c/completed", false));
+        Map<Long, Map<String, Object>> pending = new TaskOutbox(file).getPending();
+
+        assertEquals(2, pending.size());
+        assertEquals(update("a/completed", true), pending.get(first));
+        assertEquals(update("c/completed", false), pending.get(after));
+    }
+
+    @Test
+    public void garbageLengthsAreTreatedAsCorruption() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        TaskOutbox outbox = new TaskOutbox(file);
+        long first = outbox.append(update("a/completed", true));
+        long complete = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(complete);
+            // Registro de escrita com um mapa de tamanho negativo e outro com uma string gigante
+            raf.writeByte(1);
+            raf.writeLong(7);
+            raf.writeInt(-5);
+        }
+
+        TaskOutbox reopened = new TaskOutbox(file);
+
+        assertEquals(Collections.singleton(first), reopened.getPending().keySet());
+        assertEquals(complete, file.length());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(complete);
+            raf.writeByte(1);
+            raf.writeLong(8);
+            raf.writeInt(1);
+            raf.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertEquals(Collections.singleton(first), new TaskOutbox(file).getPending().keySet());
+        assertEquals(complete, file.length());
+    }
+
+    @Test
+    public void pendingWritesAreReplayedOnceAfterRestart() throws Exception {
+        File file = new File(folder.getRoot(), "outbox-u1.log");
+        List<TaskRemote.Callback> offline = new ArrayList<>();
+        OutboxTaskRemote beforeCrash = new OutboxTaskRemote((updates, callback) -> offline.add(callback), new TaskOutbox(file));
+        beforeCrash.updateChildren(update("a/completed", true), null);
+        // Processo morre sem resposta do servidor
+
+        List<Map<String, Object>> sent = new ArrayList<>();
+        List<TaskRemote.Callback> callbacks = new ArrayList<>();
+        TaskOutbox outbox = new TaskOutbox(file);
+        OutboxTaskRemote afterRestart = new OutboxTaskRemote((updates, callback) -> {
+            sent.add(updates);
+            callbacks.add(callback);
+        }, outbox);
+
+        assertEquals(1, afterRestart.replayPending());
+        assertEquals(0, afterRestart.replayPending());
+        assertEquals(Collections.singletonList(update("a/completed", true)), sent);
+
+        callbacks.get(0).onComplete(null);
+        assertTrue(outbox.getPending().isEmpty());
+        assertTrue(new TaskOutbox(file).getPending().isEmpty());
+    }
+
+    private static Map<String, Object> update(String path, Object value) {
+        Map<String, Object> update = new HashMap<>();
+        update.put(path, value);
+        return update;
+    }
+}
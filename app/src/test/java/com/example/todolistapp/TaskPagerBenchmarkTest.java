@@ -0,0 +1,94 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+// Conta de 50k tarefas: memória retida pelo modelo e bytes recebidos, com e sem páginas
+public class TaskPagerBenchmarkTest {
+
+    private static final int TASKS = 50_000;
+
+    @Test
+    public void rowsAndTransferAt50k() {
+        TaskPagerTest.FakePagedNode node = filledNode();
+
+        TaskStore store = new TaskStore();
+        ListenerRegistry registry = new ListenerRegistry();
+        TaskPager pager = new TaskPager(store, registry, node, "tasks/u1", error -> fail());
+        pager.start();
+        long startupBytes = node.bytesSent;
+        int peakRows = store.size();
+        // Rola até o fim da conta, descartando as páginas que saem da janela
+        while (pager.loadNext()) {
+            peakRows = Math.max(peakRows, store.size());
+        }
+        registry.unsubscribeAll();
+
+        // Sem páginas: o listener do nó inteiro entregaria todos os filhos
+        long fullBytes = 0;
+        for (Task task : node.children.values()) {
+            fullBytes += TaskPagerTest.FakePagedNode.sizeOf(task);
+        }
+
+        assertTrue(peakRows <= TaskPager.PAGE_SIZE * TaskPager.MAX_PAGES);
+        assertTrue(startupBytes * 100 < fullBytes);
+        assertEquals(fullBytes, node.bytesSent);
+    }
+
+    @Test
+    public void peakHeapAt50k() {
+        // Leituras de heap depois de System.gc() variam entre execuções: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        TaskPagerTest.FakePagedNode node = filledNode();
+        long baseline = usedHeap();
+
+        TaskStore store = new TaskStore();
+        TaskView view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> runnable.run());
+        ListenerRegistry registry = new ListenerRegistry();
+        TaskPager pager = new TaskPager(store, registry, node, "tasks/u1", error -> fail());
+        pager.start();
+        long pagedHeap = usedHeap() - baseline;
+        int pages = 1;
+        while (pager.loadNext()) {
+            pages++;
+            if (pages % 50 == 0) {
+                pagedHeap = Math.max(pagedHeap, usedHeap() - baseline);
+            }
+        }
+        registry.unsubscribeAll();
+        pager = null;
+        view = null;
+        store = null;
+        baseline = usedHeap();
+
+        TaskStore fullStore = new TaskStore();
+        TaskView fullView = new TaskView(fullStore, new TaskIndex(fullStore), (runnable, delayMillis) -> runnable.run());
+        for (Task task : node.children.values()) {
+            fullStore.upsert(TaskPagerTest.FakePagedNode.copy(task));
+        }
+        long fullHeap = usedHeap() - baseline;
+        assertEquals(TASKS, fullView.size());
+
+        assertTrue("pico de heap com páginas não ficou abaixo de um quarto da carga completa",
+                pagedHeap * 4 < fullHeap);
+    }
+
+    private static TaskPagerTest.FakePagedNode filledNode() {
+        TaskPagerTest.FakePagedNode node = new TaskPagerTest.FakePagedNode();
+        for (int i = 0; i < TASKS; i++) {
+            node.children.put(String.format("task%06d", i), new Task(String.format("task%06d", i),
+                    "Tarefa " + i, "Descrição da tarefa número " + i, i % 3 == 0));
+        }
+        return node;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class TaskPagerTest {
+
+    // Simula orderByKey().startAfter(cursor).limitToFirst(n): cada consulta vê as n primeiras
+    // chaves depois do cursor e recebe os filhos que entram e saem dessa janela
+    static class FakePagedNode implements TaskPager.PageSource {
+        // Marca de exclusão: a chave fica no nó com valor null
+        final TreeMap<String, Task> children = new TreeMap<>();
+        final Map<TaskPager.Page, Map<String, Task>> windows = new LinkedHashMap<>();
+        final Map<TaskPager.Page, String> cursors = new LinkedHashMap<>();
+        final Map<TaskPager.Page, Integer> limits = new LinkedHashMap<>();
+        long bytesSent;
+
+        @Override
+        public ListenerRegistry.Subscription open(String afterKey, int limit, TaskPager.Page page) {
+            return new ListenerRegistry.Subscription() {
+                @Override
+                public void attach() {
+                    page.beginLoad();
+                    cursors.put(page, afterKey);
+                    limits.put(page, limit);
+                    windows.put(page, new LinkedHashMap<>());
+                    sync(page);
+                    page.endLoad();
+                }
+
+                @Override
+                public void detach() {
+                    windows.remove(page);
+                    cursors.remove(page);
+                    limits.remove(page);
+                }
+            };
+        }
+
+        void write(Task task) {
+            children.put(task.getId(), task);
+            for (TaskPager.Page page : new ArrayList<>(windows.keySet())) {
+                sync(page);
+            }
+        }
+
+        void delete(String id) {
+            children.remove(id);
+            for (TaskPager.Page page : new ArrayList<>(windows.keySet())) {
+                sync(page);
+            }
+        }
+
+        void tombstone(String id) {
+            children.put(id, null);
+            for (TaskPager.Page page : new ArrayList<>(windows.keySet())) {
+                sync(page);
+            }
+        }
+
+        private void sync(TaskPager.Page page) {
+            String cursor = cursors.get(page);
+            Map<String, Task> window = new LinkedHashMap<>();
+            Map<String, Task> after = cursor == null ? children : children.tailMap(cursor, false);
+            for (Map.Entry<String, Task> child : after.entrySet()) {
+                if (window.size() == limits.get(page)) {
+                    break;
+                }
+                window.put(child.getKey(), child.getValue());
+            }
+            Map<String, Task> previous = windows.put(page, window);
+            for (String id : previous.keySet()) {
+                if (!window.containsKey(id)) {
+                    page.applyRemoval(id);
+                }
+            }
+            for (Map.Entry<String, Task> child : window.entrySet()) {
+                Task task = child.getValue();
+                if (previous.containsKey(child.getKey()) && previous.get(child.getKey()) == task) {
+                    continue;
+                }
+                if (task == null) {
+                    page.applyTombstone(child.getKey());
+                } else {
+                    bytesSent += sizeOf(task);
+                    page.applyTask(copy(task));
+                }
+            }
+        }
+
+        // Tamanho aproximado do JSON que o servidor envia por filho
+        static long sizeOf(Task task) {
+            String json = "\"" + task.getId() + "\":{\"completed\":" + task.isCompleted()
+                    + ",\"description\":\"" + task.getDescription() + "\",\"title\":\"" + task.getTitle() + "\"}";
+            return json.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        static Task copy(Task task) {
+            return new Task(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted());
+        }
+    }
+
+    private FakePagedNode node;
+    private TaskStore store;
+    private ListenerRegistry registry;
+    private TaskPager pager;
+
+    @Before
+    public void setUp() {
+        node = new FakePagedNode();
+        for (int i = 0; i < 100; i++) {
+            node.write(task(i));
+        }
+        store = new TaskStore();
+        registry = new ListenerRegistry();
+        pager = new TaskPager(store, registry, node, "tasks/u1", error -> fail(), 10, 3);
+        pager.start();
+    }
+
+    @Test
+    public void startLoadsOnlyFirstPage() {
+        assertEquals(10, store.size());
+        assertEquals("t000", store.getTasks().get(0).getId());
+        assertEquals("t009", store.getTasks().get(9).getId());
+    }
+
+    @Test
+    public void scrollingForwardEvictsOldPages() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(pager.loadNext());
+        }
+
+        assertEquals(30, store.size());
+        assertEquals("t030", store.getTasks().get(0).getId());
+        assertEquals("t059", store.getTasks().get(29).getId());
+        assertEquals(3, registry.getActiveCount());
+    }
+
+    @Test
+    public void scrollingBackReopensEvictedPages() {
+        for (int i = 0; i < 5; i++) {
+            pager.loadNext();
+        }
+        while (pager.loadPrevious()) {
+        }
+
+        assertEquals(0, pager.getFirstPage());
+        assertEquals(2, pager.getLastPage());
+        assertEquals("t000", store.getTasks().get(0).getId());
+        assertEquals("t029", store.getTasks().get(29).getId());
+    }
+
+    @Test
+    public void visibleRangeNearEdgeTriggersLoad() {
+        pager.onVisibleRange("t000", "t005");
+        assertEquals(20, store.size());
+
+        pager.onVisibleRange("t002", "t008");
+        assertEquals(20, store.size());
+    }
+
+    @Test
+    public void tailPageReceivesNewTasksAndStopsAtEnd() {
+        int pages = 1;
+        while (pager.loadNext()) {
+            pages++;
+        }
+        // Páginas 0-9 cheias e a página 10, vazia, que marca o fim
+        assertEquals(11, pages);
+        assertEquals("t099", store.getTasks().get(store.size() - 1).getId());
+
+        node.delete("t095");
+        node.write(task(100));
+        assertEquals("t100", store.getTasks().get(store.size() - 1).getId());
+        assertNull(store.get("t095"));
+    }
+
+    @Test
+    public void tombstonesStillFillThePageAndCanBeTheCursor() {
+        node.tombstone("t002");
+        node.tombstone("t005");
+        node.tombstone("t009");
+
+        assertTrue(pager.loadNext());
+        // Página 1 começa depois da marca t009, e não em t008
+        assertEquals(17, store.size());
+        assertEquals("t010", store.getTasks().get(7).getId());
+
+        int pages = 2;
+        while (pager.loadNext()) {
+            pages++;
+        }
+        assertEquals(11, pages);
+        assertEquals("t099", store.getTasks().get(store.size() - 1).getId());
+    }
+
+    @Test
+    public void overlappingPagesKeepTaskUntilLastHolderLeaves() {
+        pager.loadNext();
+        // Apagar t005 puxa t010 para a página 0, que também está na página 1
+        node.delete("t005");
+        assertEquals(19, store.size());
+
+        pager.loadNext();
+        pager.loadNext();
+        assertNotNull(store.get("t010"));
+        assertNull(store.get("t009"));
+    }
+
+    @Test
+    public void restartReconcilesDeletionsMadeWhileStopped() {
+        registry.unsubscribeAll();
+        node.delete("t003");
+        node.delete("t007");
+        node.write(new Task("t004", "Editada", "", true));
+
+        pager.start();
+
+        assertNull(store.get("t003"));
+        assertNull(store.get("t007"));
+        assertEquals("Editada", store.get("t004").getTitle());
+        assertEquals(Arrays.asList("t000", "t001", "t002", "t004"), ids(store.getTasks().subList(0, 4)));
+    }
+
+    static Task task(int i) {
+        return new Task(String.format("t%03d", i), "Tarefa " + i, "Descrição " + i, i % 2 == 0);
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
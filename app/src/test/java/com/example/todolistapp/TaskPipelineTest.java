@@ -0,0 +1,188 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class TaskPipelineTest {
+
+    // Fila no lugar do Looper principal: o teste decide quando a thread principal roda
+    private static class MainQueue implements Executor {
+        final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        // Devolve o tempo gasto nos callbacks da thread principal
+        long drain() {
+            long nanos = 0;
+            Runnable runnable;
+            while ((runnable = queue.poll()) != null) {
+                long start = System.nanoTime();
+                runnable.run();
+                nanos += System.nanoTime() - start;
+            }
+            return nanos;
+        }
+    }
+
+    @Test
+    public void onlyTheLatestSnapshotReachesTheMainThread() {
+        MainQueue main = new MainQueue();
+        List<List<Task>> delivered = new ArrayList<>();
+        List<Boolean> switches = new ArrayList<>();
+        TaskPipeline.MainThreadHandoff handoff = new TaskPipeline.MainThreadHandoff((snapshot, viewSwitched) -> {
+            delivered.add(snapshot);
+            switches.add(viewSwitched);
+        }, main);
+
+        handoff.onTasksChanged(tasks(1), true);
+        handoff.onTasksChanged(tasks(2), false);
+        handoff.onTasksChanged(tasks(3), false);
+        main.drain();
+
+        assertEquals(1, delivered.size());
+        assertEquals(3, delivered.get(0).size());
+        // A troca de filtro da primeira lista, descartada, segue para a que chegou
+        assertTrue(switches.get(0));
+        assertEquals(2, handoff.getDroppedCount());
+
+        handoff.onTasksChanged(tasks(4), false);
+        main.drain();
+        assertEquals(2, delivered.size());
+        assertFalse(switches.get(1));
+    }
+
+    @Test
+    public void modelChangesAndPublishingRunOnThePipelineThread() throws Exception {
+        MainQueue main = new MainQueue();
+        TaskPipeline pipeline = new TaskPipeline(main);
+        TaskStore store = new TaskStore();
+        List<String> threads = new ArrayList<>();
+        pipeline.execute(() -> {
+            TaskView view = new TaskView(store, new TaskIndex(store), pipeline.scheduler());
+            view.setListener((snapshot, viewSwitched) -> threads.add(Thread.currentThread().getName()));
+        });
+
+        pipeline.execute(() -> store.upsert(new Task("t1", "A", "", false)));
+        awaitIdle(pipeline);
+        awaitIdle(pipeline);
+        pipeline.shutdown();
+
+        assertEquals(1, threads.size());
+        assertEquals("task-pipeline", threads.get(0));
+        assertTrue(main.queue.isEmpty());
+    }
+
+    @Test
+    public void workerExceptionsAreRethrownOnTheMainThread() throws Exception {
+        MainQueue main = new MainQueue();
+        TaskPipeline pipeline = new TaskPipeline(main);
+
+        pipeline.execute(() -> {
+            throw new IllegalStateException("falha no modelo");
+        });
+        awaitIdle(pipeline);
+        pipeline.shutdown();
+
+        try {
+            main.drain();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("falha no modelo", e.getMessage());
+        }
+    }
+
+    @Test
+    public void mainThreadTimePerUpdateStaysBoundedAsListGrows() throws Exception {
+        // Depende de tempo de parede; só roda com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        long[] small = nanosPerUpdate(1_000);
+        long[] large = nanosPerUpdate(100_000);
+
+        // A entrega é O(1): não cresce com a lista como o trabalho que saiu da thread principal
+        assertTrue("custo na thread principal cresceu com a lista", large[0] < Math.max(small[0] * 10, 20_000));
+        assertTrue("a entrega custa tanto quanto processar na thread principal", large[0] * 5 < large[1]);
+    }
+
+    // [thread principal com o pipeline, modelo inteiro na thread principal] em ns por atualização
+    private static long[] nanosPerUpdate(int size) throws Exception {
+        int updates = 200;
+        MainQueue main = new MainQueue();
+        TaskPipeline pipeline = new TaskPipeline(main);
+        TaskStore store = new TaskStore();
+        List<Integer> deliveredSizes = new ArrayList<>();
+        CountDownLatch built = new CountDownLatch(1);
+        pipeline.execute(() -> {
+            for (int i = 0; i < size; i++) {
+                store.upsert(task(i, false));
+            }
+            TaskView view = new TaskView(store, new TaskIndex(store), pipeline.scheduler());
+            view.setListener(pipeline.deliverOnMainThread((snapshot, viewSwitched) -> deliveredSizes.add(snapshot.size())));
+            built.countDown();
+        });
+        assertTrue(built.await(60, TimeUnit.SECONDS));
+
+        long mainNanos = 0;
+        for (int i = 0; i < updates; i++) {
+            int index = (int) ((i * 7919L) % size);
+            boolean completed = i % 2 == 0;
+            pipeline.execute(() -> store.upsert(task(index, completed)));
+            // Publicação da TaskView agendada pela atualização
+            awaitIdle(pipeline);
+            awaitIdle(pipeline);
+            mainNanos += main.drain();
+        }
+        pipeline.shutdown();
+        assertFalse(deliveredSizes.isEmpty());
+        assertEquals(size, (int) deliveredSizes.get(deliveredSizes.size() - 1));
+
+        // O mesmo trabalho como era antes: aplicar e montar a lista na thread principal
+        TaskStore inlineStore = new TaskStore();
+        for (int i = 0; i < size; i++) {
+            inlineStore.upsert(task(i, false));
+        }
+        List<Runnable> scheduled = new ArrayList<>();
+        TaskView inlineView = new TaskView(inlineStore, new TaskIndex(inlineStore), (runnable, delayMillis) -> scheduled.add(runnable));
+        inlineView.setListener((snapshot, viewSwitched) -> deliveredSizes.add(snapshot.size()));
+        long inlineNanos = 0;
+        for (int i = 0; i < updates; i++) {
+            long start = System.nanoTime();
+            inlineStore.upsert(task((int) ((i * 7919L) % size), i % 2 == 0));
+            for (Runnable runnable : scheduled) {
+                runnable.run();
+            }
+            scheduled.clear();
+            inlineNanos += System.nanoTime() - start;
+        }
+        return new long[]{mainNanos / updates, inlineNanos / updates};
+    }
+
+    private static void awaitIdle(TaskPipeline pipeline) throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        pipeline.execute(idle::countDown);
+        assertTrue(idle.await(10, TimeUnit.SECONDS));
+    }
+
+    private static Task task(int i, boolean completed) {
+        return new Task(String.format("task%06d", i), "Tarefa " + i, "Descrição " + i, completed);
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(i, false));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class TaskQueriesTest {
+
+    private static final TimeZone SAO_PAULO = TimeZone.getTimeZone("America/Sao_Paulo");
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
+    @Test
+    public void dayBoundsCoverTheLocalDay() {
+        long now = at(SAO_PAULO, 2024, Calendar.JUNE, 15, 13, 45);
+
+        long[] day = TaskQueries.dayBounds(now, SAO_PAULO);
+
+        assertEquals(at(SAO_PAULO, 2024, Calendar.JUNE, 15, 0, 0), day[0]);
+        assertEquals(at(SAO_PAULO, 2024, Calendar.JUNE, 16, 0, 0), day[1]);
+        assertTrue(day[0] <= now && now < day[1]);
+    }
+
+    @Test
+    public void dayBoundsFollowDaylightSavingChanges() {
+        // 10/03/2024 em Nova York tem 23 horas
+        long[] day = TaskQueries.dayBounds(at(NEW_YORK, 2024, Calendar.MARCH, 10, 12, 0), NEW_YORK);
+
+        assertEquals(23L * 60 * 60 * 1000, day[1] - day[0]);
+    }
+
+    @Test
+    public void dueAtEndOfDayFallsInsideTheDay() {
+        long[] day = TaskQueries.dayBounds(at(SAO_PAULO, 2024, Calendar.JUNE, 15, 8, 0), SAO_PAULO);
+        long endOfDay = at(SAO_PAULO, 2024, Calendar.JUNE, 16, 0, 0) - 1;
+
+        // endBefore(fim) inclui o último milissegundo gravado pelo seletor de prazo
+        assertTrue(endOfDay >= day[0] && endOfDay < day[1]);
+    }
+
+    private static long at(TimeZone zone, int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}
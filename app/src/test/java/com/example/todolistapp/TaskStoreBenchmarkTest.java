@@ -0,0 +1,76 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+// Custo por alteração do modelo incremental comparado com a recarga completa antiga
+public class TaskStoreBenchmarkTest {
+
+    private static final int CHANGES = 20_000;
+
+    @Test
+    public void perChangeCostStaysFlatAsListGrows() {
+        // Comparação de tempos: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        double small = nanosPerChange(1_000);
+        double large = nanosPerChange(100_000);
+        double reload = nanosPerFullReload(100_000);
+
+        assertTrue("custo por alteração cresceu com a lista", large < small * 10);
+        assertTrue("alteração incremental não é mais barata que recarga", large * 100 < reload);
+    }
+
+    private static double nanosPerChange(int size) {
+        TaskStore store = filledStore(size);
+        Task[] updates = new Task[CHANGES];
+        for (int i = 0; i < CHANGES; i++) {
+            updates[i] = task((int) ((i * 7919L) % size), i % 2 == 0);
+        }
+        // Aquecimento
+        apply(store, updates);
+        long start = System.nanoTime();
+        apply(store, updates);
+        return (System.nanoTime() - start) / (double) CHANGES;
+    }
+
+    private static double nanosPerFullReload(int size) {
+        List<Task> source = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            source.add(task(i, false));
+        }
+        List<Task> taskList = new ArrayList<>();
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            // O que loadTasks fazia a cada onDataChange
+            taskList.clear();
+            for (Task task : source) {
+                taskList.add(new Task(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted()));
+            }
+        }
+        return (System.nanoTime() - start) / (double) rounds;
+    }
+
+    private static void apply(TaskStore store, Task[] updates) {
+        for (Task update : updates) {
+            store.upsert(update);
+        }
+    }
+
+    private static TaskStore filledStore(int size) {
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < size; i++) {
+            store.upsert(task(i, false));
+        }
+        return store;
+    }
+
+    private static Task task(int index, boolean completed) {
+        return new Task(String.format("task%07d", index), "Tarefa " + index, "Descrição", completed);
+    }
+}
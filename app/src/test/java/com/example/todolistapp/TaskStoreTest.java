@@ -0,0 +1,128 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskStoreTest {
+
+    private TaskStore store;
+    private List<String> events;
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        events = new ArrayList<>();
+        store.addObserver(new TaskStore.Observer() {
+            @Override
+            public void onTaskInserted(int position, Task task) {
+                events.add("insert " + position);
+            }
+
+            @Override
+            public void onTaskChanged(int position, Task previous, Task task) {
+                events.add("change " + position);
+            }
+
+            @Override
+            public void onTaskRemoved(int position, Task task) {
+                events.add("remove " + position);
+            }
+
+            @Override
+            public void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task) {
+                events.add("move " + fromPosition + " " + toPosition);
+            }
+
+            @Override
+            public void onTasksReplaced() {
+            }
+        });
+    }
+
+    @Test
+    public void insertsInKeyOrder() {
+        store.upsert(new Task("b", "B", "", false));
+        store.upsert(new Task("a", "A", "", false));
+        store.upsert(new Task("c", "C", "", false));
+
+        assertEquals(Arrays.asList("insert 0", "insert 0", "insert 2"), events);
+        assertEquals("a", store.getTasks().get(0).getId());
+        assertEquals("c", store.getTasks().get(2).getId());
+    }
+
+    @Test
+    public void changeNotifiesOnlyThatRow() {
+        store.upsert(new Task("a", "A", "", false));
+        store.upsert(new Task("b", "B", "", false));
+        events.clear();
+
+        store.upsert(new Task("b", "B", "", true));
+
+        assertEquals(Arrays.asList("change 1"), events);
+        assertTrue(store.get("b").isCompleted());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void removeNotifiesPosition() {
+        store.upsert(new Task("a", "A", "", false));
+        store.upsert(new Task("b", "B", "", false));
+        events.clear();
+
+        store.remove("a");
+        store.remove("missing");
+
+        assertEquals(Arrays.asList("remove 0"), events);
+        assertNull(store.get("a"));
+        assertEquals(0, store.indexOf("b"));
+    }
+
+    @Test
+    public void reorderedTaskIsMoved() {
+        TaskStore byTitle = new TaskStore((a, b) -> a.getTitle().compareTo(b.getTitle()));
+        List<String> moves = new ArrayList<>();
+        byTitle.upsert(new Task("1", "a", "", false));
+        byTitle.upsert(new Task("2", "b", "", false));
+        byTitle.upsert(new Task("3", "c", "", false));
+        byTitle.addObserver(new TaskStore.Observer() {
+            @Override
+            public void onTaskInserted(int position, Task task) {
+            }
+
+            @Override
+            public void onTaskChanged(int position, Task previous, Task task) {
+                moves.add("change " + position);
+            }
+
+            @Override
+            public void onTaskRemoved(int position, Task task) {
+            }
+
+            @Override
+            public void onTaskMoved(int fromPosition, int toPosition, Task previous, Task task) {
+                moves.add("move " + fromPosition + " " + toPosition);
+            }
+
+            @Override
+            public void onTasksReplaced() {
+            }
+        });
+
+        byTitle.upsert(new Task("1", "d", "", false));
+
+        assertEquals(Arrays.asList("move 0 2"), moves);
+        assertEquals("1", byTitle.getTasks().get(2).getId());
+        assertEquals(2, byTitle.indexOf("1"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void tasksViewIsReadOnly() {
+        store.getTasks().add(new Task("a", "A", "", false));
+    }
+}
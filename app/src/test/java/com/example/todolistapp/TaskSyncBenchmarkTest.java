@@ -0,0 +1,153 @@
+package com.example.todolistapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+// Conta de 10k tarefas que volta depois de um dia com poucas alterações: bytes recebidos e
+// tempo até o modelo refletir o servidor, sincronizando tudo ou só a partir do watermark
+public class TaskSyncBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test
+    public void deltaSyncAfterAFewChanges() {
+        Account account = new Account();
+
+        Result full = fullSync(account.server, account.cached);
+        Result delta = deltaSync(account.server, account.cached, account.watermark, account.now);
+
+        // Mesmo resultado final, por qualquer dos caminhos
+        assertEquals(TASKS - 1, full.store.size());
+        assertEquals(full.store.size(), delta.store.size());
+        for (Task task : full.store.getTasks()) {
+            assertTrue(task.sameContent(delta.store.get(task.getId())));
+        }
+        // As 8 alterações e as poucas da sessão anterior dentro da folga do watermark
+        assertTrue(delta.children >= 8 && delta.children < 20);
+        assertTrue(delta.bytes * 100 < full.bytes);
+    }
+
+    @Test
+    public void timeToFreshDataAfterAFewChanges() {
+        // Tempo de parede: só com -Djmh=true
+        assumeTrue(Boolean.getBoolean("jmh"));
+        Account account = new Account();
+
+        long fullNanos = Long.MAX_VALUE;
+        long deltaNanos = Long.MAX_VALUE;
+        // As primeiras rodadas servem de aquecimento; vale a melhor
+        for (int round = 0; round < 10; round++) {
+            fullNanos = Math.min(fullNanos, fullSync(account.server, account.cached).nanos);
+            deltaNanos = Math.min(deltaNanos,
+                    deltaSync(account.server, account.cached, account.watermark, account.now).nanos);
+        }
+
+        assertTrue("sync incremental não é bem mais rápido que a completa", deltaNanos * 10 < fullNanos);
+    }
+
+    // Servidor e aparelho de uma conta que volta depois de poucas alterações feitas em outro aparelho
+    private static final class Account {
+        final long now = System.currentTimeMillis();
+        final Map<String, Map<String, Object>> server = new LinkedHashMap<>();
+        final List<Task> cached;
+        final long watermark;
+
+        Account() {
+            for (int i = 0; i < TASKS; i++) {
+                String id = String.format("task%05d", i);
+                // Uma alteração a cada 5 minutos, a última há uns 5 dias
+                long updatedAt = now - 40 * 24 * HOUR + i * 5 * 60 * 1000L;
+                server.put(id, TaskCodec.toMap(new Task(id, "Tarefa " + i, "Descrição da tarefa número " + i,
+                        i % 3 == 0, updatedAt, updatedAt, null, i % 4, null)));
+            }
+
+            // Sessão anterior: o aparelho tem tudo no cache em disco, com o watermark
+            TaskStore cacheSource = new TaskStore();
+            TaskSyncListener previous = new TaskSyncListener(cacheSource, error -> fail());
+            for (Map.Entry<String, Map<String, Object>> child : server.entrySet()) {
+                previous.applyFields(child.getKey(), child.getValue());
+            }
+            cached = new ArrayList<>(cacheSource.getTasks());
+            watermark = previous.getWatermark();
+
+            // Enquanto isso, outro aparelho: 5 edições, 2 exclusões e 1 tarefa nova
+            long later = now - 2 * HOUR;
+            for (int i = 0; i < 5; i++) {
+                String id = String.format("task%05d", i * 1_000);
+                server.get(id).put(Task.FIELD_TITLE, "Editada " + i);
+                server.get(id).put(Task.FIELD_UPDATED_AT, later + i);
+            }
+            server.put("task00500", TaskSyncListenerTest.tombstone(later + 10));
+            server.put("task00501", TaskSyncListenerTest.tombstone(later + 11));
+            server.put("task99999", TaskCodec.toMap(TaskSyncListenerTest.task("task99999", later + 12)));
+        }
+    }
+
+    private static final class Result {
+        final TaskStore store = new TaskStore();
+        long bytes;
+        int children;
+        // Do attach ao fim da carga inicial; o cache já está no modelo nos dois casos
+        long nanos;
+    }
+
+    private static Result fullSync(Map<String, Map<String, Object>> server, List<Task> cached) {
+        Result result = new Result();
+        result.store.replaceAll(cached);
+        TaskSyncListener listener = new TaskSyncListener(result.store, error -> fail());
+        long start = System.nanoTime();
+        listener.beginResync();
+        for (Map.Entry<String, Map<String, Object>> child : server.entrySet()) {
+            result.bytes += wireSize(child.getKey(), child.getValue());
+            result.children++;
+            listener.applyFields(child.getKey(), child.getValue());
+        }
+        listener.endResync();
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    // O servidor resolve orderByChild(updatedAt).startAt(since) pelo índice e só envia esses filhos
+    private static Result deltaSync(Map<String, Map<String, Object>> server, List<Task> cached, long watermark, long now) {
+        Result result = new Result();
+        result.store.replaceAll(cached);
+        TaskSyncListener listener = new TaskSyncListener(result.store, error -> fail());
+        listener.setWatermark(watermark);
+        long since = listener.deltaStart(now);
+        assertTrue(since > 0);
+        Map<String, Map<String, Object>> sent = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> child : server.entrySet()) {
+            if (TaskCodec.updatedAtOf(child.getValue()) >= since) {
+                sent.put(child.getKey(), child.getValue());
+            }
+        }
+        long start = System.nanoTime();
+        for (Map.Entry<String, Map<String, Object>> child : sent.entrySet()) {
+            result.bytes += wireSize(child.getKey(), child.getValue());
+            result.children++;
+            listener.applyFields(child.getKey(), child.getValue());
+        }
+        listener.endDelta();
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    // Tamanho aproximado do JSON do filho como o Firebase o envia
+    private static long wireSize(String key, Map<String, Object> fields) {
+        long size = key.length() + 4;
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (field.getValue() != null) {
+                size += field.getKey().length() + String.valueOf(field.getValue()).length() + 6;
+            }
+        }
+        return size;
+    }
+}
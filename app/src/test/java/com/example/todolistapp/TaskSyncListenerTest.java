@@ -0,0 +1,106 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TaskSyncListenerTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private TaskStore store;
+    private TaskSyncListener listener;
+    private final List<List<String>> purged = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        listener = new TaskSyncListener(store, error -> fail());
+        listener.setTombstoneListener(purged::add);
+    }
+
+    @Test
+    public void deltaKeepsTasksThatDidNotChange() {
+        store.replaceAll(Arrays.asList(task("a", 100), task("b", 200), task("c", 300)));
+        listener.setWatermark(300);
+
+        listener.applyFields("b", TaskCodec.toMap(edited(task("b", 400))));
+        listener.endDelta();
+
+        assertEquals(3, store.size());
+        assertEquals("b editada", store.get("b").getTitle());
+        assertEquals(400, listener.getWatermark());
+    }
+
+    @Test
+    public void fullResyncStillDropsTasksThatDidNotComeBack() {
+        store.replaceAll(Arrays.asList(task("a", 100), task("b", 200)));
+
+        listener.beginResync();
+        listener.applyFields("a", TaskCodec.toMap(task("a", 100)));
+        listener.endResync();
+
+        assertEquals(1, store.size());
+        assertNull(store.get("b"));
+    }
+
+    @Test
+    public void tombstoneRemovesTheTaskAndAdvancesTheWatermark() {
+        store.replaceAll(Arrays.asList(task("a", 100), task("b", 200)));
+        listener.setWatermark(200);
+
+        listener.applyFields("a", tombstone(500));
+
+        assertNull(store.get("a"));
+        assertEquals(1, store.size());
+        assertEquals(500, listener.getWatermark());
+    }
+
+    @Test
+    public void deltaStartsSlightlyBeforeTheWatermark() {
+        long now = 100 * DAY;
+        assertEquals(0, listener.deltaStart(now));
+
+        listener.setWatermark(now - DAY);
+        assertEquals(now - DAY - TaskSyncListener.WATERMARK_MARGIN_MS, listener.deltaStart(now));
+
+        // Marcas de exclusão dessa época podem já ter sido apagadas: só a completa é segura
+        listener.setWatermark(now - TaskSyncListener.TOMBSTONE_TTL_MS);
+        assertEquals(0, listener.deltaStart(now));
+    }
+
+    @Test
+    public void fullResyncReportsExpiredTombstonesOnly() {
+        long now = System.currentTimeMillis();
+
+        listener.beginResync();
+        listener.applyFields("velha", tombstone(now - TaskSyncListener.TOMBSTONE_TTL_MS - DAY));
+        listener.applyFields("recente", tombstone(now - DAY));
+        listener.applyFields("viva", TaskCodec.toMap(task("viva", now)));
+        listener.endResync();
+
+        assertEquals(Arrays.asList(Arrays.asList("velha")), purged);
+        assertEquals(1, store.size());
+    }
+
+    static Task task(String id, long updatedAt) {
+        return new Task(id, id, "Descrição de " + id, false, updatedAt, updatedAt, null, Task.PRIORITY_NONE, null);
+    }
+
+    static Map<String, Object> tombstone(long updatedAt) {
+        Map<String, Object> fields = TaskCodec.tombstone();
+        fields.put(Task.FIELD_UPDATED_AT, updatedAt);
+        return fields;
+    }
+
+    private static Task edited(Task task) {
+        return new Task(task.getId(), task.getId() + " editada", task.getDescription(), task.isCompleted(),
+                task.getCreatedAt(), task.getUpdatedAt(), task.getDueAt(), task.getPriority(), task.getReminderAt());
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskTransferTest {
+
+    private static final Exception DENIED = new Exception("Permission denied");
+    // A lista de 200k tarefas em memória passa de 100 MB; a transferência precisa caber nisto
+    private static final String TIGHT_HEAP = "-Xmx16m";
+    private static final int LARGE_COUNT = 200_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeTaskDatabase source;
+    private FakeTaskDatabase target;
+    private File checkpoint;
+
+    @Before
+    public void setUp() throws IOException {
+        source = new FakeTaskDatabase();
+        source.seed(FakeTaskDatabase.generate(1_234, source.now()));
+        target = new FakeTaskDatabase();
+        target.setNow(source.now() + 60_000);
+        checkpoint = new File(folder.getRoot(), "import.checkpoint");
+    }
+
+    @Test
+    public void exportWritesOneLinePerTaskAndSkipsTombstones() throws IOException {
+        source.updateChildren(Collections.singletonMap("t000005", TaskCodec.tombstone()), error -> assertNull(error));
+
+        byte[] file = export(source);
+
+        List<String> lines = lines(file);
+        assertEquals(1_233, lines.size());
+        for (String line : lines) {
+            assertNotEquals("t000005", TaskJsonLines.read(line).getId());
+        }
+    }
+
+    @Test
+    public void roundTripIntoAnotherAccountKeepsEveryField() throws IOException {
+        byte[] file = export(source);
+
+        TaskTransfer.Result result = importInto(target, file, "arquivo", null);
+
+        assertEquals(1_234, result.tasks);
+        assertEquals(0, result.rejectedLines);
+        assertFalse(result.resumed);
+        assertEquals(1_234, target.liveCount());
+        // Lotes de um updateChildren cada
+        assertEquals(3, target.getWriteCount());
+        for (int i = 0; i < 1_234; i++) {
+            String id = String.format(Locale.US, "t%06d", i);
+            Map<String, Object> expected = new LinkedHashMap<>(source.get(id));
+            Map<String, Object> imported = new LinkedHashMap<>(target.get(id));
+            // O updatedAt é o do servidor de destino, para a sincronização incremental dos outros aparelhos
+            assertEquals(target.now(), imported.remove(Task.FIELD_UPDATED_AT));
+            expected.remove(Task.FIELD_UPDATED_AT);
+            assertEquals(id, expected, imported);
+        }
+        assertFalse(checkpoint.exists());
+    }
+
+    @Test
+    public void progressIsReportedAfterEveryChunk() throws IOException {
+        byte[] file = export(source);
+        List<long[]> reports = new ArrayList<>();
+
+        importInto(target, file, "arquivo", (tasks, bytes, totalBytes) -> reports.add(new long[]{tasks, bytes, totalBytes}));
+
+        assertEquals(3, reports.size());
+        assertEquals(500, reports.get(0)[0]);
+        assertTrue(reports.get(0)[1] < reports.get(1)[1]);
+        assertEquals(1_234, reports.get(2)[0]);
+        assertEquals(file.length, reports.get(2)[1]);
+        assertEquals(file.length, reports.get(2)[2]);
+    }
+
+    @Test
+    public void interruptedImportResumesAfterTheLastConfirmedChunk() throws IOException {
+        byte[] file = export(source);
+        int[] writes = new int[1];
+        target.setFailurePolicy(updates -> ++writes[0] == 3 ? DENIED : null);
+        TaskTransfer transfer = new TaskTransfer(target, target, checkpoint);
+
+        try {
+            transfer.importFrom(new ByteArrayInputStream(file), "arquivo", file.length, null);
+            fail();
+        } catch (IOException e) {
+            assertSame(DENIED, e.getCause());
+        }
+        assertEquals("arquivo", transfer.getPendingImport());
+        assertEquals(1_000, target.liveCount());
+
+        target.setFailurePolicy(null);
+        long before = target.getWriteCount();
+        TaskTransfer.Result result = transfer.importFrom(new ByteArrayInputStream(file), "arquivo", file.length, null);
+
+        assertTrue(result.resumed);
+        assertEquals(1_234, result.tasks);
+        assertEquals(1_234, target.liveCount());
+        // Só o lote recusado é reenviado
+        assertEquals(1, target.getWriteCount() - before);
+        assertNull(transfer.getPendingImport());
+    }
+
+    @Test
+    public void anotherFileStartsOver() throws IOException {
+        byte[] file = export(source);
+        target.failNext(1, DENIED);
+        TaskTransfer transfer = new TaskTransfer(target, target, checkpoint);
+        try {
+            transfer.importFrom(new ByteArrayInputStream(file), "arquivo", file.length, null);
+            fail();
+        } catch (IOException expected) {
+            // Checkpoint do primeiro arquivo, sem nenhum lote confirmado
+        }
+
+        TaskTransfer.Result result = transfer.importFrom(new ByteArrayInputStream(file), "outro", file.length, null);
+
+        assertFalse(result.resumed);
+        assertEquals(1_234, result.tasks);
+    }
+
+    @Test
+    public void invalidLinesAreSkippedAndCounted() throws IOException {
+        StringBuilder text = new StringBuilder("﻿");
+        TaskJsonLines.write(text, new Task("a1", "Primeira", "", false));
+        text.append("não é json\n\n");
+        TaskJsonLines.write(text, new Task("a/b", "Chave inválida", "", false));
+        text.append("{\"id\":\"longa\",\"title\":\"");
+        for (int i = 0; i < TaskTransfer.MAX_LINE_BYTES; i++) {
+            text.append('x');
+        }
+        text.append("\"}\r\n");
+        TaskJsonLines.write(text, new Task("a2", "Segunda", "", true));
+        text.setLength(text.length() - 1);
+
+        TaskTransfer.Result result = importInto(target, text.toString().getBytes(StandardCharsets.UTF_8), "arquivo", null);
+
+        assertEquals(2, result.tasks);
+        assertEquals(3, result.rejectedLines);
+        assertEquals("Primeira", target.get("a1").get(Task.FIELD_TITLE));
+        assertEquals(true, target.get("a2").get(Task.FIELD_COMPLETED));
+    }
+
+    @Test
+    public void linesTheDatabaseRulesWouldRejectAreSkipped() throws IOException {
+        // Como o database.rules.json: prioridade de 0 a 3 e createdAt até o relógio do servidor
+        target.setFailurePolicy(updates -> {
+            for (Object value : updates.values()) {
+                Map<?, ?> fields = (Map<?, ?>) value;
+                Object priority = fields.get(Task.FIELD_PRIORITY);
+                Object createdAt = fields.get(Task.FIELD_CREATED_AT);
+                if (((Number) priority).intValue() < 0 || ((Number) priority).intValue() > 3
+                        || createdAt instanceof Number && ((Number) createdAt).longValue() > target.now()) {
+                    return DENIED;
+                }
+            }
+            return null;
+        });
+        long future = System.currentTimeMillis() + 365 * 24 * 60 * 60 * 1000L;
+        StringBuilder text = new StringBuilder();
+        TaskJsonLines.write(text, new Task("a1", "Válida", "", false));
+        TaskJsonLines.write(text, new Task("a2", "Prioridade alta demais", "", false, null, null, null, 7, null));
+        TaskJsonLines.write(text, new Task("a3", "Prioridade negativa", "", true, null, null, null, -1, null));
+        TaskJsonLines.write(text, new Task("a4", "Criada no futuro", "", false, future, future, null, 2, null));
+
+        TaskTransfer.Result result = importInto(target, text.toString().getBytes(StandardCharsets.UTF_8), "arquivo", null);
+
+        assertEquals(2, result.tasks);
+        assertEquals(2, result.rejectedLines);
+        assertNull(target.get("a2"));
+        assertEquals(target.now(), target.get("a4").get(Task.FIELD_CREATED_AT));
+        assertFalse(checkpoint.exists());
+    }
+
+    @Test
+    public void unconfirmedChunkFailsInsteadOfHanging() throws IOException {
+        byte[] file = export(source);
+        TaskTransfer transfer = new TaskTransfer(target, (updates, callback) -> {
+            // Sem conexão: o SDK guarda a escrita e nunca responde
+        }, checkpoint);
+        transfer.setAckTimeoutMillis(50);
+
+        try {
+            transfer.importFrom(new ByteArrayInputStream(file), "arquivo", file.length, null);
+            fail();
+        } catch (IOException expected) {
+            assertEquals("arquivo", transfer.getPendingImport());
+        }
+    }
+
+    // Numa JVM à parte com heap de 16 MB: a conta e o arquivo só existem em streaming
+    @Test
+    public void roundTripOf200kTasksFitsInATightHeap() throws Exception {
+        File file = folder.newFile("tasks.ndjson");
+        Process process = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                TIGHT_HEAP, "-cp", System.getProperty("java.class.path"), TaskTransferTest.class.getName(),
+                file.getPath(), Integer.toString(LARGE_COUNT))
+                .redirectErrorStream(true)
+                .start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+        }
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES));
+        String report = output.toString("UTF-8");
+
+        assertEquals(report, 0, process.exitValue());
+    }
+
+    // Processo filho do teste acima: conta sintética -> arquivo -> destino que confere cada tarefa
+    public static void main(String[] args) throws IOException {
+        File file = new File(args[0]);
+        int count = Integer.parseInt(args[1]);
+        SyntheticAccount account = new SyntheticAccount(count);
+        long exported;
+        try (OutputStream out = new FileOutputStream(file)) {
+            exported = new TaskTransfer(account, account, new File(file.getPath() + ".checkpoint")).export(out, null);
+        }
+        TaskTransfer.Result result;
+        try (InputStream in = new FileInputStream(file)) {
+            result = new TaskTransfer(account, account, new File(file.getPath() + ".checkpoint"))
+                    .importFrom(in, file.getPath(), file.length(), null);
+        }
+
+        long expected = account.expectedTasks();
+        if (exported != expected || result.tasks != expected || account.imported != expected
+                || result.rejectedLines != 0 || account.mismatches != 0) {
+            System.err.printf("Divergência: esperadas=%d exportadas=%d importadas=%d conferidas=%d recusadas=%d "
+                            + "diferentes=%d%n", expected, exported, result.tasks, account.imported,
+                    result.rejectedLines, account.mismatches);
+            System.exit(1);
+        }
+    }
+
+    // Gera as páginas sob demanda e confere cada lote importado contra a mesma fórmula, sem
+    // guardar nenhuma das duas pontas
+    private static final class SyntheticAccount implements TaskTransfer.ExportSource, TaskRemote {
+
+        private final int count;
+        long imported;
+        long mismatches;
+
+        SyntheticAccount(int count) {
+            this.count = count;
+        }
+
+        static String idOf(int index) {
+            return String.format(Locale.US, "t%07d", index);
+        }
+
+        // Uma a cada mil é marca de exclusão, que a exportação deixa de fora
+        static boolean isTombstone(int index) {
+            return index % 1_000 == 999;
+        }
+
+        static Task task(int index) {
+            long base = 1_600_000_000_000L + index * 1_000L;
+            return new Task(idOf(index), "Tarefa " + index + " \"importante\"",
+                    index % 5 == 0 ? null : "Linha 1\nLinha 2 — ação nº " + index + " ✓",
+                    index % 3 == 0, base, base + 500, index % 4 == 0 ? null : base + 86_400_000L,
+                    index % 4, index % 7 == 0 ? base + 3_600_000L : null);
+        }
+
+        long expectedTasks() {
+            return count - count / 1_000;
+        }
+
+        @Override
+        public Map<String, Map<String, Object>> readPage(String afterKey, int limit) {
+            int start = afterKey == null ? 0 : Integer.parseInt(afterKey.substring(1)) + 1;
+            Map<String, Map<String, Object>> page = new LinkedHashMap<>();
+            for (int i = start; i < count && page.size() < limit; i++) {
+                page.put(idOf(i), isTombstone(i) ? TaskCodec.tombstone() : TaskCodec.toMap(task(i)));
+            }
+            return page;
+        }
+
+        @Override
+        public void updateChildren(Map<String, Object> updates, Callback callback) {
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                int index = Integer.parseInt(update.getKey().substring(1));
+                @SuppressWarnings("unchecked")
+                Map<String, Object> fields = new LinkedHashMap<>((Map<String, Object>) update.getValue());
+                Map<String, Object> expected = TaskCodec.toMap(task(index));
+                boolean stamped = TaskCodec.SERVER_TIMESTAMP.equals(fields.remove(Task.FIELD_UPDATED_AT));
+                expected.remove(Task.FIELD_UPDATED_AT);
+                if (!stamped || isTombstone(index) || !expected.equals(fields)) {
+                    mismatches++;
+                }
+                imported++;
+            }
+            callback.onComplete(null);
+        }
+    }
+
+    private byte[] export(FakeTaskDatabase database) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TaskTransfer(database, database, checkpoint).export(out, null);
+        return out.toByteArray();
+    }
+
+    private TaskTransfer.Result importInto(FakeTaskDatabase database, byte[] file, String key,
+                                           TaskTransfer.ProgressListener progress) throws IOException {
+        return new TaskTransfer(database, database, checkpoint)
+                .importFrom(new ByteArrayInputStream(file), key, file.length, progress);
+    }
+
+    private static List<String> lines(byte[] file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(file),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
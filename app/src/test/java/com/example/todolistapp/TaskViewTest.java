@@ -0,0 +1,124 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TaskViewTest {
+
+    private TaskStore store;
+    private TaskView view;
+    private List<Runnable> scheduled;
+    private List<List<Task>> snapshots;
+    private List<Boolean> switches;
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        for (int i = 0; i < 6; i++) {
+            store.upsert(new Task("t" + i, "Tarefa " + i, "", i % 2 == 1));
+        }
+        scheduled = new ArrayList<>();
+        view = new TaskView(store, new TaskIndex(store), (runnable, delayMillis) -> scheduled.add(runnable));
+        snapshots = new ArrayList<>();
+        switches = new ArrayList<>();
+        view.setListener((snapshot, viewSwitched) -> {
+            snapshots.add(snapshot);
+            switches.add(viewSwitched);
+        });
+    }
+
+    @Test
+    public void filterSwitchPublishesOneSnapshot() {
+        view.setFilter(TaskIndex.Filter.PENDING);
+        view.setFilter(TaskIndex.Filter.COMPLETED);
+        runScheduled();
+
+        assertEquals(1, snapshots.size());
+        assertEquals(Arrays.asList("t1", "t3", "t5"), ids(snapshots.get(0)));
+        assertTrue(switches.get(0));
+    }
+
+    @Test
+    public void searchNarrowsAndRestores() {
+        view.setSearch("tarefa 3");
+        runScheduled();
+        assertEquals(Arrays.asList("t3"), ids(snapshots.get(0)));
+
+        view.setSearch("");
+        runScheduled();
+        assertEquals(6, snapshots.get(1).size());
+    }
+
+    @Test
+    public void storeDeltasAreCoalescedIntoOnePublish() {
+        view.setFilter(TaskIndex.Filter.PENDING);
+        runScheduled();
+        snapshots.clear();
+        switches.clear();
+
+        store.upsert(new Task("t1", "Tarefa 1", "", false));
+        store.upsert(new Task("t2", "Tarefa 2", "", true));
+        store.upsert(new Task("t4", "Tarefa 4 editada", "", false));
+        store.upsert(new Task("t6", "Tarefa 6", "", true));
+        store.remove("t0");
+        assertEquals(1, scheduled.size());
+        runScheduled();
+
+        assertEquals(1, snapshots.size());
+        assertEquals(Arrays.asList("t1", "t4"), ids(snapshots.get(0)));
+        assertEquals("Tarefa 4 editada", snapshots.get(0).get(1).getTitle());
+        assertFalse(switches.get(0));
+    }
+
+    @Test
+    public void publishedSnapshotIsNotAffectedByLaterChanges() {
+        store.remove("t0");
+        runScheduled();
+        List<Task> first = snapshots.get(0);
+
+        store.remove("t1");
+        runScheduled();
+
+        assertEquals(5, first.size());
+        assertEquals(4, snapshots.get(1).size());
+        try {
+            first.remove(0);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void unrelatedChangeDoesNotPublish() {
+        view.setFilter(TaskIndex.Filter.PENDING);
+        runScheduled();
+        snapshots.clear();
+
+        store.upsert(new Task("t3", "Tarefa 3 editada", "", true));
+        runScheduled();
+
+        assertTrue(snapshots.isEmpty());
+    }
+
+    private void runScheduled() {
+        List<Runnable> pending = new ArrayList<>(scheduled);
+        scheduled.clear();
+        for (Runnable runnable : pending) {
+            runnable.run();
+        }
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TaskWriterBulkTest {
+
+    // Aplica escritas multi-caminho como o servidor e devolve os eventos de filho ao listener
+    private static class FakeTaskRemote implements TaskRemote {
+        final Map<String, Map<String, Object>> children = new LinkedHashMap<>();
+        final List<Integer> writeSizes = new ArrayList<>();
+        TaskSyncListener listener;
+        Exception failure;
+
+        @Override
+        public void updateChildren(Map<String, Object> updates, Callback callback) {
+            writeSizes.add(updates.size());
+            if (failure != null) {
+                callback.onComplete(failure);
+                return;
+            }
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                String[] path = update.getKey().split("/");
+                if (path.length == 1 && update.getValue() == null) {
+                    if (children.remove(path[0]) != null) {
+                        listener.applyRemoval(path[0]);
+                    }
+                } else if (path.length == 1) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> node = new LinkedHashMap<>((Map<String, Object>) update.getValue());
+                    children.put(path[0], node);
+                    listener.applyFields(path[0], node);
+                } else {
+                    children.get(path[0]).put(path[1], update.getValue());
+                    listener.applyFields(path[0], children.get(path[0]));
+                }
+            }
+            callback.onComplete(null);
+        }
+
+        void seed(int count) {
+            for (int i = 0; i < count; i++) {
+                String id = String.format("t%05d", i);
+                Map<String, Object> fields = new LinkedHashMap<>();
+                fields.put(Task.FIELD_TITLE, "Tarefa " + i);
+                fields.put(Task.FIELD_DESCRIPTION, "");
+                fields.put(Task.FIELD_COMPLETED, i % 2 == 0);
+                children.put(id, fields);
+                listener.applyFields(id, fields);
+            }
+        }
+
+        int liveCount() {
+            int live = 0;
+            for (Map<String, Object> fields : children.values()) {
+                if (!TaskCodec.isTombstone(fields)) {
+                    live++;
+                }
+            }
+            return live;
+        }
+    }
+
+    private FakeTaskRemote remote;
+    private TaskStore store;
+    private TaskWriter writer;
+    private Exception[] result;
+
+    @Before
+    public void setUp() {
+        remote = new FakeTaskRemote();
+        store = new TaskStore();
+        remote.listener = new TaskSyncListener(store, error -> fail());
+        remote.seed(1_200);
+        writer = new TaskWriter(store, remote, (runnable, delayMillis) -> runnable.run());
+        result = new Exception[]{new Exception("callback não chamado")};
+    }
+
+    @Test
+    public void bulkCompleteSendsOnlyPendingTasksInChunks() {
+        writer.completeAll(ids(0, 1_200), true, error -> result[0] = error);
+
+        // completed e updatedAt de cada uma das 600 pendentes, sem separar os caminhos de uma tarefa
+        assertNull(result[0]);
+        assertEquals(3, writer.getRoundTripCount());
+        assertEquals(1_200, remote.writeSizes.get(0) + remote.writeSizes.get(1) + remote.writeSizes.get(2));
+        assertEquals(500, (int) remote.writeSizes.get(0));
+        for (Task task : store.getTasks()) {
+            assertTrue(task.isCompleted());
+        }
+    }
+
+    @Test
+    public void bulkDeleteIsChunkedAndReconciledInOnePass() {
+        List<String> ids = ids(0, 1_100);
+        writer.deleteAll(ids, error -> result[0] = error);
+        store.removeAll(ids);
+
+        assertNull(result[0]);
+        assertEquals(3, writer.getRoundTripCount());
+        assertEquals(100, remote.liveCount());
+        assertEquals(100, store.size());
+        assertEquals("t01100", store.getTasks().get(0).getId());
+    }
+
+    @Test
+    public void clearCompletedDeletesOnlyCompleted() {
+        List<String> ids = writer.clearCompleted(error -> result[0] = error);
+        store.removeAll(ids);
+
+        assertEquals(600, ids.size());
+        assertEquals(2, writer.getRoundTripCount());
+        for (Task task : store.getTasks()) {
+            assertFalse(task.isCompleted());
+        }
+    }
+
+    @Test
+    public void chunkFailureIsReportedOnce() {
+        remote.failure = new Exception("Permission denied");
+        int[] calls = new int[1];
+        writer.deleteAll(ids(0, 1_200), error -> {
+            calls[0]++;
+            result[0] = error;
+        });
+
+        assertEquals(1, calls[0]);
+        assertSame(remote.failure, result[0]);
+        assertEquals(1_200, remote.liveCount());
+    }
+
+    @Test
+    public void bulkCostComparedWithPerTaskWrites() {
+        for (String id : ids(0, 1_200)) {
+            writer.delete(id, null);
+        }
+        long perTask = writer.getRoundTripCount();
+        remote.seed(1_200);
+        TaskWriter bulkWriter = new TaskWriter(store, remote, (runnable, delayMillis) -> runnable.run());
+        bulkWriter.deleteAll(ids(0, 1_200), null);
+
+        assertEquals(1_200, perTask);
+        assertEquals(3, bulkWriter.getRoundTripCount());
+    }
+
+    private static List<String> ids(int from, int to) {
+        List<String> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ids.add(String.format("t%05d", i));
+        }
+        return ids;
+    }
+}
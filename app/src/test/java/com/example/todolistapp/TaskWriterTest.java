@@ -0,0 +1,150 @@
+package com.example.todolistapp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TaskWriterTest {
+
+    private final List<Map<String, Object>> payloads = new ArrayList<>();
+    private final List<TaskRemote.Callback> callbacks = new ArrayList<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private TaskStore store;
+    private TaskWriter writer;
+
+    @Before
+    public void setUp() {
+        store = new TaskStore();
+        store.upsert(new Task("t1", "Título", "Uma descrição longa", false));
+        TaskRemote remote = (updates, callback) -> {
+            payloads.add(updates);
+            callbacks.add(callback);
+        };
+        writer = new TaskWriter(store, remote, (runnable, delayMillis) -> scheduled.add(runnable));
+    }
+
+    @Test
+    public void toggleSendsOnlyCompletedField() {
+        writer.enqueue(toggled(true));
+        runScheduled();
+
+        assertEquals(Collections.singletonList(change("t1", "completed", true)), payloads);
+    }
+
+    @Test
+    public void repeatedTogglesCoalesceIntoOneWrite() {
+        writer.enqueue(toggled(true));
+        writer.enqueue(toggled(false));
+        writer.enqueue(toggled(true));
+        assertEquals(1, scheduled.size());
+        runScheduled();
+
+        assertEquals(Collections.singletonList(change("t1", "completed", true)), payloads);
+    }
+
+    @Test
+    public void toggleBackToSyncedValueSendsNothing() {
+        writer.enqueue(toggled(true));
+        writer.enqueue(toggled(false));
+        runScheduled();
+
+        assertTrue(payloads.isEmpty());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    public void editSendsOnlyChangedFields() {
+        Task edited = store.get("t1").copy();
+        edited.setTitle("Novo título");
+        edited.setDescription("Uma descrição longa");
+        boolean[] done = new boolean[1];
+        writer.write(edited, error -> done[0] = error == null);
+
+        assertEquals(Collections.singletonList(change("t1", "title", "Novo título")), payloads);
+        callbacks.get(0).onComplete(null);
+        assertTrue(done[0]);
+        assertTrue(edited.getDirtyFields().isEmpty());
+    }
+
+    @Test
+    public void deleteLeavesTombstoneAndDropsPendingToggle() {
+        writer.enqueue(toggled(true));
+        writer.delete("t1", null);
+        runScheduled();
+
+        assertEquals(Collections.singletonList(payload("t1", TaskCodec.tombstone())), payloads);
+    }
+
+    @Test
+    public void flushAllSendsPendingImmediately() {
+        store.upsert(new Task("t2", "Outra", "", false));
+        writer.enqueue(toggled(true));
+        Task other = store.get("t2").copy();
+        other.setCompleted(true);
+        writer.enqueue(other);
+
+        writer.flushAll();
+
+        assertEquals(2, payloads.size());
+        assertEquals(change("t2", "completed", true), payloads.get(1));
+        runScheduled();
+        assertEquals(2, payloads.size());
+    }
+
+    @Test
+    public void dueDateOnPendingTaskUpdatesTheQueryIndex() {
+        Task edited = store.get("t1").copy();
+        edited.setDueAt(5_000L);
+        writer.write(edited, null);
+
+        Map<String, Object> expected = change("t1", Task.FIELD_DUE_AT, 5_000L);
+        expected.put("t1/" + Task.FIELD_PENDING_DUE_AT, 5_000L);
+        assertEquals(Collections.singletonList(expected), payloads);
+    }
+
+    @Test
+    public void failedToggleReachesFailureListener() {
+        List<String> failed = new ArrayList<>();
+        writer.setFailureListener((taskId, error) -> failed.add(taskId));
+        writer.enqueue(toggled(true));
+        runScheduled();
+
+        callbacks.get(0).onComplete(new Exception("Permission denied"));
+
+        assertEquals(Collections.singletonList("t1"), failed);
+    }
+
+    private Task toggled(boolean completed) {
+        Task task = store.get("t1").copy();
+        task.setCompleted(completed);
+        return task;
+    }
+
+    private void runScheduled() {
+        List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        for (Runnable runnable : due) {
+            runnable.run();
+        }
+    }
+
+    // Toda alteração de campo leva junto o updatedAt do servidor
+    private static Map<String, Object> change(String id, String field, Object value) {
+        Map<String, Object> payload = payload(id + "/" + field, value);
+        payload.put(id + "/" + Task.FIELD_UPDATED_AT, TaskCodec.SERVER_TIMESTAMP);
+        return payload;
+    }
+
+    private static Map<String, Object> payload(String path, Object value) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put(path, value);
+        return payload;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.todolistapp.benchmark;
+
+import android.os.Bundle;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+// Jornadas de usuário compartilhadas pelo gerador de perfil e pelos benchmarks.
+// A conta de teste vem dos argumentos da instrumentação, ex.:
+// -Pandroid.testInstrumentationRunnerArguments.email=... -P...password=...
+final class AppFlows {
+
+    static final String PACKAGE_NAME = "com.example.todolistapp";
+    private static final long TIMEOUT_MS = 10_000;
+    // Pixels por segundo; bem acima do padrão do UiAutomator, como um dedo com pressa
+    private static final int FAST_FLING_SPEED = 20_000;
+
+    private AppFlows() {
+    }
+
+    // Na primeira abertura sem sessão o app cai no login; entra com a conta de teste
+    static void signInIfNeeded(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        if (!device.wait(Until.hasObject(By.res(PACKAGE_NAME, "buttonLogin")), 2_000)) {
+            return;
+        }
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String email = arguments.getString("email");
+        String password = arguments.getString("password");
+        if (email == null || password == null) {
+            throw new IllegalStateException("Informe os argumentos email e password da conta de teste");
+        }
+        device.findObject(By.res(PACKAGE_NAME, "editTextEmail")).setText(email);
+        device.findObject(By.res(PACKAGE_NAME, "editTextPassword")).setText(password);
+        device.findObject(By.res(PACKAGE_NAME, "buttonLogin")).click();
+        waitForTaskList(scope);
+    }
+
+    static UiObject2 waitForTaskList(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, "recyclerViewTasks")), TIMEOUT_MS);
+        if (list == null) {
+            throw new IllegalStateException("Lista de tarefas não apareceu");
+        }
+        return list;
+    }
+
+    // Rola a lista até o fim e volta, com margem para não abrir a barra de notificações
+    static void scrollTaskList(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = waitForTaskList(scope);
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < 3; i++) {
+            list.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        for (int i = 0; i < 3; i++) {
+            list.fling(Direction.UP);
+            device.waitForIdle();
+        }
+    }
+
+    // Só para baixo, flings seguidos sem esperar a lista parar: cada frame cria ou religa linhas
+    // novas. Numa conta de 10k tarefas isso percorre alguns milhares de linhas por iteração.
+    static void flingTaskListDown(MacrobenchmarkScope scope, int flings) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = waitForTaskList(scope);
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < flings; i++) {
+            list.fling(Direction.DOWN, FAST_FLING_SPEED);
+        }
+        device.waitForIdle();
+    }
+
+    // Abre o diálogo, preenche e confirma; passa pela inflação do diálogo e pela escrita
+    static void addTask(MacrobenchmarkScope scope, String title) {
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE_NAME, "fabAddTask")).click();
+        UiObject2 titleField = device.wait(Until.findObject(By.res(PACKAGE_NAME, "editTextTaskTitle")), TIMEOUT_MS);
+        titleField.setText(title);
+        device.findObject(By.res(PACKAGE_NAME, "editTextTaskDescription")).setText("Criada pelo benchmark");
+        device.findObject(By.res("android", "button1")).click();
+        device.wait(Until.gone(By.res(PACKAGE_NAME, "editTextTaskTitle")), TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.todolistapp.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+// Gera o baseline profile do app cobrindo abertura, rolagem da lista e a criação de tarefa.
+// Rodar com: ./gradlew :app:generateBaselineProfile (aparelho com API 28+ conectado).
+// O resultado vai para app/src/release/generated/baselineProfiles e deve ser commitado.
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                AppFlows.PACKAGE_NAME,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    AppFlows.signInIfNeeded(scope);
+                    AppFlows.scrollTaskList(scope);
+                    AppFlows.addTask(scope, "Perfil " + System.currentTimeMillis());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.todolistapp.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+// Jank ao rolar a lista: duração e atraso dos frames, sem AOT e com o baseline profile.
+// flingLongListWithBaselineProfile precisa de uma conta de teste com 10k tarefas.
+// Rodar com: ./gradlew :benchmark:connectedBenchmarkReleaseAndroidTest
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    private static final int ITERATIONS = 10;
+    private static final int LONG_LIST_FLINGS = 30;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void scrollWithoutProfile() {
+        measureScroll(new CompilationMode.None());
+    }
+
+    @Test
+    public void scrollWithBaselineProfile() {
+        measureScroll(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    // Conta com 10k tarefas (a partir da segunda abertura, carregada por páginas): duração dos
+    // frames ao criar, ligar e medir linhas sem parar. Mede o warmUp do pool, os listeners fixos
+    // por holder e o layout das descrições calculado pelo TaskTextCache.
+    @Test
+    public void flingLongListWithBaselineProfile() {
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    AppFlows.signInIfNeeded(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    AppFlows.flingTaskListDown(scope, LONG_LIST_FLINGS);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private void measureScroll(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    AppFlows.signInIfNeeded(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    AppFlows.scrollTaskList(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
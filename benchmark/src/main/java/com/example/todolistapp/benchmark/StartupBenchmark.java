@@ -0,0 +1,88 @@
+package com.example.todolistapp.benchmark;
+
+import android.content.Intent;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+// Tempo até o primeiro frame, frio e morno. Os resultados saem em JSON em
+// benchmark/build/outputs/connected_android_test_additional_output.
+// Rodar com: ./gradlew :benchmark:connectedBenchmarkReleaseAndroidTest
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final String PACKAGE_NAME = AppFlows.PACKAGE_NAME;
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    // Caminho atual: launcher -> SplashActivity -> Main ou Login
+    @Test
+    public void coldStartThroughSplash() {
+        measureStartup(StartupMode.COLD, null, CompilationMode.DEFAULT);
+    }
+
+    @Test
+    public void warmStartThroughSplash() {
+        measureStartup(StartupMode.WARM, null, CompilationMode.DEFAULT);
+    }
+
+    // Efeito do baseline profile: tudo interpretado contra só o perfil compilado
+    @Test
+    public void coldStartWithoutProfile() {
+        measureStartup(StartupMode.COLD, null, new CompilationMode.None());
+    }
+
+    @Test
+    public void coldStartWithBaselineProfile() {
+        measureStartup(StartupMode.COLD, null, new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    // Caminho anterior, para comparação: MainActivity aberta direto pelo launcher
+    @Test
+    public void coldStartDirectToMain() {
+        measureStartup(StartupMode.COLD, PACKAGE_NAME + ".MainActivity", CompilationMode.DEFAULT);
+    }
+
+    @Test
+    public void warmStartDirectToMain() {
+        measureStartup(StartupMode.WARM, PACKAGE_NAME + ".MainActivity", CompilationMode.DEFAULT);
+    }
+
+    private void measureStartup(StartupMode startupMode, String activityName, CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    if (activityName == null) {
+                        scope.startActivityAndWait();
+                    } else {
+                        Intent intent = new Intent();
+                        intent.setClassName(PACKAGE_NAME, activityName);
+                        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                        scope.startActivityAndWait(intent);
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
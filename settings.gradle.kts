@@ -16,3 +16,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "ToDoListApp"
 include(":app")
+include(":benchmark")